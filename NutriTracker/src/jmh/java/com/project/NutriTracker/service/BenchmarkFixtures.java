@@ -0,0 +1,94 @@
+package com.project.NutriTracker.service;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.project.NutriTracker.document.DailyNutritionRollup;
+import com.project.NutriTracker.document.FoodComposition;
+
+/**
+ * Shared inputs for the benchmarks: the bundled nutrition dataset and seeded
+ * synthetic meal histories, so runs are comparable across releases.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 42;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * The bundled CSVs mapped exactly as a dataset load maps them
+     */
+    static List<FoodComposition> foods() throws Exception {
+        List<FoodComposition> foods = new ArrayList<>();
+        read("ifct2017_compositions.csv", "IFCT2017", FoodDatasetService::mapIfctRow, foods);
+        read("Anuvaad_INDB_2024.11.csv", "Anuvaad_INDB_2024", FoodDatasetService::mapAnuvaadRow, foods);
+        return foods;
+    }
+
+    /**
+     * A dataset service serving an index over the bundled CSVs, without Mongo
+     */
+    static FoodDatasetService datasetService() throws Exception {
+        FoodDatasetService.Snapshot snapshot = new FoodDatasetService.Snapshot("benchmark",
+                FoodCompositionIndex.build(foods()));
+        return new FoodDatasetService(null, null, null, null) {
+            @Override
+            public Snapshot current() {
+                return snapshot;
+            }
+        };
+    }
+
+    /**
+     * Daily rollups between start and end inclusive, each day logged with the given probability.
+     * Intakes scatter around a 2000 kcal diet so some days meet the default goals.
+     */
+    static List<DailyNutritionRollup> rollups(LocalDate start, LocalDate end, double loggedRatio) {
+        Random random = new Random(SEED);
+        List<DailyNutritionRollup> rollups = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            if (random.nextDouble() >= loggedRatio) {
+                continue;
+            }
+            DailyNutritionRollup rollup = new DailyNutritionRollup();
+            rollup.setId("benchmark|" + date);
+            rollup.setUserId("benchmark");
+            rollup.setDate(date);
+            rollup.setTotalCalories(2000 + random.nextGaussian() * 250);
+            rollup.setTotalProtein(150 + random.nextGaussian() * 20);
+            rollup.setTotalCarbohydrates(200 + random.nextGaussian() * 30);
+            rollup.setTotalFat(67 + random.nextGaussian() * 10);
+            rollup.setTotalFiber(25 + random.nextGaussian() * 5);
+            rollup.setTotalSugar(40 + random.nextGaussian() * 10);
+            rollup.setMealCount(1 + random.nextInt(5));
+            rollups.add(rollup);
+        }
+        return rollups;
+    }
+
+    private static void read(String resource, String source, Function<String[], FoodComposition> mapper,
+            List<FoodComposition> foods) throws Exception {
+        try (Reader reader = new InputStreamReader(
+                BenchmarkFixtures.class.getClassLoader().getResourceAsStream(resource), StandardCharsets.UTF_8);
+                CSVReader csvReader = new CSVReaderBuilder(reader).withSkipLines(1).build()) {
+            String[] row;
+            while ((row = csvReader.readNext()) != null) {
+                FoodComposition food = mapper.apply(row);
+                if (food != null) {
+                    food.setSource(source);
+                    foods.add(food);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.project.NutriTracker.service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ingredient name normalization and alias resolution against the replaced
+ * replaceAll chain and contains-loop, on names as Gemini reports them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoodNameNormalizerBenchmark {
+
+    @Param({ "Basmati rice (cooked)", "Fresh whole spinach leaves", "Toor dal", "Grilled salmon fillet" })
+    private String name;
+
+    private Map<String, String> legacyAliases;
+
+    @Setup
+    public void setup() {
+        legacyAliases = new LinkedHashMap<>();
+        for (String keyword : new String[] { "black lentils", "urad dal", "red lentils", "masoor dal",
+                "yellow lentils", "toor dal", "arhar dal", "chickpeas", "chana", "kidney beans", "rajma",
+                "basmati rice", "wheat flour", "atta", "ghee", "clarified butter", "paneer", "cottage cheese", "curd",
+                "yogurt", "dahi", "tomato", "onion", "potato", "spinach", "palak", "chicken", "mutton", "lamb" }) {
+            legacyAliases.put(keyword, keyword);
+        }
+    }
+
+    @Benchmark
+    public String normalizeLegacy() {
+        return name.toLowerCase()
+                .replaceAll("\\(.*?\\)", "")
+                .replaceAll("whole ", "")
+                .replaceAll("raw ", "")
+                .replaceAll("cooked ", "")
+                .replaceAll("fresh ", "")
+                .replaceAll("dried ", "")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    @Benchmark
+    public String normalize() {
+        return FoodNameNormalizer.normalize(name);
+    }
+
+    @Benchmark
+    public String resolveAliasLegacy() {
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, String> entry : legacyAliases.entrySet()) {
+            if (lower.contains(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String resolveAlias() {
+        return FoodCompositionIndex.resolveAlias(name);
+    }
+}
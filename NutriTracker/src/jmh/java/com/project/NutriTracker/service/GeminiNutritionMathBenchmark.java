@@ -0,0 +1,84 @@
+package com.project.NutriTracker.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.NutriTracker.document.MealImage.FoodItem;
+import com.project.NutriTracker.dto.DetectedDish;
+import com.project.NutriTracker.dto.DishBreakdown;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Stage 3 of meal analysis for a typical dish: ingredient lookups, per-ingredient
+ * scaling and the dish totals. No Gemini calls are made.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeminiNutritionMathBenchmark {
+
+    private GeminiNutritionAnalysisService geminiNutritionAnalysisService;
+    private DetectedDish dish;
+    private DishBreakdown breakdown;
+
+    @Setup
+    public void setup() throws Exception {
+        dish = new DetectedDish("Dal tadka with rice", 350, 0.9, "yellow lentils, rice", "main_course");
+        breakdown = new DishBreakdown("Dal tadka with rice", 350, List.of(
+                new DishBreakdown.Ingredient("Toor dal", 80, "protein"),
+                new DishBreakdown.Ingredient("Basmati rice (cooked)", 180, "carb"),
+                new DishBreakdown.Ingredient("Ghee", 10, "fat"),
+                new DishBreakdown.Ingredient("Onion", 30, "vegetable"),
+                new DishBreakdown.Ingredient("Tomato", 40, "vegetable"),
+                new DishBreakdown.Ingredient("Cumin seeds", 2, "seasoning"),
+                new DishBreakdown.Ingredient("Green chillies", 5, "vegetable"),
+                new DishBreakdown.Ingredient("Mustard oil", 3, "fat")), "tempered", 0.85);
+
+        NutritionDatabaseService nutritionDatabaseService = new NutritionDatabaseService(null,
+                BenchmarkFixtures.datasetService());
+        ObjectMapper objectMapper = new ObjectMapper();
+        // Stage 3 makes no model calls; answer anything else with the dish's breakdown
+        String response = objectMapper.writeValueAsString(breakdown);
+        ModelClient offline = new ModelClient() {
+            @Override
+            public String generate(ModelRequest request) {
+                return response;
+            }
+
+            @Override
+            public String modelName() {
+                return "offline";
+            }
+        };
+        geminiNutritionAnalysisService = new GeminiNutritionAnalysisService(nutritionDatabaseService, null, offline,
+                null, objectMapper, new SimpleMeterRegistry());
+        geminiNutritionAnalysisService.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        geminiNutritionAnalysisService.shutdown();
+    }
+
+    @Benchmark
+    public FoodItem calculateDishNutrition() {
+        return geminiNutritionAnalysisService.calculateDishNutrition(dish, breakdown);
+    }
+}
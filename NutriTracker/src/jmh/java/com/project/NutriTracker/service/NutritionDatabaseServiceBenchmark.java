@@ -0,0 +1,53 @@
+package com.project.NutriTracker.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.NutriTracker.document.FoodComposition;
+
+/**
+ * Ingredient lookups against the bundled dataset, one name per resolution path:
+ * exact name, alias, and fuzzy match of a misspelled or qualified name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NutritionDatabaseServiceBenchmark {
+
+    @Param({ "Tomato, ripe, local", "Toor dal", "Basmati rice (cooked)", "Chiken curry" })
+    private String name;
+
+    private NutritionDatabaseService nutritionDatabaseService;
+
+    @Setup
+    public void setup() throws Exception {
+        nutritionDatabaseService = new NutritionDatabaseService(null, BenchmarkFixtures.datasetService());
+        if (nutritionDatabaseService.findFoodByName(name) == null) {
+            throw new IllegalStateException("Benchmark name resolves to nothing: " + name);
+        }
+    }
+
+    @Benchmark
+    public FoodComposition findFoodByName() {
+        return nutritionDatabaseService.findFoodByName(name);
+    }
+
+    @Benchmark
+    public Object searchFoods() {
+        return nutritionDatabaseService.searchFoods(name.substring(0, Math.min(name.length(), 5)), 10);
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.NutriTracker.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.NutriTracker.document.DailyNutritionRollup;
+import com.project.NutriTracker.dto.MonthlyStatsResponse;
+import com.project.NutriTracker.dto.UserProfileResponse;
+import com.project.NutriTracker.dto.YearlyStatsResponse;
+
+/**
+ * Monthly and yearly stats aggregation over synthetic meal histories, from
+ * loaded daily rollups to the response; the Mongo reads are not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsAggregationBenchmark {
+
+    private static final int YEAR = 2025;
+
+    // Share of days with at least one logged meal
+    @Param({ "0.3", "1.0" })
+    private double loggedRatio;
+
+    // Aggregation only uses its arguments, so no collaborators are needed
+    private final StatsService statsService = new StatsService(null, null, null, null, null, null);
+
+    private MonthlyStatsResponse.NutritionGoals monthlyGoals;
+    private YearlyStatsResponse.NutritionGoals yearlyGoals;
+    private List<DailyNutritionRollup> month;
+    private List<DailyNutritionRollup> year;
+
+    @Setup
+    public void setup() {
+        UserProfileResponse profile = UserProfileResponse.builder().build();
+        monthlyGoals = StatsService.buildMonthlyGoals(profile);
+        yearlyGoals = StatsService.buildYearlyGoals(profile);
+
+        YearMonth march = YearMonth.of(YEAR, 3);
+        month = BenchmarkFixtures.rollups(march.atDay(1), march.atEndOfMonth(), loggedRatio);
+        year = BenchmarkFixtures.rollups(LocalDate.of(YEAR, 1, 1), LocalDate.of(YEAR, 12, 31), loggedRatio);
+    }
+
+    @Benchmark
+    public MonthlyStatsResponse monthly() {
+        return statsService.aggregateMonthly(YearMonth.of(YEAR, 3), monthlyGoals, month);
+    }
+
+    @Benchmark
+    public YearlyStatsResponse yearly() {
+        return statsService.aggregateYearly(YEAR, yearlyGoals, year);
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.NutriTracker.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.NutriTracker.config.JacksonConfig;
+import com.project.NutriTracker.dto.UserProfileResponse;
+import com.project.NutriTracker.dto.YearlyStatsResponse;
+
+/**
+ * Jackson serialization of a full year of stats with the application's ObjectMapper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class YearlyStatsSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private YearlyStatsResponse response;
+
+    @Setup
+    public void setup() {
+        objectMapper = new JacksonConfig().objectMapper();
+        StatsService statsService = new StatsService(null, null, null, null, null, null);
+        response = statsService.aggregateYearly(2025,
+                StatsService.buildYearlyGoals(UserProfileResponse.builder().build()),
+                BenchmarkFixtures.rollups(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), 1.0));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
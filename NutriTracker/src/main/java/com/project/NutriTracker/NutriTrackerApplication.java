@@ -1,15 +1,21 @@
 package com.project.NutriTracker;
 
+import java.util.Map;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
-@EnableAsync
 public class NutriTrackerApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(NutriTrackerApplication.class, args);
+		SpringApplication application = new SpringApplication(NutriTrackerApplication.class);
+		// Overridable in application.properties; metrics are scraped from /actuator/prometheus
+		// on the management port, which is kept apart from the public API port
+		application.setDefaultProperties(Map.of(
+				"management.endpoints.web.exposure.include", "health,prometheus",
+				"management.server.port", "8081"));
+		application.run(args);
 	}
 
 }
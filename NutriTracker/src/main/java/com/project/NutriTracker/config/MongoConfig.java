@@ -20,4 +20,10 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
     public MongoClient mongoClient() {
         return MongoClients.create("mongodb://localhost:27017");
     }
+
+    @Override
+    protected boolean autoIndexCreation() {
+        // Create indexes declared with @Indexed / @CompoundIndex on startup
+        return true;
+    }
 }
@@ -0,0 +1,74 @@
+package com.project.NutriTracker.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import com.project.NutriTracker.document.DailyNutritionRollup;
+import com.project.NutriTracker.document.FoodComposition;
+import com.project.NutriTracker.document.FoodDatasetVersion;
+import com.project.NutriTracker.document.MealAnalysisJob;
+import com.project.NutriTracker.document.MealImage;
+import com.project.NutriTracker.document.StatsPeriodVersion;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks on startup that the indexes declared on hot-path documents exist,
+ * creating any that are missing so stats queries never fall back to collection scans.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexVerifier {
+
+    private static final List<Class<?>> VERIFIED_DOCUMENTS = List.of(MealImage.class, DailyNutritionRollup.class,
+            MealAnalysisJob.class, StatsPeriodVersion.class, FoodComposition.class,
+            FoodDatasetVersion.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mongoMappingContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        IndexResolver resolver = IndexResolver.create(mongoMappingContext);
+
+        for (Class<?> documentType : VERIFIED_DOCUMENTS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(documentType);
+            List<IndexInfo> existing = indexOps.getIndexInfo();
+
+            for (IndexDefinition definition : resolver.resolveIndexFor(documentType)) {
+                // Directions matter: a sort is only served by an index with matching key order
+                List<String> keys = new ArrayList<>();
+                definition.getIndexKeys().forEach((key, direction) -> keys.add(key + ":" + direction));
+                boolean present = existing.stream()
+                        .anyMatch(info -> info.getIndexFields().stream().map(MongoIndexVerifier::describe).toList()
+                                .equals(keys));
+
+                if (present) {
+                    log.debug("Verified index {} on {}", keys, documentType.getSimpleName());
+                } else {
+                    log.warn("Missing index {} on {}, creating it", keys, documentType.getSimpleName());
+                    indexOps.createIndex(definition);
+                }
+            }
+        }
+        log.info("Verified MongoDB indexes for {}", VERIFIED_DOCUMENTS.stream().map(Class::getSimpleName).toList());
+    }
+
+    private static String describe(IndexField field) {
+        return field.getKey() + ":" + (field.getDirection() == Sort.Direction.DESC ? -1 : 1);
+    }
+}
@@ -1,7 +1,10 @@
 package com.project.NutriTracker.config;
 
+import jakarta.servlet.DispatcherType;
+
 import java.util.Arrays;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -26,6 +29,9 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${management.server.port:8081}")
+    private int managementPort;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -37,9 +43,17 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(
                         auth -> auth
+                                // Async dispatches (SSE streams) were already authorized on the original request
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/verify-email/**",
                                         "/api/auth/send-verification-email", "/api/auth/upload-profile-image")
-                                .permitAll().anyRequest().authenticated())
+                                .permitAll()
+                                .requestMatchers("/actuator/health").permitAll()
+                                // Scraped without a user token, but only on the management port
+                                .requestMatchers(request -> request.getLocalPort() == managementPort
+                                        && "/actuator/prometheus".equals(request.getRequestURI()))
+                                .permitAll()
+                                .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(new JwtAuthenticationEntryPoint()));
@@ -0,0 +1,91 @@
+package com.project.NutriTracker.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.project.NutriTracker.service.FoodDatasetService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Operational endpoints. Callers must be authenticated and also present the
+ * X-Admin-Token header matching app.admin.token; with no token configured
+ * every admin endpoint is disabled.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+
+    private final FoodDatasetService foodDatasetService;
+
+    @Value("${app.admin.token:}")
+    private String adminToken;
+
+    /**
+     * Get the nutrition dataset versions in use
+     * GET /api/admin/nutrition-dataset
+     */
+    @GetMapping("/nutrition-dataset")
+    public ResponseEntity<?> getNutritionDataset(
+            @RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!isAdmin(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse("Access denied"));
+        }
+        try {
+            return ResponseEntity.ok(foodDatasetService.getStatus());
+        } catch (Exception e) {
+            log.error("Error fetching nutrition dataset status: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to fetch nutrition dataset status: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Load the configured nutrition CSVs as a new dataset version in the background
+     * POST /api/admin/nutrition-dataset/reload?force=false
+     */
+    @PostMapping("/nutrition-dataset/reload")
+    public ResponseEntity<?> reloadNutritionDataset(
+            @RequestParam(defaultValue = "false") boolean force,
+            @RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!isAdmin(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse("Access denied"));
+        }
+        try {
+            String version = foodDatasetService.requestReload(force);
+            log.info("Nutrition dataset reload requested for version {} (force={})", version, force);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ReloadResponse(version));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error starting nutrition dataset reload: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to start reload: " + e.getMessage()));
+        }
+    }
+
+    private boolean isAdmin(String token) {
+        return !adminToken.isEmpty() && token != null && MessageDigest.isEqual(
+                adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Inner classes for responses
+    private record ErrorResponse(String error) {
+    }
+
+    private record ReloadResponse(String version) {
+    }
+}
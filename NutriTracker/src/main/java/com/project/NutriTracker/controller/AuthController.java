@@ -14,7 +14,7 @@ import org.springframework.web.multipart.MultipartFile;
 import com.project.NutriTracker.dto.LoginRequest;
 import com.project.NutriTracker.dto.RegisterRequest;
 import com.project.NutriTracker.service.AuthService;
-import com.project.NutriTracker.service.CloudStorageService;
+import com.project.NutriTracker.service.StorageService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,7 +23,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AuthController {
     private final AuthService authService;
-    private final CloudStorageService cloudStorageService;
+    private final StorageService storageService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest) {
@@ -49,7 +49,7 @@ public class AuthController {
 
     @PostMapping("/upload-profile-image")
     public ResponseEntity<String> uploadProfileImage(@RequestParam("file") MultipartFile file) throws Exception {
-        String imageUrl = cloudStorageService.uploadFile(file, "profiles");
+        String imageUrl = storageService.uploadFile(file, "profiles");
         return ResponseEntity.ok(imageUrl);
     }
 }
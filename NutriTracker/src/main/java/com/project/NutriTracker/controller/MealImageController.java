@@ -1,8 +1,11 @@
 package com.project.NutriTracker.controller;
 
+import java.time.Duration;
 import java.util.List;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.project.NutriTracker.document.FoodComposition;
 import com.project.NutriTracker.document.MealImage;
@@ -21,8 +25,12 @@ import com.project.NutriTracker.document.User;
 import com.project.NutriTracker.dto.FoodSearchResponse;
 import com.project.NutriTracker.dto.ManualFoodEntryRequest;
 import com.project.NutriTracker.dto.MealAnalysisResponse;
+import com.project.NutriTracker.dto.MealHistoryPageResponse;
 import com.project.NutriTracker.dto.MealImageUploadResponse;
+import com.project.NutriTracker.exception.AnalysisOverloadedException;
+import com.project.NutriTracker.service.FoodCompositionIndex;
 import com.project.NutriTracker.service.MealImageService;
+import com.project.NutriTracker.service.MealStatusStreamService;
 import com.project.NutriTracker.service.NutritionDatabaseService;
 
 import lombok.RequiredArgsConstructor;
@@ -34,8 +42,11 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MealImageController {
 
+    private static final Duration SEARCH_CACHE_MAX_AGE = Duration.ofSeconds(60);
+
     private final MealImageService mealImageService;
     private final NutritionDatabaseService nutritionDatabaseService;
+    private final MealStatusStreamService mealStatusStreamService;
 
     /**
      * Upload meal image for analysis
@@ -58,6 +69,10 @@ public class MealImageController {
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
+        } catch (AnalysisOverloadedException e) {
+            // Mapped to 429 with Retry-After by GlobalExceptionHandler
+            log.warn("Meal upload rejected: {}", e.getMessage());
+            throw e;
         } catch (IllegalArgumentException e) {
             log.error("Validation error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
@@ -93,17 +108,25 @@ public class MealImageController {
     }
 
     /**
-     * Search for foods in the database
-     * GET /api/meals/search?q=chicken&limit=10
+     * Typeahead search for foods in the database
+     * GET /api/meals/search?q=chicken%20cu&limit=10
+     *
+     * Meant to be called as the user types: every word but the last must match
+     * a word of the food name, the last may be a prefix. Clients should debounce
+     * keystrokes (~150 ms), cancel the previous request when sending a new one,
+     * and ignore any response whose query is not the current input. limit is
+     * clamped to 1..20; results may be cached briefly by the client.
      */
     @GetMapping("/search")
     public ResponseEntity<?> searchFoods(
             @RequestParam("q") String query,
             @RequestParam(defaultValue = "10") int limit) {
         try {
-            log.info("Searching for foods with query: {}", query);
+            log.debug("Searching for foods with query: {}", query);
 
-            List<FoodComposition> results = nutritionDatabaseService.searchFoods(query, limit);
+            String trimmed = query.trim();
+            int clampedLimit = Math.max(1, Math.min(limit, FoodCompositionIndex.MAX_SUGGESTIONS));
+            List<FoodComposition> results = nutritionDatabaseService.searchFoods(trimmed, clampedLimit);
 
             // Convert to response DTO
             List<FoodSearchResponse.FoodItem> foodItems = results.stream()
@@ -123,11 +146,15 @@ public class MealImageController {
                     .toList();
 
             FoodSearchResponse response = FoodSearchResponse.builder()
+                    .query(trimmed)
                     .results(foodItems)
                     .totalResults(foodItems.size())
                     .build();
 
-            return ResponseEntity.ok(response);
+            // Backspacing re-issues earlier queries; the dataset rarely changes
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(SEARCH_CACHE_MAX_AGE).cachePrivate())
+                    .body(response);
 
         } catch (Exception e) {
             log.error("Error searching foods: {}", e.getMessage(), e);
@@ -137,15 +164,22 @@ public class MealImageController {
     }
 
     /**
-     * Get all meal images for authenticated user
-     * GET /api/meals
+     * Get meal history for authenticated user, newest first
+     * GET /api/meals?limit=20&cursor=...
+     * Pass the returned nextCursor to fetch the following page
      */
     @GetMapping
-    public ResponseEntity<?> getUserMealImages(Authentication authentication) {
+    public ResponseEntity<?> getUserMealImages(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
         try {
-            String userId = authentication.getName();
-            List<MealImage> mealImages = mealImageService.getUserMealImages(userId);
-            return ResponseEntity.ok(mealImages);
+            User principal = (User) authentication.getPrincipal();
+            String userId = principal.getId();
+            MealHistoryPageResponse page = mealImageService.getUserMealHistory(userId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             log.error("Error fetching meal images: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -178,6 +212,36 @@ public class MealImageController {
         }
     }
 
+    /**
+     * Stream status changes for a meal as Server-Sent Events
+     * GET /api/meals/{id}/status/stream
+     * Sends the current status, then each transition until ANALYZED or FAILED
+     */
+    @GetMapping(value = "/{id}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamMealStatus(
+            @PathVariable String id,
+            Authentication authentication) {
+        try {
+            User principal = (User) authentication.getPrincipal();
+            MealImage mealImage = mealImageService.getMealImageById(id);
+
+            // Verify user owns this meal image
+            if (!mealImage.getUserId().equals(principal.getId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(new ErrorResponse("Access denied"));
+            }
+
+            SseEmitter emitter = mealStatusStreamService.subscribe(mealImage);
+            return ResponseEntity.ok(emitter);
+        } catch (Exception e) {
+            log.error("Error opening meal status stream: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new ErrorResponse("Meal image not found"));
+        }
+    }
+
     /**
      * Get meal analysis by ID
      * GET /api/meals/{id}/analysis
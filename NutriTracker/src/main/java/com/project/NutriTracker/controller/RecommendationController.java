@@ -3,6 +3,8 @@ package com.project.NutriTracker.controller;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +15,7 @@ import com.project.NutriTracker.document.User;
 import com.project.NutriTracker.dto.DietRecommendationResponse;
 import com.project.NutriTracker.dto.MonthlyStatsResponse;
 import com.project.NutriTracker.dto.UserProfileResponse;
+import com.project.NutriTracker.exception.ModelUnavailableException;
 import com.project.NutriTracker.service.GeminiNutritionAnalysisService;
 import com.project.NutriTracker.service.StatsService;
 import com.project.NutriTracker.service.UserService;
@@ -54,6 +57,11 @@ public class RecommendationController {
 
             return ResponseEntity.ok(recommendation);
 
+        } catch (ModelUnavailableException e) {
+            log.warn("Diet recommendation unavailable: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new ErrorResponse("Recommendations are temporarily unavailable, try again later"));
         } catch (Exception e) {
             log.error("Error generating diet recommendation: {}", e.getMessage(), e);
             return ResponseEntity.status(500)
@@ -3,15 +3,22 @@ package com.project.NutriTracker.controller;
 import java.time.LocalDate;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.project.NutriTracker.document.User;
 import com.project.NutriTracker.dto.DailyStatsResponse;
+import com.project.NutriTracker.dto.MonthlyStatsResponse;
+import com.project.NutriTracker.dto.StreakResponse;
+import com.project.NutriTracker.dto.YearlyStatsResponse;
+import com.project.NutriTracker.service.StatsResponseCache;
 import com.project.NutriTracker.service.StatsService;
 
 import lombok.RequiredArgsConstructor;
@@ -24,6 +31,7 @@ import lombok.extern.slf4j.Slf4j;
 public class StatsController {
 
     private final StatsService statsService;
+    private final StatsResponseCache statsResponseCache;
 
     /**
      * Get daily nutrition stats
@@ -73,19 +81,25 @@ public class StatsController {
     /**
      * Get monthly nutrition stats
      * GET /api/stats/monthly?year=2026&month=2
+     * Returns 304 when If-None-Match carries the current ETag
      */
     @GetMapping("/monthly")
     public ResponseEntity<?> getMonthlyStats(
             @RequestParam int year,
             @RequestParam int month,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             Authentication authentication) {
         try {
             User principal = (User) authentication.getPrincipal();
             String userId = principal.getId();
             log.info("Fetching monthly stats for user: {} for {}-{}", userId, year, month);
 
-            com.project.NutriTracker.dto.MonthlyStatsResponse stats = statsService.getMonthlyStats(userId, year, month);
-            return ResponseEntity.ok(stats);
+            String etag = statsResponseCache.monthlyETag(userId, year, month);
+            if (statsResponseCache.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            MonthlyStatsResponse stats = statsResponseCache.getMonthlyStats(userId, year, month, etag);
+            return ResponseEntity.ok().eTag(etag).body(stats);
         } catch (Exception e) {
             log.error("Error fetching monthly stats: {}", e.getMessage(), e);
             return ResponseEntity.status(500)
@@ -96,18 +110,24 @@ public class StatsController {
     /**
      * Get yearly nutrition stats
      * GET /api/stats/yearly?year=2026
+     * Returns 304 when If-None-Match carries the current ETag
      */
     @GetMapping("/yearly")
     public ResponseEntity<?> getYearlyStats(
             @RequestParam int year,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             Authentication authentication) {
         try {
             User principal = (User) authentication.getPrincipal();
             String userId = principal.getId();
             log.info("Fetching yearly stats for user: {} for year {}", userId, year);
 
-            com.project.NutriTracker.dto.YearlyStatsResponse stats = statsService.getYearlyStats(userId, year);
-            return ResponseEntity.ok(stats);
+            String etag = statsResponseCache.yearlyETag(userId, year);
+            if (statsResponseCache.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            YearlyStatsResponse stats = statsResponseCache.getYearlyStats(userId, year, etag);
+            return ResponseEntity.ok().eTag(etag).body(stats);
         } catch (Exception e) {
             log.error("Error fetching yearly stats: {}", e.getMessage(), e);
             return ResponseEntity.status(500)
@@ -119,10 +139,12 @@ public class StatsController {
      * Get streak information
      * GET /api/stats/streak?days=30
      * Default: last 30 days
+     * Returns 304 when If-None-Match carries the current ETag
      */
     @GetMapping("/streak")
     public ResponseEntity<?> getStreak(
             @RequestParam(required = false, defaultValue = "30") int days,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             Authentication authentication) {
         try {
             User principal = (User) authentication.getPrincipal();
@@ -131,8 +153,12 @@ public class StatsController {
 
             log.info("Fetching streak for user: {} (last {} days)", userId, days);
 
-            com.project.NutriTracker.dto.StreakResponse streak = statsService.calculateStreak(userId, endDate, days);
-            return ResponseEntity.ok(streak);
+            String etag = statsResponseCache.streakETag(userId, endDate, days);
+            if (statsResponseCache.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            StreakResponse streak = statsResponseCache.getStreak(userId, endDate, days, etag);
+            return ResponseEntity.ok().eTag(etag).body(streak);
         } catch (Exception e) {
             log.error("Error fetching streak: {}", e.getMessage(), e);
             return ResponseEntity.status(500)
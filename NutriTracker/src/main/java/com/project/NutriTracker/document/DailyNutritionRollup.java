@@ -0,0 +1,50 @@
+package com.project.NutriTracker.document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "daily_nutrition_rollup")
+@CompoundIndex(name = "user_date", def = "{'userId': 1, 'date': 1}", unique = true)
+public class DailyNutritionRollup {
+    @Id
+    private String id; // userId|yyyy-MM-dd
+
+    private String userId;
+
+    private LocalDate date;
+
+    // Sums of NutritionSummary over the day's ANALYZED meals
+    private double totalCalories;
+    private double totalProtein;
+    private double totalCarbohydrates;
+    private double totalFat;
+    private double totalFiber;
+    private double totalSugar;
+
+    private int mealCount;
+
+    // Meals counted in the sums, so a meal event applied after a rebuild that already saw it is a no-op
+    private List<String> mealIds = new ArrayList<>();
+
+    // Bumped by every write; rebuilds only replace the revision they started from
+    private Long revision;
+
+    private LocalDateTime updatedAt;
+
+    public static String idFor(String userId, LocalDate date) {
+        return userId + "|" + date;
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.NutriTracker.document;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.project.NutriTracker.dto.DishBreakdown;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "dish_breakdown_cache")
+public class DishBreakdownCacheEntry {
+    @Id
+    private String id; // normalizedDishName|portionBucket
+
+    private String normalizedDishName;
+
+    private Integer portionBucket; // in grams
+
+    private DishBreakdown breakdown; // As returned by Stage 2 for breakdown.totalPortionGrams
+
+    @Indexed(expireAfter = "${app.gemini.breakdown-cache.ttl:30d}")
+    private LocalDateTime createdAt;
+}
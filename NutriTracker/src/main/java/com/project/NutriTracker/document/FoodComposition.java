@@ -1,6 +1,7 @@
 package com.project.NutriTracker.document;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -11,6 +12,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "food_composition")
+@CompoundIndex(name = "dataset_source_code", def = "{'datasetVersion': 1, 'source': 1, 'code': 1}", unique = true)
 public class FoodComposition {
     @Id
     private String id;
@@ -24,4 +26,5 @@ public class FoodComposition {
     private Double carbohydrate;
     private Double totalFiber;
     private String source;
+    private String datasetVersion; // FoodDatasetVersion this row belongs to
 }
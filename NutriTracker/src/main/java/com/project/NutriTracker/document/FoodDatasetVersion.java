@@ -0,0 +1,33 @@
+package com.project.NutriTracker.document;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "food_dataset_versions")
+@CompoundIndex(name = "status_activated", def = "{'status': 1, 'activatedAt': -1}")
+public class FoodDatasetVersion {
+    @Id
+    private String id; // Content hash of the source CSVs
+
+    private String status; // LOADING, ACTIVE, RETIRED, FAILED
+
+    private long itemCount;
+
+    private long rejectedCount;
+
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime activatedAt;
+}
@@ -0,0 +1,54 @@
+package com.project.NutriTracker.document;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "meal_analysis_jobs")
+@CompoundIndexes({
+        // Claiming due work and reclaiming expired leases
+        @CompoundIndex(name = "status_next_attempt", def = "{'status': 1, 'nextAttemptAt': 1}"),
+        @CompoundIndex(name = "status_lease_expires", def = "{'status': 1, 'leaseExpiresAt': 1}")
+})
+public class MealAnalysisJob {
+    @Id
+    private String id; // Same as the meal image ID, so enqueueing is idempotent
+
+    private String userId;
+
+    private String imageUrl; // Workers download the image from Cloud Storage
+
+    private String mimeType;
+
+    private String status; // PENDING, RUNNING, DONE, DEAD
+
+    private int attempts;
+
+    private int deferrals; // Attempts handed back because the model was unavailable
+
+    private LocalDateTime nextAttemptAt;
+
+    private String leaseOwner; // Node ID of the worker holding the job
+
+    private LocalDateTime leaseExpiresAt;
+
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Indexed(expireAfter = "${app.analysis.jobs.done-ttl:7d}")
+    private LocalDateTime completedAt; // Only set on DONE, so DEAD jobs are kept for inspection
+}
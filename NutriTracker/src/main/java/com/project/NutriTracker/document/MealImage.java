@@ -5,6 +5,8 @@ import java.util.List;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -15,6 +17,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "meal_images")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_uploaded_at_id", def = "{'userId': 1, 'uploadedAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_status_uploaded_at", def = "{'userId': 1, 'status': 1, 'uploadedAt': 1}"),
+        @CompoundIndex(name = "status_uploaded_at", def = "{'status': 1, 'uploadedAt': 1}"),
+        @CompoundIndex(name = "user_content_hash_uploaded_at", def = "{'userId': 1, 'contentHash': 1, 'uploadedAt': -1}")
+})
 public class MealImage {
     @Id
     private String id;
@@ -25,6 +33,8 @@ public class MealImage {
 
     private String fileName;
 
+    private String contentHash; // SHA-256 of the uploaded image bytes
+
     private String status; // UPLOADED, PROCESSING, ANALYZED, FAILED
 
     private List<FoodItem> detectedFoods;
@@ -0,0 +1,23 @@
+package com.project.NutriTracker.document;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "migrations")
+public class MigrationMarker {
+    @Id
+    private String id; // Name of the one-time data migration
+
+    private LocalDateTime claimedAt; // Set by the node running it; a stale claim may be taken over
+
+    private LocalDateTime completedAt; // Never runs again once set
+}
@@ -0,0 +1,29 @@
+package com.project.NutriTracker.document;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "stats_period_versions")
+@CompoundIndex(name = "user_year_month", def = "{'userId': 1, 'yearMonth': 1}", unique = true)
+public class StatsPeriodVersion {
+    @Id
+    private String id; // userId|yyyy-MM
+
+    private String userId;
+
+    private String yearMonth; // yyyy-MM, sorts lexicographically
+
+    private long version; // Incremented whenever a day in the month changes
+
+    private LocalDateTime updatedAt;
+}
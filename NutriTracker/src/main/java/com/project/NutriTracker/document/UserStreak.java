@@ -0,0 +1,53 @@
+package com.project.NutriTracker.document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_streaks")
+public class UserStreak {
+    @Id
+    private String userId;
+
+    // Latest run of consecutive goal-met days; null if no day ever met goals
+    private LocalDate currentRunStart;
+    private LocalDate currentRunEnd; // Last goal-met day
+
+    // Longest run ending before the current one, so the current run can shrink in place
+    private Integer priorLongestRun;
+    private LocalDate priorLongestRunStart;
+
+    private String goalsVersion; // Goals the met flags were computed against, see UserService.goalsVersion
+
+    private LocalDateTime rebuiltAt;
+
+    @Version
+    private Long version;
+
+    public int currentRunLength() {
+        return currentRunEnd == null ? 0 : (int) (currentRunEnd.toEpochDay() - currentRunStart.toEpochDay()) + 1;
+    }
+
+    public int longestRun() {
+        return Math.max(priorLongestRun(), currentRunLength());
+    }
+
+    // Ties go to the earlier run
+    public LocalDate longestRunStart() {
+        return currentRunLength() > priorLongestRun() ? currentRunStart : priorLongestRunStart;
+    }
+
+    private int priorLongestRun() {
+        return priorLongestRun != null ? priorLongestRun : 0;
+    }
+}
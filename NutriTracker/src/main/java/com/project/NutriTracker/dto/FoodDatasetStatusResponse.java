@@ -0,0 +1,18 @@
+package com.project.NutriTracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodDatasetStatusResponse {
+    private String activeVersion; // Version activated cluster-wide
+    private String servingVersion; // Version this node is answering lookups from
+    private int servingItems;
+    private String availableVersion; // Version of the configured CSV files
+    private boolean reloading;
+}
@@ -12,6 +12,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class FoodSearchResponse {
+    // The query as searched, so clients can drop responses to superseded keystrokes
+    private String query;
     private List<FoodItem> results;
     private Integer totalResults;
 
@@ -0,0 +1,35 @@
+package com.project.NutriTracker.dto;
+
+import java.util.List;
+
+import com.project.NutriTracker.document.MealImage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealHistoryPageResponse {
+    private List<MealListItem> items;
+    private String nextCursor; // Opaque; pass back as ?cursor= to fetch the next page
+    private Boolean hasMore;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MealListItem {
+        private String id;
+        private String imageUrl;
+        private String fileName;
+        private String status;
+        private List<String> foodItems; // Dish names only; full breakdown via GET /api/meals/{id}
+        private MealImage.NutritionSummary nutritionSummary;
+        private String uploadedAt;
+        private String analyzedAt;
+    }
+}
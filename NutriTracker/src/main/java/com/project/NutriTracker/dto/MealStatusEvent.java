@@ -0,0 +1,18 @@
+package com.project.NutriTracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Payload of the "status" events sent on GET /api/meals/{id}/status/stream */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealStatusEvent {
+    private String mealImageId;
+    private String status; // UPLOADED, PROCESSING, ANALYZED, FAILED
+    private String errorMessage;
+    private String timestamp;
+}
@@ -14,9 +14,13 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class StreakResponse {
 
+    // Across the whole history as of the end date
     private Integer currentStreak;
     private Integer longestStreak;
     private LocalDate streakStartDate;
+    // True if the streaks were counted within the calendar only: the history is being
+    // recomputed, or the end date is before the current run
+    private Boolean windowOnly;
     private LocalDate lastLoggedDate;
     private List<StreakDay> calendar;
     private String motivationalMessage;
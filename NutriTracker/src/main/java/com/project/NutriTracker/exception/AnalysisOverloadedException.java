@@ -0,0 +1,14 @@
+package com.project.NutriTracker.exception;
+
+public class AnalysisOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public AnalysisOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
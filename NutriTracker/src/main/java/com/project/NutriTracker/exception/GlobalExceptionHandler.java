@@ -3,6 +3,7 @@ package com.project.NutriTracker.exception;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -44,6 +45,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler(AnalysisOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleAnalysisOverloadedException(AnalysisOverloadedException exception) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "too many requests");
+        response.put("error", exception.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleException(Exception exception) {
         Map<String, Object> response = new HashMap<>();
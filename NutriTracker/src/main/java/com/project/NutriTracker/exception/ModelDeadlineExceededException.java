@@ -0,0 +1,17 @@
+package com.project.NutriTracker.exception;
+
+import java.io.IOException;
+
+/**
+ * The model call could not complete before the caller's deadline
+ */
+public class ModelDeadlineExceededException extends IOException {
+
+    public ModelDeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public ModelDeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
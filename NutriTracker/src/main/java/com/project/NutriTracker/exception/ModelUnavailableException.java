@@ -0,0 +1,24 @@
+package com.project.NutriTracker.exception;
+
+import java.io.IOException;
+
+/**
+ * The model was not called because it is degraded or over quota; retry later
+ */
+public class ModelUnavailableException extends IOException {
+    private final long retryAfterSeconds;
+
+    public ModelUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ModelUnavailableException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.NutriTracker.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import com.project.NutriTracker.document.DailyNutritionRollup;
+
+public interface DailyNutritionRollupRepository extends MongoRepository<DailyNutritionRollup, String> {
+
+    // Inclusive on both ends, ordered by day; stats never need the counted meal ids
+    @Query(value = "{ 'userId': ?0, 'date': { $gte: ?1, $lte: ?2 }, 'mealCount': { $gt: 0 } }", sort = "{ 'date': 1 }",
+            fields = "{ 'mealIds': 0 }")
+    List<DailyNutritionRollup> findByUserIdAndDateRange(String userId, LocalDate start, LocalDate end);
+}
@@ -0,0 +1,8 @@
+package com.project.NutriTracker.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.project.NutriTracker.document.DishBreakdownCacheEntry;
+
+public interface DishBreakdownCacheRepository extends MongoRepository<DishBreakdownCacheEntry, String> {
+}
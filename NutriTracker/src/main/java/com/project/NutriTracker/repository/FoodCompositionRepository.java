@@ -1,6 +1,5 @@
 package com.project.NutriTracker.repository;
 
-import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -12,9 +11,6 @@ public interface FoodCompositionRepository extends MongoRepository<FoodCompositi
 
     Optional<FoodComposition> findByCode(String code);
 
-    @Query("{ 'name': { $regex: ?0, $options: 'i' } }")
-    List<FoodComposition> findByNameContainingIgnoreCase(String name);
-
     // Find exact name match (case insensitive)
     @Query("{ 'name': { $regex: '^?0$', $options: 'i' } }")
     Optional<FoodComposition> findByNameIgnoreCase(String name);
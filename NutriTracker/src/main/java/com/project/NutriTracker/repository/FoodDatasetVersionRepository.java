@@ -0,0 +1,16 @@
+package com.project.NutriTracker.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.project.NutriTracker.document.FoodDatasetVersion;
+
+public interface FoodDatasetVersionRepository extends MongoRepository<FoodDatasetVersion, String> {
+
+    Optional<FoodDatasetVersion> findFirstByStatusOrderByActivatedAtDesc(String status);
+
+    List<FoodDatasetVersion> findByStatusIn(Collection<String> statuses);
+}
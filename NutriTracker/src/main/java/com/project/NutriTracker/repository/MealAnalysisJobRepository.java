@@ -0,0 +1,8 @@
+package com.project.NutriTracker.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.project.NutriTracker.document.MealAnalysisJob;
+
+public interface MealAnalysisJobRepository extends MongoRepository<MealAnalysisJob, String> {
+}
@@ -2,8 +2,10 @@ package com.project.NutriTracker.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.project.NutriTracker.document.MealImage;
@@ -12,9 +14,20 @@ import com.project.NutriTracker.document.MealImage;
 public interface MealImageRepository extends MongoRepository<MealImage, String> {
     List<MealImage> findByUserId(String userId);
 
-    List<MealImage> findByUserIdOrderByUploadedAtDesc(String userId);
-
     List<MealImage> findByStatus(String status);
 
     List<MealImage> findByUserIdAndUploadedAtBetween(String userId, LocalDateTime start, LocalDateTime end);
+
+    // Stats projections; both are served by the {userId, status, uploadedAt} index
+    @Query(value = "{ 'userId': ?0, 'status': ?1, 'uploadedAt': { $gte: ?2, $lte: ?3 } }",
+            fields = "{ 'uploadedAt': 1, 'status': 1, 'nutritionSummary': 1 }")
+    List<MealNutritionView> findNutritionByUserIdAndStatusAndUploadedAtBetween(String userId, String status,
+            LocalDateTime start, LocalDateTime end);
+
+    @Query(value = "{ 'userId': ?0, 'status': ?1, 'uploadedAt': { $gte: ?2, $lte: ?3 } }",
+            fields = "{ 'detectedFoods.ingredientBreakdown': 0, 'detectedFoods.visualCues': 0 }")
+    List<MealImage> findSummariesByUserIdAndStatusAndUploadedAtBetween(String userId, String status,
+            LocalDateTime start, LocalDateTime end);
+
+    Optional<MealImage> findFirstByUserIdAndContentHashOrderByUploadedAtDesc(String userId, String contentHash);
 }
@@ -0,0 +1,18 @@
+package com.project.NutriTracker.repository;
+
+import java.time.LocalDateTime;
+
+import com.project.NutriTracker.document.MealImage;
+
+/**
+ * Slim projection of a meal for stats code: no detected foods or ingredient breakdowns
+ */
+public interface MealNutritionView {
+    String getId();
+
+    String getStatus();
+
+    LocalDateTime getUploadedAt();
+
+    MealImage.NutritionSummary getNutritionSummary();
+}
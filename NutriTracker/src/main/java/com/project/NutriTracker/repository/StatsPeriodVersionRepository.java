@@ -0,0 +1,16 @@
+package com.project.NutriTracker.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import com.project.NutriTracker.document.StatsPeriodVersion;
+
+public interface StatsPeriodVersionRepository extends MongoRepository<StatsPeriodVersion, String> {
+
+    // Inclusive on both ends
+    @Query(value = "{ 'userId': ?0, 'yearMonth': { $gte: ?1, $lte: ?2 } }", fields = "{ 'version': 1 }")
+    List<StatsPeriodVersion> findByUserIdAndYearMonthRange(String userId, String startYearMonth,
+            String endYearMonth);
+}
@@ -3,6 +3,7 @@ package com.project.NutriTracker.repository;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.project.NutriTracker.document.User;
 
@@ -10,4 +11,8 @@ public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
 
     Optional<User> findByEmailVerificationToken(String emailVerificationToken);
+
+    // Only updatedAt is populated; lets caches revalidate without loading the profile
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'updatedAt': 1 }")
+    Optional<User> findUpdatedAtById(String id);
 }
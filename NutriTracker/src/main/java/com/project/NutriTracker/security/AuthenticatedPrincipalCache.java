@@ -0,0 +1,50 @@
+package com.project.NutriTracker.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project.NutriTracker.document.User;
+import com.project.NutriTracker.utils.ExpiringCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded cache from a verified bearer token to its authenticated user.
+ *
+ * An entry lives until the token expires or max-age passes, whichever comes
+ * first, so a hit never outlives the token and profile data is refreshed
+ * periodically even without explicit invalidation.
+ */
+@Component
+public class AuthenticatedPrincipalCache {
+
+    @Value("${app.jwt.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.jwt.principal-cache.max-age:5m}")
+    private Duration maxAge;
+
+    private ExpiringCache<String, User> entries;
+
+    @PostConstruct
+    public void init() {
+        this.entries = new ExpiringCache<>(maxEntries);
+    }
+
+    public User get(String token) {
+        return entries.get(token);
+    }
+
+    public void put(String token, User user, long tokenExpiresAtMillis) {
+        entries.put(token, user, Math.min(tokenExpiresAtMillis, System.currentTimeMillis() + maxAge.toMillis()));
+    }
+
+    /**
+     * Drop every cached token of a user, e.g. after a profile or password change
+     */
+    public void invalidateUser(String userId) {
+        entries.removeIf((token, user) -> userId.equals(user.getId()));
+    }
+}
@@ -20,43 +20,48 @@ import com.project.NutriTracker.exception.ResourceNotFoundException;
 import com.project.NutriTracker.repository.UserRepository;
 import com.project.NutriTracker.utils.JwtUtil;
 
+import io.jsonwebtoken.Claims;
+
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final AuthenticatedPrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String userID = null;
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            try {
-                userID = jwtUtil.getUserIdFromToken(token);
-            } catch (Exception e) {
-                throw new RuntimeException("Invalid token");
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(7);
+            User user = principalCache.get(token);
+            if (user == null) {
+                user = authenticate(token);
             }
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    user, null, new ArrayList<>());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
+        filterChain.doFilter(request, response);
+    }
 
-        if (userID != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                if (jwtUtil.validateToken(token) && !jwtUtil.isTokenExpired(token)) {
-                    User user = userRepository.findById(userID)
-                            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            user, null, new ArrayList<>());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            } catch (Exception e) {
-                throw new RuntimeException("Invalid token");
-            }
+    /**
+     * Verify the token once, load its user and cache the result until the token expires
+     */
+    private User authenticate(String token) {
+        try {
+            Claims claims = jwtUtil.parseClaims(token);
+            User user = userRepository.findById(claims.getSubject())
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            principalCache.put(token, user, claims.getExpiration().getTime());
+            return user;
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid token");
         }
-        filterChain.doFilter(request, response);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.project.NutriTracker.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to the model's capacity (AIMD).
+ *
+ * Every success raises the limit by 1/limit, about one per limit's worth of
+ * calls; an overload signal (429, 503, timeout) cuts it by a factor, at most
+ * once per backoff interval so one burst of failures counts once. Callers
+ * over the limit wait. Uses a lock rather than monitors so waiting virtual
+ * threads do not pin their carriers.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF_RATIO = 0.7;
+    private static final long BACKOFF_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int min;
+    private final int max;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private long backedOffAt;
+
+    AdaptiveConcurrencyLimit(int initial, int min, int max) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.limit = Math.clamp(initial, this.min, this.max);
+        this.backedOffAt = System.nanoTime() - BACKOFF_INTERVAL_NANOS;
+    }
+
+    /**
+     * Wait up to timeoutNanos for a slot; false if none freed up in time
+     */
+    boolean acquire(long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = timeoutNanos;
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Free a slot, adjusting the limit by how the call went
+     */
+    void release(boolean succeeded, boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+            long now = System.nanoTime();
+            if (overloaded) {
+                if (now - backedOffAt >= BACKOFF_INTERVAL_NANOS) {
+                    limit = Math.max(min, limit * BACKOFF_RATIO);
+                    backedOffAt = now;
+                }
+            } else if (succeeded) {
+                limit = Math.min(max, limit + 1.0 / limit);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
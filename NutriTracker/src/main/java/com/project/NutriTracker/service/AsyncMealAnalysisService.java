@@ -1,12 +1,16 @@
 package com.project.NutriTracker.service;
 
 import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
 
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.project.NutriTracker.document.MealImage;
-import com.project.NutriTracker.repository.MealImageRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,36 +20,56 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AsyncMealAnalysisService {
 
-    private final MealImageRepository mealImageRepository;
+    private final MongoTemplate mongoTemplate;
     private final GeminiNutritionAnalysisService geminiNutritionAnalysisService;
+    private final DailyNutritionRollupService dailyNutritionRollupService;
+    private final MealStatusStreamService mealStatusStreamService;
 
-    @Async
-    public void analyzeImageAsync(String mealImageId, byte[] imageBytes, String mimeType) {
-        log.info("Starting async two-stage nutrition analysis for meal image: {}", mealImageId);
-        try {
-            // Update status to PROCESSING
-            updateStatus(mealImageId, "PROCESSING");
+    /**
+     * Run the two-stage analysis for a meal image and store the result.
+     * Called by MealAnalysisJobService workers; exceptions are left to the job for retry.
+     * The result is stored only while leaseHeld confirms this worker still owns the job.
+     */
+    public void analyzeImage(String mealImageId, byte[] imageBytes, String mimeType, BooleanSupplier leaseHeld)
+            throws Exception {
+        log.info("Starting two-stage nutrition analysis for meal image: {}", mealImageId);
 
-            // Call Gemini Nutrition Analysis (Two-Stage Pipeline)
-            MealImage analysisResult = geminiNutritionAnalysisService.analyzeMeal(imageBytes, mimeType);
+        // Update status to PROCESSING
+        updateStatus(mealImageId, "PROCESSING");
 
-            // Update DB record
-            MealImage mealImage = mealImageRepository.findById(mealImageId).orElse(null);
-            if (mealImage != null) {
-                mealImage.setDetectedFoods(analysisResult.getDetectedFoods());
-                mealImage.setNutritionSummary(analysisResult.getNutritionSummary());
-                mealImage.setStatus("ANALYZED");
-                mealImage.setAnalyzedAt(LocalDateTime.now());
-                mealImageRepository.save(mealImage);
-                log.info("Analysis completed for meal image: {}", mealImageId);
-            } else {
-                log.warn("Meal image not found for analysis: {}", mealImageId);
-            }
+        // Call Gemini Nutrition Analysis (Two-Stage Pipeline)
+        MealImage analysisResult = geminiNutritionAnalysisService.analyzeMeal(imageBytes, mimeType);
 
-        } catch (Exception e) {
-            log.error("Error analyzing meal image: {}", mealImageId, e);
-            updateStatus(mealImageId, "FAILED", e.getMessage());
+        // A worker whose lease expired mid-analysis has been replaced; let the new one store its result
+        if (!leaseHeld.getAsBoolean()) {
+            log.warn("Lost the analysis lease for meal image: {}, discarding result", mealImageId);
+            return;
         }
+
+        // Only the write that moves the meal into ANALYZED adds it to the daily rollup,
+        // so two workers finishing the same meal never count it twice
+        MealImage mealImage = mongoTemplate.findAndModify(notAnalyzed(mealImageId),
+                new Update()
+                        .set("detectedFoods", analysisResult.getDetectedFoods())
+                        .set("nutritionSummary", analysisResult.getNutritionSummary())
+                        .set("status", "ANALYZED")
+                        .set("analyzedAt", LocalDateTime.now())
+                        .unset("errorMessage"),
+                FindAndModifyOptions.options().returnNew(true), MealImage.class);
+        if (mealImage != null) {
+            dailyNutritionRollupService.recordMeal(mealImage);
+            mealStatusStreamService.publish(mealImageId, "ANALYZED", null);
+            log.info("Analysis completed for meal image: {}", mealImageId);
+        } else {
+            log.warn("Meal image not found or already analyzed: {}", mealImageId);
+        }
+    }
+
+    /**
+     * Mark a meal image as FAILED once its analysis job has run out of attempts
+     */
+    public void markFailed(String mealImageId, String error) {
+        updateStatus(mealImageId, "FAILED", error);
     }
 
     private void updateStatus(String id, String status) {
@@ -53,12 +77,17 @@ public class AsyncMealAnalysisService {
     }
 
     private void updateStatus(String id, String status, String error) {
-        mealImageRepository.findById(id).ifPresent(img -> {
-            img.setStatus(status);
-            if (error != null) {
-                img.setErrorMessage(error);
-            }
-            mealImageRepository.save(img);
-        });
+        Update update = new Update().set("status", status);
+        if (error != null) {
+            update.set("errorMessage", error);
+        }
+        // Never move a meal back out of ANALYZED
+        if (mongoTemplate.updateFirst(notAnalyzed(id), update, MealImage.class).getMatchedCount() > 0) {
+            mealStatusStreamService.publish(id, status, error);
+        }
+    }
+
+    private static Query notAnalyzed(String id) {
+        return Query.query(Criteria.where("_id").is(id).and("status").ne("ANALYZED"));
     }
 }
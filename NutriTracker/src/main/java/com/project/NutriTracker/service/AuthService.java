@@ -14,6 +14,7 @@ import com.project.NutriTracker.dto.RegisterRequest;
 import com.project.NutriTracker.exception.ResourceExistsException;
 import com.project.NutriTracker.exception.ResourceNotFoundException;
 import com.project.NutriTracker.repository.UserRepository;
+import com.project.NutriTracker.security.AuthenticatedPrincipalCache;
 import com.project.NutriTracker.utils.JwtUtil;
 
 import lombok.RequiredArgsConstructor;
@@ -25,6 +26,7 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final AuthenticatedPrincipalCache principalCache;
     @Value("${app.base.url}")
     private String appBaseUrl;
 
@@ -106,6 +108,7 @@ public class AuthService {
         user.setEmailVerificationToken(null);
         user.setEmailVerificationTokenExpiry(null);
         userRepository.save(user);
+        principalCache.invalidateUser(user.getId());
         return true;
     }
 }
@@ -0,0 +1,129 @@
+package com.project.NutriTracker.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * Closed: calls pass and outcomes go into a sliding window of the last
+ * windowSize calls; once it holds minimumCalls and the failure rate reaches
+ * the threshold, the breaker opens. Open: calls are rejected until
+ * openDuration has passed. Half-open: one trial call is let through; its
+ * success closes the breaker, its failure opens it again.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final Consumer<State> onTransition;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int count;
+    private int failures;
+    private long openUntil;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openNanos,
+            Consumer<State> onTransition) {
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.clamp(minimumCalls, 1, window.length);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+        this.onTransition = onTransition;
+    }
+
+    /**
+     * 0 if the call may proceed, else nanos until the breaker will let a trial through
+     */
+    synchronized long tryAcquire() {
+        long now = System.nanoTime();
+        if (state == State.OPEN) {
+            if (now - openUntil < 0) {
+                return openUntil - now;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return openNanos;
+            }
+            trialInFlight = true;
+        }
+        return 0;
+    }
+
+    /**
+     * Nanos until an open breaker lets a trial through; 0 if not open
+     */
+    synchronized long openRemaining() {
+        return state == State.OPEN ? Math.max(0, openUntil - System.nanoTime()) : 0;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            reset();
+            transition(State.CLOSED);
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (count >= minimumCalls && failures >= failureRateThreshold * count) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * The call ended in a way that says nothing about the model's health
+     */
+    synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (count == window.length) {
+            failures -= window[next] ? 1 : 0;
+        } else {
+            count++;
+        }
+        window[next] = failed;
+        failures += failed ? 1 : 0;
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        openUntil = System.nanoTime() + openNanos;
+        reset();
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        next = 0;
+        count = 0;
+        failures = 0;
+    }
+
+    private void transition(State to) {
+        state = to;
+        onTransition.accept(to);
+    }
+}
@@ -5,6 +5,7 @@ import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -19,8 +20,9 @@ import com.google.cloud.storage.StorageOptions;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
+@ConditionalOnProperty(name = "app.storage.client", havingValue = "gcs", matchIfMissing = true)
 @Slf4j
-public class CloudStorageService {
+public class CloudStorageService implements StorageService {
 
     private final Storage storage;
     private final String bucketName;
@@ -47,6 +49,7 @@ public class CloudStorageService {
      * @param folder The folder path within the bucket (e.g., "meals", "profiles")
      * @return The public URL of the uploaded file
      */
+    @Override
     public String uploadFile(MultipartFile file, String folder) throws IOException {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
@@ -82,6 +85,7 @@ public class CloudStorageService {
      * @param contentType The content type (e.g., "image/jpeg")
      * @return The public URL of the uploaded file
      */
+    @Override
     public String uploadBytes(byte[] bytes, String folder, String contentType) throws IOException {
         // Generate unique filename
         String extension = contentType.contains("jpeg") ? ".jpg" : contentType.contains("png") ? ".png" : ".bin";
@@ -102,12 +106,32 @@ public class CloudStorageService {
         return String.format("https://storage.googleapis.com/%s/%s", bucketName, filename);
     }
 
+    /**
+     * Download a file from Google Cloud Storage
+     * 
+     * @param fileUrl The public URL of the file to download
+     * @return The file contents
+     */
+    @Override
+    public byte[] downloadFile(String fileUrl) throws IOException {
+        String filename = fileUrl.substring(fileUrl.lastIndexOf(bucketName + "/") + bucketName.length() + 1);
+
+        BlobId blobId = BlobId.of(bucketName, filename);
+        Blob blob = storage.get(blobId);
+        if (blob == null) {
+            throw new IOException("File not found: " + filename);
+        }
+
+        return blob.getContent();
+    }
+
     /**
      * Delete a file from Google Cloud Storage
      * 
      * @param fileUrl The public URL of the file to delete
      * @return true if deleted successfully
      */
+    @Override
     public boolean deleteFile(String fileUrl) {
         try {
             // Extract filename from URL
@@ -0,0 +1,277 @@
+package com.project.NutriTracker.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.project.NutriTracker.document.DailyNutritionRollup;
+import com.project.NutriTracker.document.MealImage;
+import com.project.NutriTracker.document.MigrationMarker;
+import com.project.NutriTracker.repository.DailyNutritionRollupRepository;
+import com.project.NutriTracker.repository.MealImageRepository;
+import com.project.NutriTracker.repository.MealNutritionView;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains daily_nutrition_rollup: one document per user per day holding the
+ * summed nutrition and meal count of that day's ANALYZED meals.
+ *
+ * Meal events apply atomic $inc updates; rebuildDay recomputes a day exactly
+ * from meal_images for backfills and repairs.
+ *
+ * Each rollup lists the meals it counts, and a meal event only applies if it
+ * changes that membership, so an event that arrives after a rebuild already
+ * counted (or dropped) its meal is a no-op. Every write bumps the rollup's
+ * revision, and a rebuild only replaces the revision it read before reading
+ * the meals, retrying otherwise, so it never overwrites a concurrent event.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyNutritionRollupService {
+
+    private final MongoTemplate mongoTemplate;
+    private final DailyNutritionRollupRepository dailyNutritionRollupRepository;
+    private final MealImageRepository mealImageRepository;
+    private final StatsPeriodVersionService statsPeriodVersionService;
+    private final StreakTrackerService streakTrackerService;
+
+    // Rerun once the rollups started listing their meals, so every rollup has the list
+    private static final String BACKFILL_MIGRATION = "daily-nutrition-rollup-backfill-v2";
+
+    // Rebuild attempts before giving up on a day that keeps changing underneath it
+    private static final int REBUILD_ATTEMPTS = 5;
+
+    // A claim this old is from a node that died mid-migration
+    private static final Duration MIGRATION_CLAIM_TIMEOUT = Duration.ofHours(1);
+
+    /**
+     * Backfill rollups once for data logged before the collection existed.
+     *
+     * Gated on a marker document rather than an empty collection, since workers
+     * started by the same event may already be writing rollups. Each day is
+     * rebuilt in place, so meals analyzed during the backfill are kept.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnce() {
+        if (!claimMigration(BACKFILL_MIGRATION)) {
+            return;
+        }
+
+        log.info("Backfilling daily nutrition rollups from meal_images...");
+        Set<Day> days = new LinkedHashSet<>();
+        Query query = new Query(Criteria.where("status").is("ANALYZED"));
+        query.fields().include("userId", "uploadedAt");
+
+        try (Stream<MealImage> meals = mongoTemplate.stream(query, MealImage.class)) {
+            meals.filter(meal -> meal.getUploadedAt() != null)
+                    .forEach(meal -> days.add(new Day(meal.getUserId(), meal.getUploadedAt().toLocalDate())));
+        }
+
+        days.forEach(day -> rebuildDay(day.userId(), day.date()));
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(BACKFILL_MIGRATION)),
+                new Update().set("completedAt", LocalDateTime.now()), MigrationMarker.class);
+        log.info("Backfilled {} daily nutrition rollups", days.size());
+    }
+
+    private record Day(String userId, LocalDate date) {
+    }
+
+    /**
+     * Claim a one-time migration for this node; false if it is done or another node is running it
+     */
+    private boolean claimMigration(String name) {
+        LocalDateTime now = LocalDateTime.now();
+        Query unclaimed = Query.query(Criteria.where("_id").is(name).and("completedAt").exists(false)
+                .orOperator(Criteria.where("claimedAt").exists(false),
+                        Criteria.where("claimedAt").lt(now.minus(MIGRATION_CLAIM_TIMEOUT))));
+        try {
+            // Upserts the marker on first run; a completed or freshly claimed one makes the insert collide
+            mongoTemplate.upsert(unclaimed, new Update().set("claimedAt", now), MigrationMarker.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A meal became ANALYZED (image analysis finished or manual entry created)
+     */
+    public void recordMeal(MealImage meal) {
+        applyDelta(meal, 1);
+    }
+
+    /**
+     * An ANALYZED meal was deleted or left the ANALYZED state
+     */
+    public void removeMeal(MealImage meal) {
+        applyDelta(meal, -1);
+    }
+
+    /**
+     * Recompute a single day exactly from meal_images
+     */
+    public void rebuildDay(String userId, LocalDate date) {
+        String id = DailyNutritionRollup.idFor(userId, date);
+        for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+            // Read the revision before the meals, so any event after it fails the write below
+            DailyNutritionRollup current = dailyNutritionRollupRepository.findById(id).orElse(null);
+            List<MealNutritionView> meals = mealImageRepository.findNutritionByUserIdAndStatusAndUploadedAtBetween(
+                    userId, "ANALYZED", date.atStartOfDay(), date.atTime(LocalTime.MAX));
+
+            DailyNutritionRollup rollup = newRollup(id, userId, date);
+            meals.forEach(meal -> add(rollup, meal.getId(), meal.getNutritionSummary()));
+
+            if (replace(current, rollup)) {
+                statsPeriodVersionService.bump(userId, date);
+                streakTrackerService.onDayChanged(userId, date);
+                return;
+            }
+            log.debug("Daily rollup {} changed during rebuild, retrying", id);
+        }
+        log.warn("Gave up rebuilding daily rollup {} after {} attempts", id, REBUILD_ATTEMPTS);
+    }
+
+    /**
+     * Write a rebuilt rollup over the one read before the rebuild; false if it changed since
+     */
+    private boolean replace(DailyNutritionRollup current, DailyNutritionRollup rollup) {
+        if (current == null) {
+            if (rollup.getMealCount() == 0) {
+                return true;
+            }
+            try {
+                rollup.setRevision(1L);
+                mongoTemplate.insert(rollup);
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }
+
+        Query unchanged = Query.query(Criteria.where("_id").is(rollup.getId()).and("revision")
+                .is(current.getRevision()));
+        if (rollup.getMealCount() == 0) {
+            return mongoTemplate.remove(unchanged, DailyNutritionRollup.class).getDeletedCount() > 0;
+        }
+        rollup.setRevision(current.getRevision() != null ? current.getRevision() + 1 : 1L);
+        return mongoTemplate.findAndReplace(unchanged, rollup) != null;
+    }
+
+    /**
+     * Logged days for a user between start and end (inclusive), ordered by date
+     */
+    public List<DailyNutritionRollup> getRollups(String userId, LocalDate start, LocalDate end) {
+        return dailyNutritionRollupRepository.findByUserIdAndDateRange(userId, start, end);
+    }
+
+    private void applyDelta(MealImage meal, int sign) {
+        if (meal == null || meal.getId() == null || meal.getUserId() == null || meal.getUploadedAt() == null) {
+            return;
+        }
+
+        LocalDate date = meal.getUploadedAt().toLocalDate();
+        String id = DailyNutritionRollup.idFor(meal.getUserId(), date);
+        MealImage.NutritionSummary summary = meal.getNutritionSummary();
+
+        Update update = new Update()
+                .setOnInsert("userId", meal.getUserId())
+                .setOnInsert("date", date)
+                .inc("mealCount", sign)
+                .inc("totalCalories", sign * value(summary != null ? summary.getTotalCalories() : null))
+                .inc("totalProtein", sign * value(summary != null ? summary.getTotalProtein() : null))
+                .inc("totalCarbohydrates", sign * value(summary != null ? summary.getTotalCarbohydrates() : null))
+                .inc("totalFat", sign * value(summary != null ? summary.getTotalFat() : null))
+                .inc("totalFiber", sign * value(summary != null ? summary.getTotalFiber() : null))
+                .inc("totalSugar", sign * value(summary != null ? summary.getTotalSugar() : null))
+                .inc("revision", 1)
+                .set("updatedAt", LocalDateTime.now());
+
+        try {
+            boolean applied = sign > 0 ? countMeal(id, meal, update) : uncountMeal(id, meal, update);
+            if (!applied) {
+                // A rebuild already reflects this meal
+                log.debug("Daily rollup {} already reflects meal {}", id, meal.getId());
+                return;
+            }
+            statsPeriodVersionService.bump(meal.getUserId(), date);
+            streakTrackerService.onDayChanged(meal.getUserId(), date);
+        } catch (Exception e) {
+            log.error("Failed to update daily rollup {}, rebuilding day", id, e);
+            rebuildDay(meal.getUserId(), date);
+        }
+    }
+
+    /**
+     * Count a meal in its day unless the day already counts it
+     */
+    private boolean countMeal(String id, MealImage meal, Update update) {
+        Query notCounted = Query.query(Criteria.where("_id").is(id).and("mealIds").ne(meal.getId()));
+        update.addToSet("mealIds", meal.getId());
+        try {
+            mongoTemplate.upsert(notCounted, update, DailyNutritionRollup.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // The day exists: either it already counts the meal or another meal created it meanwhile
+            return mongoTemplate.updateFirst(notCounted, update, DailyNutritionRollup.class).getModifiedCount() > 0;
+        }
+    }
+
+    /**
+     * Take a meal out of its day if the day counts it, dropping days left without meals
+     */
+    private boolean uncountMeal(String id, MealImage meal, Update update) {
+        Query counted = Query.query(Criteria.where("_id").is(id).and("mealIds").is(meal.getId()));
+        update.pull("mealIds", meal.getId());
+        if (mongoTemplate.updateFirst(counted, update, DailyNutritionRollup.class).getModifiedCount() == 0) {
+            return false;
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(id).and("mealCount").lte(0)),
+                DailyNutritionRollup.class);
+        return true;
+    }
+
+    private DailyNutritionRollup newRollup(String id, String userId, LocalDate date) {
+        DailyNutritionRollup rollup = new DailyNutritionRollup();
+        rollup.setId(id);
+        rollup.setUserId(userId);
+        rollup.setDate(date);
+        rollup.setUpdatedAt(LocalDateTime.now());
+        return rollup;
+    }
+
+    private void add(DailyNutritionRollup rollup, String mealId, MealImage.NutritionSummary summary) {
+        rollup.setMealCount(rollup.getMealCount() + 1);
+        rollup.getMealIds().add(mealId);
+        if (summary == null) {
+            return;
+        }
+        rollup.setTotalCalories(rollup.getTotalCalories() + value(summary.getTotalCalories()));
+        rollup.setTotalProtein(rollup.getTotalProtein() + value(summary.getTotalProtein()));
+        rollup.setTotalCarbohydrates(rollup.getTotalCarbohydrates() + value(summary.getTotalCarbohydrates()));
+        rollup.setTotalFat(rollup.getTotalFat() + value(summary.getTotalFat()));
+        rollup.setTotalFiber(rollup.getTotalFiber() + value(summary.getTotalFiber()));
+        rollup.setTotalSugar(rollup.getTotalSugar() + value(summary.getTotalSugar()));
+    }
+
+    private double value(Double d) {
+        return d != null ? d : 0.0;
+    }
+}
@@ -0,0 +1,184 @@
+package com.project.NutriTracker.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.project.NutriTracker.document.DishBreakdownCacheEntry;
+import com.project.NutriTracker.dto.DishBreakdown;
+import com.project.NutriTracker.repository.DishBreakdownCacheRepository;
+import com.project.NutriTracker.utils.ExpiringCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two-tier cache for Stage 2 dish breakdowns.
+ *
+ * Entries are keyed by normalized dish name and a quantized portion size. The
+ * in-process tier is a bounded ExpiringCache with a TTL; the Mongo tier survives
+ * restarts and is shared across nodes. Cached ingredient quantities are scaled
+ * to the portion actually requested.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DishBreakdownCacheService {
+
+    private final DishBreakdownCacheRepository dishBreakdownCacheRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.gemini.breakdown-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.gemini.breakdown-cache.portion-bucket-grams:50}")
+    private int portionBucketGrams;
+
+    @Value("${app.gemini.breakdown-cache.memory-max-entries:1000}")
+    private int memoryMaxEntries;
+
+    @Value("${app.gemini.breakdown-cache.memory-ttl:6h}")
+    private Duration memoryTtl;
+
+    @Value("${app.gemini.breakdown-cache.ttl:30d}")
+    private Duration mongoTtl;
+
+    private ExpiringCache<String, DishBreakdown> memory;
+
+    private Counter memoryHits;
+    private Counter memoryMisses;
+    private Counter mongoHits;
+    private Counter mongoMisses;
+    private Counter evictions;
+
+    @PostConstruct
+    public void init() {
+        memoryHits = counter("memory", "hit");
+        memoryMisses = counter("memory", "miss");
+        mongoHits = counter("mongo", "hit");
+        mongoMisses = counter("mongo", "miss");
+        evictions = Counter.builder("dish.breakdown.cache.evictions")
+                .description("Entries evicted from the in-process dish breakdown cache")
+                .register(meterRegistry);
+
+        this.memory = new ExpiringCache<>(memoryMaxEntries, evictions::increment);
+        meterRegistry.gauge("dish.breakdown.cache.size", this, DishBreakdownCacheService::memorySize);
+    }
+
+    /**
+     * Cached breakdown scaled to the requested portion, if any tier has one
+     */
+    public Optional<DishBreakdown> get(String dishName, Integer portionGrams) {
+        if (!enabled || dishName == null || portionGrams == null || portionGrams <= 0) {
+            return Optional.empty();
+        }
+
+        String key = cacheKey(dishName, portionGrams);
+
+        DishBreakdown cached = memory.get(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(scale(cached, dishName, portionGrams));
+        }
+        memoryMisses.increment();
+
+        try {
+            Optional<DishBreakdownCacheEntry> entry = dishBreakdownCacheRepository.findById(key)
+                    .filter(e -> e.getCreatedAt() != null
+                            && e.getCreatedAt().plus(mongoTtl).isAfter(LocalDateTime.now()));
+            if (entry.isPresent()) {
+                mongoHits.increment();
+                putInMemory(key, entry.get().getBreakdown());
+                return Optional.of(scale(entry.get().getBreakdown(), dishName, portionGrams));
+            }
+        } catch (Exception e) {
+            log.warn("Dish breakdown cache lookup failed for {}: {}", dishName, e.getMessage());
+        }
+        mongoMisses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a freshly generated breakdown in both tiers
+     */
+    public void put(String dishName, Integer portionGrams, DishBreakdown breakdown) {
+        if (!enabled || dishName == null || portionGrams == null || portionGrams <= 0 || breakdown == null
+                || breakdown.getIngredients() == null || breakdown.getIngredients().isEmpty()) {
+            return;
+        }
+
+        // Keep the portion the ingredients were generated for, so later reads can scale
+        DishBreakdown stored = copy(breakdown);
+        if (stored.getTotalPortionGrams() == null || stored.getTotalPortionGrams() <= 0) {
+            stored.setTotalPortionGrams(portionGrams);
+        }
+
+        String key = cacheKey(dishName, portionGrams);
+        putInMemory(key, stored);
+
+        try {
+            dishBreakdownCacheRepository.save(new DishBreakdownCacheEntry(
+                    key, FoodNameNormalizer.normalize(dishName), portionBucket(portionGrams), stored, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.warn("Failed to persist dish breakdown for {}: {}", dishName, e.getMessage());
+        }
+    }
+
+    String cacheKey(String dishName, int portionGrams) {
+        return FoodNameNormalizer.normalize(dishName) + "|" + portionBucket(portionGrams);
+    }
+
+    int portionBucket(int portionGrams) {
+        int bucket = Math.max(1, portionBucketGrams);
+        return Math.max(bucket, Math.round((float) portionGrams / bucket) * bucket);
+    }
+
+    private void putInMemory(String key, DishBreakdown breakdown) {
+        memory.put(key, breakdown, System.currentTimeMillis() + memoryTtl.toMillis());
+    }
+
+    private double memorySize() {
+        return memory.size();
+    }
+
+    private Counter counter(String tier, String result) {
+        return Counter.builder("dish.breakdown.cache.requests")
+                .description("Dish breakdown cache lookups")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private DishBreakdown scale(DishBreakdown source, String dishName, int portionGrams) {
+        DishBreakdown scaled = copy(source);
+        Integer sourcePortion = source.getTotalPortionGrams();
+        double factor = sourcePortion != null && sourcePortion > 0 ? (double) portionGrams / sourcePortion : 1.0;
+
+        scaled.setDishName(dishName);
+        scaled.setTotalPortionGrams(portionGrams);
+        for (DishBreakdown.Ingredient ingredient : scaled.getIngredients()) {
+            if (ingredient.getQuantityGrams() != null) {
+                ingredient.setQuantityGrams((int) Math.round(ingredient.getQuantityGrams() * factor));
+            }
+        }
+        return scaled;
+    }
+
+    private DishBreakdown copy(DishBreakdown source) {
+        List<DishBreakdown.Ingredient> ingredients = new ArrayList<>(source.getIngredients().size());
+        for (DishBreakdown.Ingredient ingredient : source.getIngredients()) {
+            ingredients.add(new DishBreakdown.Ingredient(
+                    ingredient.getName(), ingredient.getQuantityGrams(), ingredient.getCategory()));
+        }
+        return new DishBreakdown(source.getDishName(), source.getTotalPortionGrams(), ingredients,
+                source.getCookingMethod(), source.getConfidence());
+    }
+}
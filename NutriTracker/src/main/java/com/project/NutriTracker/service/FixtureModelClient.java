@@ -0,0 +1,144 @@
+package com.project.NutriTracker.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import com.google.genai.errors.ApiException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local stand-in for Gemini that replays recorded responses, for load testing
+ * the analysis pipeline without spending quota.
+ *
+ * Fixtures are read from {location}/{stage}/{key}.json, the layout
+ * GenAiModelClient records. A request gets the fixture named by its fixture key,
+ * else one picked by hashing the key, so the same image or dish always gets the
+ * same response. Each call sleeps for the configured latency plus uniform jitter
+ * and fails or returns truncated JSON at the configured rates. Latency and
+ * failures are drawn from a generator seeded with app.gemini.fixture.seed and
+ * the call number, so a run is reproducible when calls arrive in the same order.
+ * With app.storage.client=local as well, uploads need no cloud services at all.
+ */
+@Component
+@ConditionalOnProperty(name = "app.gemini.client", havingValue = "fixture")
+@RequiredArgsConstructor
+@Slf4j
+public class FixtureModelClient implements ModelClient {
+
+    private static final List<String> STAGES = List.of(ModelRequest.IDENTIFY_DISHES, ModelRequest.BREAKDOWN_DISH,
+            ModelRequest.RECOMMENDATION);
+
+    private final ResourcePatternResolver resourcePatternResolver;
+
+    @Value("${app.gemini.fixture.location:classpath:gemini-fixtures/}")
+    private String location;
+
+    @Value("${app.gemini.fixture.latency:1s}")
+    private Duration latency;
+
+    @Value("${app.gemini.fixture.jitter:250ms}")
+    private Duration jitter;
+
+    // Share of calls that fail with an API error, as quota exhaustion or an outage would
+    @Value("${app.gemini.fixture.error-rate:0.0}")
+    private double errorRate;
+
+    // HTTP status of those errors: 429 for quota, 503 for an overloaded model
+    @Value("${app.gemini.fixture.error-code:503}")
+    private int errorCode;
+
+    // Share of calls that return JSON cut off halfway
+    @Value("${app.gemini.fixture.malformed-rate:0.0}")
+    private double malformedRate;
+
+    @Value("${app.gemini.fixture.seed:42}")
+    private long seed;
+
+    // Recorded responses by stage, in key order
+    private final Map<String, List<Fixture>> fixtures = new HashMap<>();
+    private final Map<String, Map<String, String>> fixturesByKey = new HashMap<>();
+
+    private final AtomicLong calls = new AtomicLong();
+
+    private record Fixture(String key, String response) {
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        String base = location.endsWith("/") ? location : location + "/";
+        for (String stage : STAGES) {
+            List<Fixture> loaded = new ArrayList<>();
+            for (Resource resource : resourcePatternResolver.getResources(base + stage + "/*.json")) {
+                String filename = resource.getFilename();
+                loaded.add(new Fixture(filename.substring(0, filename.length() - ".json".length()),
+                        resource.getContentAsString(StandardCharsets.UTF_8)));
+            }
+            loaded.sort(Comparator.comparing(Fixture::key));
+
+            Map<String, String> byKey = new HashMap<>();
+            loaded.forEach(fixture -> byKey.put(fixture.key(), fixture.response()));
+            fixtures.put(stage, loaded);
+            fixturesByKey.put(stage, byKey);
+        }
+        log.info("Replaying model fixtures from {}: {} dish sets, {} breakdowns, {} recommendations "
+                + "(latency {} ± {}, error rate {} ({}), malformed rate {})", base,
+                fixtures.get(ModelRequest.IDENTIFY_DISHES).size(), fixtures.get(ModelRequest.BREAKDOWN_DISH).size(),
+                fixtures.get(ModelRequest.RECOMMENDATION).size(), latency, jitter, errorRate, errorCode, malformedRate);
+    }
+
+    @Override
+    public String generate(ModelRequest request) throws IOException {
+        List<Fixture> candidates = fixtures.getOrDefault(request.stage(), List.of());
+        if (candidates.isEmpty()) {
+            throw new IOException("No fixtures recorded for stage " + request.stage());
+        }
+        String key = request.fixtureKey();
+        String response = fixturesByKey.get(request.stage()).get(key);
+        if (response == null) {
+            response = candidates.get(Math.floorMod(key.hashCode(), candidates.size())).response();
+        }
+
+        SplittableRandom random = new SplittableRandom(seed * 31 + calls.getAndIncrement());
+        long jitterMillis = jitter.toMillis();
+        long delay = latency.toMillis() + (jitterMillis > 0 ? random.nextLong(-jitterMillis, jitterMillis + 1) : 0);
+        try {
+            Thread.sleep(Math.max(0, delay));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during simulated model call");
+        }
+
+        double roll = random.nextDouble();
+        if (roll < errorRate) {
+            throw new ApiException(errorCode, errorCode == 429 ? "RESOURCE_EXHAUSTED" : "UNAVAILABLE",
+                    "Simulated model failure for stage " + request.stage());
+        }
+        if (roll < errorRate + malformedRate) {
+            return response.substring(0, response.length() / 2);
+        }
+        return response;
+    }
+
+    @Override
+    public String modelName() {
+        return "fixture";
+    }
+}
@@ -0,0 +1,168 @@
+package com.project.NutriTracker.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Aho-Corasick automaton over the ingredient alias keywords.
+ *
+ * Finds, in one case-insensitive pass over a name, the alias keyword listed
+ * first among those the name contains, without lowercasing the name or
+ * scanning it once per keyword: one table lookup per character. Immutable
+ * once built.
+ */
+final class FoodAliasAutomaton {
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    // Character classes: 0 for characters in no keyword, else 1 + index into keywordChars
+    private final byte[] asciiClasses = new byte[128];
+    private final char[] keywordChars;
+
+    // Complete transition table (state * classCount + class), failure links already folded in
+    private final int[] transitions;
+    private final int classCount;
+    // Lowest keyword priority matched on reaching a state, including through its fail chain
+    private final int[] bestMatch;
+    private final String[] canonicalNames;
+
+    private FoodAliasAutomaton(List<String> keywords, List<String> canonicalNames) {
+        this.canonicalNames = canonicalNames.toArray(String[]::new);
+
+        StringBuilder distinct = new StringBuilder();
+        keywords.forEach(keyword -> keyword.chars()
+                .filter(c -> distinct.indexOf(String.valueOf((char) c)) < 0)
+                .forEach(c -> distinct.append((char) c)));
+        this.keywordChars = distinct.toString().toCharArray();
+        Arrays.sort(keywordChars);
+        this.classCount = keywordChars.length + 1;
+        for (int i = 0; i < keywordChars.length; i++) {
+            if (keywordChars[i] < 128) {
+                asciiClasses[keywordChars[i]] = (byte) (i + 1);
+            }
+        }
+
+        // Trie of the keywords; -1 marks a missing edge
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> matches = new ArrayList<>();
+        trie.add(newRow());
+        matches.add(NONE);
+        for (int priority = 0; priority < keywords.size(); priority++) {
+            int state = 0;
+            for (char c : keywords.get(priority).toCharArray()) {
+                int cls = classOf(c);
+                if (trie.get(state)[cls] < 0) {
+                    trie.get(state)[cls] = trie.size();
+                    trie.add(newRow());
+                    matches.add(NONE);
+                }
+                state = trie.get(state)[cls];
+            }
+            matches.set(state, Math.min(matches.get(state), priority));
+        }
+
+        int states = trie.size();
+        this.transitions = new int[states * classCount];
+        this.bestMatch = matches.stream().mapToInt(Integer::intValue).toArray();
+        int[] fail = new int[states];
+
+        // Breadth-first: missing edges follow the failure link, which is already complete
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < classCount; cls++) {
+            int child = trie.get(0)[cls];
+            transitions[cls] = Math.max(child, 0);
+            if (child > 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            bestMatch[state] = Math.min(bestMatch[state], bestMatch[fail[state]]);
+            for (int cls = 0; cls < classCount; cls++) {
+                int child = trie.get(state)[cls];
+                if (child > 0) {
+                    fail[child] = transitions[fail[state] * classCount + cls];
+                    transitions[state * classCount + cls] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state * classCount + cls] = transitions[fail[state] * classCount + cls];
+                }
+            }
+        }
+    }
+
+    /**
+     * Load "keyword,Canonical name" lines from a classpath resource; '#' starts a comment.
+     * Earlier lines take precedence when a name contains several keywords.
+     */
+    static FoodAliasAutomaton load(String resourceName) {
+        List<String> keywords = new ArrayList<>();
+        List<String> canonicalNames = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(resourceName).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                int comma = line.indexOf(',');
+                if (line.isEmpty() || line.startsWith("#") || comma <= 0) {
+                    continue;
+                }
+                keywords.add(line.substring(0, comma).strip().toLowerCase(Locale.ROOT));
+                canonicalNames.add(line.substring(comma + 1).strip());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load food aliases from " + resourceName, e);
+        }
+        return new FoodAliasAutomaton(keywords, canonicalNames);
+    }
+
+    /**
+     * Canonical name for the highest-precedence keyword contained in name, or null
+     */
+    String resolve(CharSequence name) {
+        if (name == null) {
+            return null;
+        }
+        int state = 0;
+        int best = NONE;
+        for (int i = 0; i < name.length(); i++) {
+            state = transitions[state * classCount + classOf(name.charAt(i))];
+            if (bestMatch[state] < best) {
+                best = bestMatch[state];
+                if (best == 0) {
+                    break;
+                }
+            }
+        }
+        return best != NONE ? canonicalNames[best] : null;
+    }
+
+    int size() {
+        return canonicalNames.length;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClasses[c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c];
+        }
+        int i = Arrays.binarySearch(keywordChars, Character.toLowerCase(c));
+        return i >= 0 ? i + 1 : 0;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[classCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -0,0 +1,293 @@
+package com.project.NutriTracker.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.project.NutriTracker.document.FoodComposition;
+
+/**
+ * Immutable in-memory snapshot of the food_composition collection.
+ *
+ * Built once from the full collection and swapped as a whole when the data
+ * changes, so lookups never need locking and never touch Mongo.
+ *
+ * Fuzzy lookups use a character-trigram index over name tokens: candidates
+ * sharing trigrams with the query are scored by Dice similarity against the
+ * whole name or its head (the food itself, before any comma or parenthesis),
+ * boosted for whole-token overlap and an exact head, and nudged towards base
+ * ingredients over dishes.
+ *
+ * Typeahead lookups go through a FoodPrefixIndex over the same name tokens.
+ */
+public final class FoodCompositionIndex {
+
+    // Keyword -> canonical database name; earlier keywords win
+    private static final FoodAliasAutomaton ALIASES = FoodAliasAutomaton.load("food-aliases.csv");
+
+    // Below this a fuzzy match is more likely wrong than useful
+    static final double MIN_MATCH_SCORE = 0.4;
+
+    public static final int MAX_SUGGESTIONS = FoodPrefixIndex.MAX_RESULTS;
+
+    private static final double TOKEN_OVERLAP_WEIGHT = 0.5;
+    private static final double HEAD_MATCH_BONUS = 0.3;
+    private static final double BASE_INGREDIENT_BONUS = 0.1;
+    private static final double EXTRA_TOKEN_PENALTY = 0.02;
+
+    // Raw ingredients; the other sources are mostly recipes
+    private static final String BASE_INGREDIENT_SOURCE = "IFCT2017";
+
+    private final List<FoodComposition> foods;
+    private final Map<String, FoodComposition> byExactName;
+    private final Map<String, FoodComposition> byId;
+
+    private final String[][] nameTokens;
+    private final String[] heads;
+    private final int[] gramCounts;
+    private final int[] headGramCounts;
+    // Trigram -> (food position << 1 | 1 if the trigram is in the head)
+    private final Map<String, int[]> gramPostings;
+
+    private final FoodPrefixIndex prefixIndex;
+
+    public record Match(FoodComposition food, double score) {
+    }
+
+    private FoodCompositionIndex(List<FoodComposition> foods) {
+        this.foods = Collections.unmodifiableList(new ArrayList<>(foods));
+        int n = this.foods.size();
+        this.nameTokens = new String[n][];
+        this.heads = new String[n];
+        this.gramCounts = new int[n];
+        this.headGramCounts = new int[n];
+        boolean[] baseIngredient = new boolean[n];
+        int[] nameLengths = new int[n];
+
+        Map<String, FoodComposition> exact = new HashMap<>();
+        Map<String, FoodComposition> ids = new HashMap<>();
+        Map<String, List<Integer>> postings = new HashMap<>();
+
+        for (int i = 0; i < n; i++) {
+            FoodComposition food = this.foods.get(i);
+            String lower = food.getName() != null ? food.getName().toLowerCase(Locale.ROOT) : "";
+
+            // First occurrence wins so lookups are stable across rebuilds
+            exact.putIfAbsent(lower, food);
+            if (food.getId() != null) {
+                ids.put(food.getId(), food);
+            }
+
+            List<String> tokens = tokenize(lower);
+            nameTokens[i] = tokens.toArray(String[]::new);
+            heads[i] = head(lower);
+            baseIngredient[i] = BASE_INGREDIENT_SOURCE.equals(food.getSource());
+            nameLengths[i] = lower.length();
+
+            Set<String> grams = trigrams(tokens);
+            Set<String> headGrams = trigrams(tokenize(heads[i]));
+            gramCounts[i] = grams.size();
+            headGramCounts[i] = headGrams.size();
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, k -> new ArrayList<>()).add(i << 1 | (headGrams.contains(gram) ? 1 : 0));
+            }
+        }
+
+        Map<String, int[]> frozen = new HashMap<>(postings.size() * 2);
+        postings.forEach((gram, list) -> frozen.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+
+        this.byExactName = exact;
+        this.byId = ids;
+        this.gramPostings = frozen;
+        this.prefixIndex = new FoodPrefixIndex(nameTokens, baseIngredient, nameLengths);
+    }
+
+    public static FoodCompositionIndex build(List<FoodComposition> foods) {
+        return new FoodCompositionIndex(foods);
+    }
+
+    public static FoodCompositionIndex empty() {
+        return new FoodCompositionIndex(List.of());
+    }
+
+    public int size() {
+        return foods.size();
+    }
+
+    public FoodComposition findById(String id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    /**
+     * Case-insensitive exact name match
+     */
+    public FoodComposition findExact(String name) {
+        if (name == null) {
+            return null;
+        }
+        return byExactName.get(name.toLowerCase(Locale.ROOT).trim());
+    }
+
+    /**
+     * Best fuzzy match for an already-normalized query, or null if nothing scores high enough
+     */
+    public Match findBestMatch(String normalized) {
+        List<Match> matches = findSimilar(normalized, 1);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * Up to limit fuzzy matches for an already-normalized query, best first.
+     * Equal scores keep load order so results are stable across rebuilds.
+     */
+    public List<Match> findSimilar(String normalized, int limit) {
+        if (normalized == null || normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<String> queryTokens = tokenize(normalized);
+        Set<String> queryGrams = trigrams(queryTokens);
+        if (queryGrams.isEmpty()) {
+            return List.of();
+        }
+
+        // Shared trigram counts, only for foods that share at least one
+        int[] shared = new int[foods.size()];
+        int[] sharedHead = new int[foods.size()];
+        int[] touched = new int[foods.size()];
+        int touchedCount = 0;
+        for (String gram : queryGrams) {
+            int[] postings = gramPostings.get(gram);
+            if (postings == null) {
+                continue;
+            }
+            for (int posting : postings) {
+                int i = posting >>> 1;
+                if (shared[i]++ == 0) {
+                    touched[touchedCount++] = i;
+                }
+                sharedHead[i] += posting & 1;
+            }
+        }
+
+        String queryHead = String.join(" ", queryTokens);
+        List<Candidate> candidates = new ArrayList<>();
+        for (int t = 0; t < touchedCount; t++) {
+            int i = touched[t];
+            double nameDice = 2.0 * shared[i] / (queryGrams.size() + gramCounts[i]);
+            double headDice = 2.0 * sharedHead[i] / (queryGrams.size() + headGramCounts[i]);
+            double score = Math.max(nameDice, headDice)
+                    + TOKEN_OVERLAP_WEIGHT * tokenOverlap(queryTokens, nameTokens[i])
+                    - EXTRA_TOKEN_PENALTY * Math.max(0, nameTokens[i].length - queryTokens.size());
+            if (queryHead.equals(heads[i])) {
+                score += HEAD_MATCH_BONUS;
+            }
+            if (BASE_INGREDIENT_SOURCE.equals(foods.get(i).getSource())) {
+                score += BASE_INGREDIENT_BONUS;
+            }
+            if (score >= MIN_MATCH_SCORE) {
+                candidates.add(new Candidate(i, score));
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble(Candidate::score).reversed()
+                .thenComparingInt(Candidate::index));
+        return candidates.stream()
+                .limit(limit)
+                .map(candidate -> new Match(foods.get(candidate.index()), candidate.score()))
+                .toList();
+    }
+
+    /**
+     * Up to limit foods for a typeahead query, best first. Every word must match
+     * a name token exactly except the last, which may be partially typed:
+     * "chicken cu" finds "Chicken curry". At most MAX_SUGGESTIONS are returned.
+     */
+    public List<FoodComposition> suggest(String query, int limit) {
+        if (query == null) {
+            return List.of();
+        }
+        int[] positions = prefixIndex.search(tokenize(query.toLowerCase(Locale.ROOT)), limit);
+        List<FoodComposition> results = new ArrayList<>(positions.length);
+        for (int i : positions) {
+            results.add(foods.get(i));
+        }
+        return results;
+    }
+
+    private record Candidate(int index, double score) {
+    }
+
+    /**
+     * Canonical database name for a common ingredient alias, or null
+     */
+    public static String resolveAlias(String name) {
+        return ALIASES.resolve(name);
+    }
+
+    private static double tokenOverlap(List<String> queryTokens, String[] tokens) {
+        if (queryTokens.isEmpty()) {
+            return 0.0;
+        }
+        int found = 0;
+        for (String queryToken : queryTokens) {
+            for (String token : tokens) {
+                if (token.equals(queryToken)) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        return (double) found / queryTokens.size();
+    }
+
+    /**
+     * Distinct trigrams of each token padded with spaces, so short tokens and word edges count
+     */
+    private static Set<String> trigrams(List<String> tokens) {
+        Set<String> grams = new HashSet<>();
+        for (String token : tokens) {
+            String padded = " " + token + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * The food itself, without qualifiers: "rice, raw, milled" -> "rice"
+     */
+    private static String head(String lower) {
+        int end = lower.length();
+        int comma = lower.indexOf(',');
+        int paren = lower.indexOf('(');
+        if (comma >= 0) {
+            end = comma;
+        }
+        if (paren >= 0 && paren < end) {
+            end = paren;
+        }
+        return String.join(" ", tokenize(lower.substring(0, end)));
+    }
+
+    static List<String> tokenize(String lower) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letterOrDigit = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
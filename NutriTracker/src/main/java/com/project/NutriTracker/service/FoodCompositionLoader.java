@@ -0,0 +1,159 @@
+package com.project.NutriTracker.service;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.project.NutriTracker.document.FoodComposition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams a nutrition CSV into food_composition.
+ *
+ * Rows are parsed one at a time and written in fixed-size unordered bulk
+ * upserts keyed on (datasetVersion, source, code), so memory stays flat, a
+ * failed row or write doesn't stop the rest of the batch, and rerunning a
+ * load converges to the same rows instead of duplicating them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FoodCompositionLoader {
+
+    private static final String LEGACY_INDEX = "source_code";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mongoMappingContext;
+
+    @Value("${app.nutrition.load-batch-size:500}")
+    private int batchSize;
+
+    public record LoadReport(String source, long rows, long upserted, long modified, long rejected,
+            long elapsedMillis) {
+
+        public double rowsPerSecond() {
+            return elapsedMillis > 0 ? rows * 1000.0 / elapsedMillis : rows;
+        }
+    }
+
+    /**
+     * Load a CSV into a dataset version, skipping its header row.
+     * The mapper returns null (or throws) for rows that should be rejected.
+     */
+    public LoadReport load(Resource resource, String source, String datasetVersion,
+            Function<String[], FoodComposition> mapper) throws Exception {
+        ensureIndexes();
+
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        long rejected = 0;
+        long upserted = 0;
+        long modified = 0;
+        List<FoodComposition> batch = new ArrayList<>(batchSize);
+
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8);
+                CSVReader csvReader = new CSVReaderBuilder(reader).withSkipLines(1).build()) {
+
+            String[] row;
+            while ((row = csvReader.readNext()) != null) {
+                rows++;
+                FoodComposition food = null;
+                try {
+                    food = mapper.apply(row);
+                } catch (Exception e) {
+                    log.warn("Error parsing {} row for food: {}", source, row.length > 1 ? row[1] : "Unknown", e);
+                }
+                if (food == null || food.getCode() == null || food.getCode().isBlank()) {
+                    rejected++;
+                    continue;
+                }
+                food.setSource(source);
+                food.setDatasetVersion(datasetVersion);
+                batch.add(food);
+
+                if (batch.size() >= batchSize) {
+                    BatchResult result = write(batch);
+                    upserted += result.upserted();
+                    modified += result.modified();
+                    rejected += result.failed();
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            BatchResult result = write(batch);
+            upserted += result.upserted();
+            modified += result.modified();
+            rejected += result.failed();
+        }
+
+        LoadReport report = new LoadReport(source, rows, upserted, modified, rejected,
+                System.currentTimeMillis() - start);
+        log.info("Loaded {} from {}: {} rows, {} inserted, {} updated, {} rejected in {} ms ({} rows/s)",
+                source, resource.getDescription(), report.rows(), report.upserted(), report.modified(), report.rejected(),
+                report.elapsedMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private record BatchResult(int upserted, int modified, int failed) {
+    }
+
+    private BatchResult write(List<FoodComposition> batch) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FoodComposition.class);
+        for (FoodComposition food : batch) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(food, document);
+            bulkOps.upsert(Query.query(Criteria.where("datasetVersion").is(food.getDatasetVersion())
+                    .and("source").is(food.getSource())
+                    .and("code").is(food.getCode())),
+                    Update.fromDocument(document, "_id"));
+        }
+
+        try {
+            BulkWriteResult result = bulkOps.execute();
+            return new BatchResult(result.getUpserts().size(), result.getModifiedCount(), 0);
+        } catch (BulkOperationException e) {
+            // Unordered: every other write in the batch was still applied
+            e.getErrors().forEach(error -> log.warn("Rejected food write at batch index {}: {}", error.getIndex(),
+                    error.getMessage()));
+            BulkWriteResult result = e.getResult();
+            return new BatchResult(result.getUpserts().size(), result.getModifiedCount(), e.getErrors().size());
+        }
+    }
+
+    /**
+     * Upserts need the (datasetVersion, source, code) index; the startup index check runs too late for the
+     * initial load
+     */
+    private void ensureIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(FoodComposition.class);
+        // The unversioned unique index would reject the same food in a second version
+        if (indexOps.getIndexInfo().stream().anyMatch(info -> LEGACY_INDEX.equals(info.getName()))) {
+            indexOps.dropIndex(LEGACY_INDEX);
+        }
+        IndexResolver.create(mongoMappingContext).resolveIndexFor(FoodComposition.class)
+                .forEach(indexOps::createIndex);
+    }
+}
@@ -0,0 +1,423 @@
+package com.project.NutriTracker.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.project.NutriTracker.document.FoodComposition;
+import com.project.NutriTracker.document.FoodDatasetVersion;
+import com.project.NutriTracker.dto.FoodDatasetStatusResponse;
+import com.project.NutriTracker.repository.FoodDatasetVersionRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Versioned nutrition dataset behind NutritionDatabaseService.
+ *
+ * A version is identified by the content hash of the source CSVs. A reload
+ * stages the new version's rows in food_composition alongside the active
+ * ones, validates them, builds a fresh in-memory index, and only then marks
+ * the version ACTIVE and swaps the index in with a single reference write.
+ * Lookups keep using the old index until that moment. Other nodes notice the
+ * new ACTIVE version on their next poll and swap too; rows of older versions
+ * are then removed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FoodDatasetService {
+
+    private static final String LOADING = "LOADING";
+    private static final String ACTIVE = "ACTIVE";
+    private static final String RETIRED = "RETIRED";
+    private static final String FAILED = "FAILED";
+
+    private final MongoTemplate mongoTemplate;
+    private final FoodCompositionLoader foodCompositionLoader;
+    private final FoodDatasetVersionRepository foodDatasetVersionRepository;
+    private final ResourceLoader resourceLoader;
+
+    @Value("${app.nutrition.dataset.ifct:classpath:ifct2017_compositions.csv}")
+    private String ifctLocation;
+
+    @Value("${app.nutrition.dataset.anuvaad:classpath:Anuvaad_INDB_2024.11.csv}")
+    private String anuvaadLocation;
+
+    // How often to check for a version activated elsewhere and, with auto-reload, for changed CSVs
+    @Value("${app.nutrition.dataset.poll-interval:1m}")
+    private Duration pollInterval;
+
+    @Value("${app.nutrition.dataset.auto-reload:true}")
+    private boolean autoReload;
+
+    // A load that hasn't finished in this time is assumed dead and may be retried
+    @Value("${app.nutrition.dataset.load-timeout:10m}")
+    private Duration loadTimeout;
+
+    // Validation: share of rows that may be rejected, and minimum size relative to the active version
+    @Value("${app.nutrition.dataset.max-reject-ratio:0.05}")
+    private double maxRejectRatio;
+
+    @Value("${app.nutrition.dataset.min-size-ratio:0.8}")
+    private double minSizeRatio;
+
+    public record Snapshot(String version, FoodCompositionIndex index) {
+    }
+
+    private volatile Snapshot current = new Snapshot(null, FoodCompositionIndex.empty());
+
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    private record HashedFiles(String stamp, String version) {
+    }
+
+    // Last computed content hash, so polls don't reread unchanged CSVs
+    private volatile HashedFiles hashedFiles;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("food-dataset").daemon(true).factory());
+
+        FoodDatasetVersion active = activeVersion();
+        if (active != null) {
+            current = snapshot(active.getId());
+        } else {
+            // Rows loaded before versioning are served until the first version is activated
+            current = snapshot(null);
+            if (current.index().size() == 0) {
+                log.info("Loading nutrition database from CSV files...");
+                reloadNow(false);
+            }
+        }
+        log.info("Serving nutrition dataset version {} with {} items", current.version(), current.index().size());
+
+        executor.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The dataset lookups should use; replaced as a whole on reload
+     */
+    public Snapshot current() {
+        return current;
+    }
+
+    /**
+     * Start loading the configured CSVs in the background.
+     * Returns the version being loaded; force reloads it even if it is already active or failed.
+     */
+    public String requestReload(boolean force) throws Exception {
+        String version = availableVersion();
+        if (!reloading.compareAndSet(false, true)) {
+            throw new IllegalStateException("A nutrition dataset reload is already in progress");
+        }
+        executor.execute(() -> {
+            try {
+                reloadNow(force);
+            } finally {
+                reloading.set(false);
+            }
+        });
+        return version;
+    }
+
+    public FoodDatasetStatusResponse getStatus() throws Exception {
+        FoodDatasetVersion active = activeVersion();
+        Snapshot serving = current;
+        return FoodDatasetStatusResponse.builder()
+                .activeVersion(active != null ? active.getId() : null)
+                .servingVersion(serving.version())
+                .servingItems(serving.index().size())
+                .availableVersion(availableVersion())
+                .reloading(reloading.get())
+                .build();
+    }
+
+    private void poll() {
+        try {
+            FoodDatasetVersion active = activeVersion();
+            if (active != null && !active.getId().equals(current.version())) {
+                current = snapshot(active.getId());
+                log.info("Switched to nutrition dataset version {} activated elsewhere ({} items)",
+                        active.getId(), current.index().size());
+            }
+
+            if (autoReload && reloading.compareAndSet(false, true)) {
+                try {
+                    reloadNow(false);
+                } finally {
+                    reloading.set(false);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to poll nutrition dataset version: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stage, validate and activate the configured CSVs; runs on the dataset thread (or init)
+     */
+    void reloadNow(boolean force) {
+        String version;
+        try {
+            version = availableVersion();
+        } catch (Exception e) {
+            log.error("Failed to read nutrition dataset files", e);
+            return;
+        }
+        if (!force && version.equals(current.version())) {
+            return;
+        }
+        if (!claim(version, force)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            FoodCompositionLoader.LoadReport ifct = foodCompositionLoader.load(resource(ifctLocation), "IFCT2017",
+                    version, FoodDatasetService::mapIfctRow);
+            FoodCompositionLoader.LoadReport anuvaad = foodCompositionLoader.load(resource(anuvaadLocation),
+                    "Anuvaad_INDB_2024", version, FoodDatasetService::mapAnuvaadRow);
+
+            Snapshot staged = snapshot(version);
+            validate(List.of(ifct, anuvaad), staged);
+
+            activate(version, staged.index().size(), ifct.rejected() + anuvaad.rejected());
+            current = staged;
+            log.info("Activated nutrition dataset version {} with {} items in {} ms", version,
+                    staged.index().size(), System.currentTimeMillis() - start);
+
+            removeOtherVersions(version);
+        } catch (Exception e) {
+            log.error("Failed to load nutrition dataset version {}, keeping version {}", version, current.version(),
+                    e);
+            // A forced reload of the active version leaves it active; its rows are unchanged
+            long failed = mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(version).and("status").is(LOADING)),
+                    new Update().set("status", FAILED).set("error", e.getMessage()), FoodDatasetVersion.class)
+                    .getModifiedCount();
+            if (failed > 0) {
+                mongoTemplate.remove(Query.query(Criteria.where("datasetVersion").is(version)),
+                        FoodComposition.class);
+            }
+        }
+    }
+
+    /**
+     * Record that this node is loading a version. Two nodes claiming at once both load
+     * the same rows idempotently, so this only needs to avoid pointless repeats.
+     */
+    private boolean claim(String version, boolean force) {
+        FoodDatasetVersion existing = foodDatasetVersionRepository.findById(version).orElse(null);
+        if (existing != null && ACTIVE.equals(existing.getStatus())) {
+            return force; // Otherwise swapped in by poll; stays ACTIVE while it is reloaded
+        }
+        if (existing != null && !force) {
+            if (FAILED.equals(existing.getStatus()) || RETIRED.equals(existing.getStatus())) {
+                // Failed: needs a forced reload after fixing the files. Retired: a newer version
+                // replaced it, and re-activating it from nodes with old files would flip-flop.
+                return false;
+            }
+            if (LOADING.equals(existing.getStatus())
+                    && existing.getCreatedAt().plus(loadTimeout).isAfter(LocalDateTime.now())) {
+                return false;
+            }
+        }
+
+        FoodDatasetVersion claimed = new FoodDatasetVersion();
+        claimed.setId(version);
+        claimed.setStatus(LOADING);
+        claimed.setCreatedAt(LocalDateTime.now());
+        foodDatasetVersionRepository.save(claimed);
+        return true;
+    }
+
+    private void validate(List<FoodCompositionLoader.LoadReport> reports, Snapshot staged) {
+        for (FoodCompositionLoader.LoadReport report : reports) {
+            if (report.rows() == 0 || report.rows() == report.rejected()) {
+                throw new IllegalStateException("No usable rows for " + report.source());
+            }
+            if (report.rejected() > report.rows() * maxRejectRatio) {
+                throw new IllegalStateException(String.format("%d of %d %s rows rejected", report.rejected(),
+                        report.rows(), report.source()));
+            }
+        }
+
+        int previous = current.index().size();
+        if (staged.index().size() < previous * minSizeRatio) {
+            throw new IllegalStateException(String.format("New dataset has %d items, active one has %d",
+                    staged.index().size(), previous));
+        }
+    }
+
+    private void activate(String version, long itemCount, long rejectedCount) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(version)),
+                new Update()
+                        .set("status", ACTIVE)
+                        .set("itemCount", itemCount)
+                        .set("rejectedCount", rejectedCount)
+                        .set("activatedAt", LocalDateTime.now())
+                        .unset("error"),
+                FoodDatasetVersion.class);
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("status").is(ACTIVE).and("_id").ne(version)),
+                new Update().set("status", RETIRED),
+                FoodDatasetVersion.class);
+    }
+
+    /**
+     * Drop rows of retired and failed versions, and rows loaded before versioning.
+     * Rows of versions another node is still staging are left alone.
+     */
+    private void removeOtherVersions(String version) {
+        List<String> obsolete = foodDatasetVersionRepository.findByStatusIn(List.of(RETIRED, FAILED)).stream()
+                .map(FoodDatasetVersion::getId)
+                .filter(id -> !id.equals(version))
+                .toList();
+        Criteria criteria = new Criteria().orOperator(
+                Criteria.where("datasetVersion").in(obsolete),
+                Criteria.where("datasetVersion").exists(false));
+        long removed = mongoTemplate.remove(Query.query(criteria), FoodComposition.class).getDeletedCount();
+        if (removed > 0) {
+            log.info("Removed {} food items of previous nutrition dataset versions", removed);
+        }
+    }
+
+    private Snapshot snapshot(String version) {
+        Criteria criteria = version != null
+                ? Criteria.where("datasetVersion").is(version)
+                : Criteria.where("datasetVersion").exists(false);
+        return new Snapshot(version,
+                FoodCompositionIndex.build(mongoTemplate.find(new Query(criteria), FoodComposition.class)));
+    }
+
+    private FoodDatasetVersion activeVersion() {
+        return foodDatasetVersionRepository.findFirstByStatusOrderByActivatedAtDesc(ACTIVE).orElse(null);
+    }
+
+    /**
+     * Content hash of the configured CSV files; rehashed only when their size or modified time changes
+     */
+    private String availableVersion() throws Exception {
+        String stamp = fileStamp();
+        HashedFiles last = hashedFiles;
+        if (stamp != null && last != null && stamp.equals(last.stamp())) {
+            return last.version();
+        }
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] buffer = new byte[8192];
+        for (String location : List.of(ifctLocation, anuvaadLocation)) {
+            try (InputStream in = resource(location).getInputStream()) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        String version = HexFormat.of().formatHex(digest.digest(), 0, 8);
+        hashedFiles = new HashedFiles(stamp, version);
+        return version;
+    }
+
+    /**
+     * Size and modified time of the configured CSV files, or null if a resource can't report them
+     */
+    private String fileStamp() {
+        StringBuilder stamp = new StringBuilder();
+        try {
+            for (String location : List.of(ifctLocation, anuvaadLocation)) {
+                Resource resource = resource(location);
+                stamp.append(resource.contentLength()).append('@').append(resource.lastModified()).append(';');
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return stamp.toString();
+    }
+
+    private Resource resource(String location) {
+        return resourceLoader.getResource(location);
+    }
+
+    static FoodComposition mapIfctRow(String[] row) {
+        FoodComposition food = new FoodComposition();
+        food.setCode(row[0]);
+        food.setName(row[1]);
+        food.setScientificName(row[2]);
+
+        // Parse values, handling empty or non-numeric strings
+        food.setProtein(parseDouble(row[6]));
+        food.setTotalFat(parseDouble(row[10]));
+        food.setTotalFiber(parseDouble(row[12]));
+        food.setCarbohydrate(parseDouble(row[18]));
+
+        // Convert kJ to kcal (1 kcal = 4.184 kJ)
+        Double energyKj = parseDouble(row[20]);
+        if (energyKj != null) {
+            food.setEnergyKcal(Math.round(energyKj / 4.184 * 100.0) / 100.0);
+        }
+        return food;
+    }
+
+    static FoodComposition mapAnuvaadRow(String[] row) {
+        // Skip if not enough columns
+        if (row.length < 10) {
+            return null;
+        }
+
+        FoodComposition food = new FoodComposition();
+        food.setCode(row[0]); // food_code
+        food.setName(row[1]); // food_name
+        food.setScientificName(""); // Not available in this CSV
+
+        // Parse nutrition values (per 100g)
+        // Column indices based on the CSV structure:
+        // 3: energy_kj, 4: energy_kcal, 5: carb_g, 6: protein_g, 7: fat_g, 9: fibre_g
+        food.setEnergyKcal(parseDouble(row[4])); // energy_kcal
+        food.setProtein(parseDouble(row[6])); // protein_g
+        food.setTotalFat(parseDouble(row[7])); // fat_g
+        food.setCarbohydrate(parseDouble(row[5])); // carb_g
+        food.setTotalFiber(parseDouble(row[9])); // fibre_g
+        return food;
+    }
+
+    private static Double parseDouble(String value) {
+        if (value == null || value.trim().isEmpty() || value.equals("-")) {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+}
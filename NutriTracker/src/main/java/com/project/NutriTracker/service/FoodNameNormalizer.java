@@ -0,0 +1,67 @@
+package com.project.NutriTracker.service;
+
+/**
+ * Normalizes ingredient names for lookups in a single pass.
+ *
+ * Lowercases, drops parenthesized text, removes preparation words ("whole ",
+ * "raw ", "cooked ", "fresh ", "dried ") and collapses whitespace: what the
+ * former chain of replaceAll calls did, without compiling regexes or building
+ * an intermediate string per step.
+ */
+final class FoodNameNormalizer {
+
+    private static final String[] PREPARATION_WORDS = { "whole ", "raw ", "cooked ", "fresh ", "dried " };
+
+    private FoodNameNormalizer() {
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+
+        int length = name.length();
+        StringBuilder out = new StringBuilder(length);
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < length) {
+            char c = name.charAt(i);
+
+            // Parenthesized text, up to the first closing parenthesis; an unclosed one is kept
+            if (c == '(') {
+                int close = name.indexOf(')', i + 1);
+                if (close >= 0) {
+                    i = close + 1;
+                    continue;
+                }
+            }
+
+            int skip = preparationWordAt(name, i);
+            if (skip > 0) {
+                i += skip;
+                continue;
+            }
+
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    out.append(' ');
+                    pendingSpace = false;
+                }
+                out.append(Character.toLowerCase(c));
+            }
+            i++;
+        }
+        return out.toString();
+    }
+
+    private static int preparationWordAt(String name, int offset) {
+        for (String word : PREPARATION_WORDS) {
+            if (name.regionMatches(true, offset, word, 0, word.length())) {
+                return word.length();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,246 @@
+package com.project.NutriTracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autocomplete index over the name tokens of a FoodCompositionIndex.
+ *
+ * A trie of tokens where every node caches the best MAX_RESULTS foods having a
+ * token with that prefix, so a single-word query is a walk down the trie and
+ * a copy of at most limit positions, independent of how many foods match.
+ * Multi-word queries scan the posting list of their rarest complete word.
+ *
+ * Foods rank by: name starts with the query, last word typed in full rather
+ * than a prefix, base ingredient, shorter name, then load order.
+ *
+ * Works on positions in the owning index; immutable once built.
+ */
+final class FoodPrefixIndex {
+
+    static final int MAX_RESULTS = 20;
+
+    private static final long PREFIX_ONLY = 1L << 52;
+
+    private final String[][] nameTokens;
+    private final long[] baseRanks; // Rank of each food ignoring where the query matched
+
+    // Trie nodes: sorted edge labels, child nodes, and cached best positions for
+    // a query ending at the node
+    private final char[][] edgeChars;
+    private final int[][] edgeChildren;
+    private final int[][] best;
+
+    // Complete token -> positions of foods containing it, ascending
+    private final Map<String, int[]> tokenPostings;
+
+    /**
+     * @param nameTokens tokens of each food's lowercased name, by position
+     * @param baseIngredient whether each food is a base ingredient rather than a dish
+     * @param nameLengths length of each food's name
+     */
+    FoodPrefixIndex(String[][] nameTokens, boolean[] baseIngredient, int[] nameLengths) {
+        this.nameTokens = nameTokens;
+        this.baseRanks = new long[nameTokens.length];
+        for (int i = 0; i < nameTokens.length; i++) {
+            baseRanks[i] = (baseIngredient[i] ? 0L : 1L) << 51 | (long) Math.min(nameLengths[i], 4095) << 32 | i;
+        }
+
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node());
+        Map<String, List<Integer>> postings = new HashMap<>();
+        for (int i = 0; i < nameTokens.length; i++) {
+            for (int t = 0; t < nameTokens[i].length; t++) {
+                String token = nameTokens[i][t];
+                int node = 0;
+                for (int c = 0; c < token.length(); c++) {
+                    node = nodes.get(node).child(token.charAt(c), nodes);
+                }
+                nodes.get(node).ranks.add(rank(i, t == 0));
+
+                List<Integer> posting = postings.computeIfAbsent(token, k -> new ArrayList<>());
+                if (posting.isEmpty() || posting.get(posting.size() - 1) != i) {
+                    posting.add(i);
+                }
+            }
+        }
+
+        int n = nodes.size();
+        this.edgeChars = new char[n][];
+        this.edgeChildren = new int[n][];
+        this.best = new int[n][];
+        // Best ranks below each node, all prefix-only matches as seen from its parent
+        long[][] subtreeRanks = new long[n][];
+        // Children are always created after their parent, so reverse order is bottom-up
+        for (int node = n - 1; node >= 0; node--) {
+            Node built = nodes.get(node);
+            edgeChars[node] = built.chars;
+            edgeChildren[node] = built.children;
+
+            long[] own = built.ranks.stream().mapToLong(Long::longValue).toArray();
+            long[] below = new long[0];
+            for (int child : built.children) {
+                below = concat(below, subtreeRanks[child]);
+            }
+            best[node] = positions(topDistinct(concat(own, below)));
+
+            for (int r = 0; r < own.length; r++) {
+                own[r] |= PREFIX_ONLY;
+            }
+            subtreeRanks[node] = topDistinct(concat(own, below));
+        }
+
+        this.tokenPostings = new HashMap<>(postings.size() * 2);
+        postings.forEach((token, list) -> tokenPostings.put(token,
+                list.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Positions of up to limit best foods for tokenized query words, the last one a prefix
+     */
+    int[] search(List<String> queryTokens, int limit) {
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        limit = Math.min(limit, MAX_RESULTS);
+        String prefix = queryTokens.get(queryTokens.size() - 1);
+
+        if (queryTokens.size() == 1) {
+            int node = find(prefix);
+            if (node < 0) {
+                return new int[0];
+            }
+            return Arrays.copyOf(best[node], Math.min(limit, best[node].length));
+        }
+
+        // The rarest complete word bounds the candidates
+        List<String> words = queryTokens.subList(0, queryTokens.size() - 1);
+        int[] candidates = null;
+        for (String word : words) {
+            int[] posting = tokenPostings.get(word);
+            if (posting == null) {
+                return new int[0];
+            }
+            if (candidates == null || posting.length < candidates.length) {
+                candidates = posting;
+            }
+        }
+
+        long[] ranks = new long[candidates.length];
+        int found = 0;
+        for (int i : candidates) {
+            long match = prefixMatch(nameTokens[i], prefix);
+            if (match >= 0 && containsAll(nameTokens[i], words)) {
+                ranks[found++] = rank(i, nameTokens[i][0].equals(words.get(0))) | match;
+            }
+        }
+        ranks = Arrays.copyOf(ranks, found);
+        Arrays.sort(ranks);
+        return positions(Arrays.copyOf(ranks, Math.min(limit, found)));
+    }
+
+    private int find(String prefix) {
+        int node = 0;
+        for (int c = 0; c < prefix.length() && node >= 0; c++) {
+            int e = Arrays.binarySearch(edgeChars[node], prefix.charAt(c));
+            node = e >= 0 ? edgeChildren[node][e] : -1;
+        }
+        return node;
+    }
+
+    /**
+     * Sortable rank of a whole-word match: leading match, base ingredient, name length, position
+     */
+    private long rank(int position, boolean leading) {
+        return (leading ? 0L : 1L) << 53 | baseRanks[position];
+    }
+
+    private static boolean containsAll(String[] tokens, List<String> words) {
+        for (String word : words) {
+            if (!Arrays.asList(tokens).contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 0 if a token equals the prefix, PREFIX_ONLY if one starts with it, else -1
+     */
+    private static long prefixMatch(String[] tokens, String prefix) {
+        long match = -1;
+        for (String token : tokens) {
+            if (token.equals(prefix)) {
+                return 0;
+            }
+            if (token.startsWith(prefix)) {
+                match = PREFIX_ONLY;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * The MAX_RESULTS lowest ranks, one per food
+     */
+    private static long[] topDistinct(long[] ranks) {
+        Arrays.sort(ranks);
+        long[] top = new long[Math.min(ranks.length, MAX_RESULTS)];
+        int count = 0;
+        for (int r = 0; r < ranks.length && count < top.length; r++) {
+            boolean seen = false;
+            for (int k = 0; k < count && !seen; k++) {
+                seen = (int) top[k] == (int) ranks[r];
+            }
+            if (!seen) {
+                top[count++] = ranks[r];
+            }
+        }
+        return Arrays.copyOf(top, count);
+    }
+
+    private static int[] positions(long[] ranks) {
+        int[] positions = new int[ranks.length];
+        for (int r = 0; r < ranks.length; r++) {
+            positions[r] = (int) ranks[r];
+        }
+        return positions;
+    }
+
+    private static long[] concat(long[] a, long[] b) {
+        long[] out = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+
+    private static final class Node {
+        private char[] chars = new char[0];
+        private int[] children = new int[0];
+        private final List<Long> ranks = new ArrayList<>();
+
+        private int child(char c, List<Node> nodes) {
+            int e = Arrays.binarySearch(chars, c);
+            if (e >= 0) {
+                return children[e];
+            }
+            int at = -e - 1;
+            int created = nodes.size();
+            nodes.add(new Node());
+
+            char[] newChars = new char[chars.length + 1];
+            int[] newChildren = new int[children.length + 1];
+            System.arraycopy(chars, 0, newChars, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newChars[at] = c;
+            newChildren[at] = created;
+            System.arraycopy(chars, at, newChars, at + 1, chars.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            chars = newChars;
+            children = newChildren;
+            return created;
+        }
+    }
+}
@@ -5,18 +5,22 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.genai.Client;
-import com.google.genai.types.Blob;
-import com.google.genai.types.Content;
-import com.google.genai.types.GenerateContentConfig;
-import com.google.genai.types.GenerateContentResponse;
-import com.google.genai.types.Part;
 import com.project.NutriTracker.document.FoodComposition;
 import com.project.NutriTracker.document.MealImage;
 import com.project.NutriTracker.document.MealImage.FoodItem;
@@ -28,8 +32,14 @@ import com.project.NutriTracker.dto.DietRecommendationResponse;
 import com.project.NutriTracker.dto.DishBreakdown;
 import com.project.NutriTracker.dto.MonthlyStatsResponse;
 import com.project.NutriTracker.dto.UserProfileResponse;
+import com.project.NutriTracker.exception.ModelDeadlineExceededException;
+import com.project.NutriTracker.exception.ModelUnavailableException;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -39,19 +49,45 @@ import lombok.extern.slf4j.Slf4j;
 public class GeminiNutritionAnalysisService {
 
     private final NutritionDatabaseService nutritionDatabaseService;
+    private final DishBreakdownCacheService dishBreakdownCacheService;
+    private final ModelClient modelClient;
+    private final ModelCallGuard modelCallGuard;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
-    private String modelName = "gemini-2.0-flash";
+    private String modelName;
 
-    @Value("${app.gemini.api.key}")
-    private String apiKey;
+    @Value("${app.gemini.stage2.max-concurrency:4}")
+    private int stage2MaxConcurrency;
 
-    private Client client;
+    @Value("${app.gemini.stage2.dish-timeout-seconds:30}")
+    private long stage2DishTimeoutSeconds;
+
+    @Value("${app.gemini.stage2.meal-timeout-seconds:90}")
+    private long stage2MealTimeoutSeconds;
+
+    // Stage 2 calls are I/O bound, so each dish gets its own virtual thread
+    private ExecutorService dishExecutor;
+
+    // Stage 3 ingredient lookups by where the nutrition came from
+    private Counter databaseLookups;
+    private Counter genericLookups;
+    private Counter unresolvedLookups;
 
     @PostConstruct
     public void init() {
-        this.client = Client.builder().apiKey(apiKey).build();
-        log.info("Initialized Google GenAI client with model: {}", modelName);
+        this.dishExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        modelName = modelClient.modelName();
+        databaseLookups = lookupCounter("database");
+        genericLookups = lookupCounter("generic");
+        unresolvedLookups = lookupCounter("none");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dishExecutor != null) {
+            dishExecutor.shutdownNow();
+        }
     }
 
     // Generic nutrition values for common categories (per 100g)
@@ -81,16 +117,67 @@ public class GeminiNutritionAnalysisService {
      * Main method: Analyze meal image using two-stage pipeline
      */
     public MealImage analyzeMeal(byte[] imageBytes, String mimeType) throws IOException {
-        if (this.client == null) {
-            throw new IllegalStateException("Client not configured");
-        }
-
         log.info("Starting two-stage nutrition analysis...");
+        Timer.Sample mealSample = Timer.start(meterRegistry);
+        String mealOutcome = "error";
+        try {
+            List<DetectedDish> dishes = identifyDishes(imageBytes, mimeType);
+            MealImage result = analyzeDishes(dishes);
+
+            // Dishes that failed or timed out are left out of the result
+            if (dishes.isEmpty()) {
+                mealOutcome = "empty";
+            } else if (result.getDetectedFoods().size() < dishes.size()) {
+                mealOutcome = "partial";
+            } else {
+                mealOutcome = "success";
+            }
+            return result;
+        } finally {
+            mealSample.stop(Timer.builder("gemini.meal.duration")
+                    .description("End-to-end time to analyze a meal image")
+                    .tag("model", modelName)
+                    .tag("outcome", mealOutcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
 
-        // Stage 1: Identify dishes and portions
-        List<DetectedDish> dishes = identifyDishes(imageBytes, mimeType);
+    /**
+     * Stages 2 and 3 for the dishes found in Stage 1
+     */
+    private MealImage analyzeDishes(List<DetectedDish> dishes) throws IOException {
         log.info("Stage 1 complete: Detected {} dishes", dishes.size());
 
+        // Stage 2 & 3: Break down each dish concurrently, capped per meal. Waiting for a
+        // permit counts against the meal's deadline; each dish's model calls stop at the
+        // earlier of that and its own deadline
+        long mealDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(stage2MealTimeoutSeconds);
+        long dishTimeout = TimeUnit.SECONDS.toNanos(stage2DishTimeoutSeconds);
+        Semaphore permits = new Semaphore(Math.max(1, stage2MaxConcurrency));
+        // Each dish's deadline, set once it holds a permit; the meal's until then
+        AtomicLongArray dishDeadlines = new AtomicLongArray(dishes.size());
+        List<Future<FoodItem>> futures = new ArrayList<>(dishes.size());
+        for (int i = 0; i < dishes.size(); i++) {
+            DetectedDish dish = dishes.get(i);
+            int index = i;
+            dishDeadlines.set(index, mealDeadline);
+            futures.add(dishExecutor.submit(() -> {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(mealDeadline - System.nanoTime());
+                if (!permits.tryAcquire(Math.max(0, remaining), TimeUnit.MILLISECONDS)) {
+                    throw new TimeoutException("No Stage 2 permit before the meal deadline");
+                }
+                try {
+                    long deadline = Math.min(mealDeadline, System.nanoTime() + dishTimeout);
+                    dishDeadlines.set(index, deadline);
+                    return processDish(dish, deadline);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        // Collect in Stage 1 order so detectedFoods stays deterministic
         List<FoodItem> detectedFoods = new ArrayList<>();
         double totalCalories = 0.0;
         double totalProtein = 0.0;
@@ -99,73 +186,43 @@ public class GeminiNutritionAnalysisService {
         double totalFiber = 0.0;
         double totalSugar = 0.0;
 
-        // Stage 2 & 3: For each dish, break down and calculate nutrition
-        for (DetectedDish dish : dishes) {
-            log.info("Processing dish: {} ({}g)", dish.getDishName(), dish.getPortionGrams());
-
+        for (int i = 0; i < futures.size(); i++) {
+            DetectedDish dish = dishes.get(i);
+            Future<FoodItem> future = futures.get(i);
             try {
-                // Stage 2: Break down into ingredients
-                DishBreakdown breakdown = breakdownDish(dish.getDishName(), dish.getPortionGrams());
-                log.info("Stage 2 complete: {} has {} ingredients", dish.getDishName(),
-                        breakdown.getIngredients().size());
-
-                // Stage 3: Calculate nutrition from ingredients
-                List<IngredientInfo> ingredientInfos = new ArrayList<>();
-                NutritionInfo dishNutrition = new NutritionInfo();
-                dishNutrition.setCalories(0.0);
-                dishNutrition.setProtein(0.0);
-                dishNutrition.setCarbohydrates(0.0);
-                dishNutrition.setFat(0.0);
-                dishNutrition.setFiber(0.0);
-                dishNutrition.setSugar(0.0);
-
-                for (DishBreakdown.Ingredient ingredient : breakdown.getIngredients()) {
-                    NutritionInfo ingredientNutrition = calculateIngredientNutrition(
-                            ingredient.getName(),
-                            ingredient.getQuantityGrams());
-
-                    // Create ingredient info
-                    IngredientInfo ingredientInfo = new IngredientInfo();
-                    ingredientInfo.setName(ingredient.getName());
-                    ingredientInfo.setQuantityGrams(ingredient.getQuantityGrams());
-                    ingredientInfo.setCategory(ingredient.getCategory());
-                    ingredientInfo.setNutrition(ingredientNutrition);
-                    ingredientInfos.add(ingredientInfo);
-
-                    // Aggregate to dish nutrition
-                    dishNutrition.setCalories(dishNutrition.getCalories() + ingredientNutrition.getCalories());
-                    dishNutrition.setProtein(dishNutrition.getProtein() + ingredientNutrition.getProtein());
-                    dishNutrition.setCarbohydrates(
-                            dishNutrition.getCarbohydrates() + ingredientNutrition.getCarbohydrates());
-                    dishNutrition.setFat(dishNutrition.getFat() + ingredientNutrition.getFat());
-                    dishNutrition.setFiber(dishNutrition.getFiber() + ingredientNutrition.getFiber());
-                    dishNutrition.setSugar(dishNutrition.getSugar() + ingredientNutrition.getSugar());
-                }
-
-                // Create food item
-                FoodItem foodItem = new FoodItem();
-                foodItem.setName(dish.getDishName());
-                foodItem.setQuantity(dish.getPortionGrams());
-                foodItem.setConfidence(dish.getConfidence());
-                foodItem.setVisualCues(dish.getVisualCues());
-                foodItem.setCategory(dish.getCategory());
-                foodItem.setNutrition(dishNutrition);
-                foodItem.setIngredientBreakdown(ingredientInfos);
+                FoodItem foodItem = awaitDish(future, dishDeadlines, i, dishTimeout);
                 detectedFoods.add(foodItem);
 
                 // Aggregate to total
+                NutritionInfo dishNutrition = foodItem.getNutrition();
                 totalCalories += dishNutrition.getCalories();
                 totalProtein += dishNutrition.getProtein();
                 totalCarbs += dishNutrition.getCarbohydrates();
                 totalFat += dishNutrition.getFat();
                 totalFiber += dishNutrition.getFiber();
                 totalSugar += dishNutrition.getSugar();
-
-                log.info("Stage 3 complete: {} nutrition calculated", dish.getDishName());
-
-            } catch (Exception e) {
-                log.error("Error processing dish: {}", dish.getDishName(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IOException("Interrupted while analyzing meal", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof ModelUnavailableException unavailable) {
+                    // Every dish would be rejected the same way; fail so the job is retried later
+                    futures.forEach(f -> f.cancel(true));
+                    throw new ModelUnavailableException("Model unavailable while processing dish: "
+                            + dish.getDishName(), unavailable.getRetryAfterSeconds(), unavailable);
+                }
+                if (e.getCause() instanceof TimeoutException
+                        || e.getCause() instanceof ModelDeadlineExceededException) {
+                    log.error("Timed out processing dish: {}", dish.getDishName());
+                } else {
+                    log.error("Error processing dish: {}", dish.getDishName(), e.getCause());
+                }
                 // Continue with other dishes
+            } catch (TimeoutException e) {
+                // The model call is still in flight; interrupt it and continue with other dishes
+                future.cancel(true);
+                log.error("Timed out processing dish: {}", dish.getDishName());
             }
         }
 
@@ -187,83 +244,170 @@ public class GeminiNutritionAnalysisService {
     }
 
     /**
-     * Stage 1: Identify dishes and estimate portions using Gemini Vision
+     * Waits for a dish until its deadline, or the meal's while it waits for a permit.
+     * ModelCallGuard only bounds the waits around a model call, not the call itself,
+     * so this is what stops a dish whose call never returns.
      */
-    private List<DetectedDish> identifyDishes(byte[] imageBytes, String mimeType) throws IOException {
-        String prompt = buildStage1Prompt();
+    private static FoodItem awaitDish(Future<FoodItem> future, AtomicLongArray dishDeadlines, int index,
+            long dishTimeout) throws InterruptedException, ExecutionException, TimeoutException {
+        while (true) {
+            long remaining = dishDeadlines.get(index) - System.nanoTime();
+            try {
+                // A dish that starts while we wait sets an earlier deadline, so wait at most
+                // one dish timeout before checking again
+                return future.get(Math.max(0, Math.min(remaining, dishTimeout)), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (dishDeadlines.get(index) - System.nanoTime() <= 0) {
+                    throw e;
+                }
+            }
+        }
+    }
 
-        // Create parts list
-        java.util.List<Part> parts = new java.util.ArrayList<>();
-        parts.add(Part.fromText(prompt));
+    /**
+     * Stage 2 & 3 for a single dish: break down into ingredients and calculate nutrition
+     */
+    private FoodItem processDish(DetectedDish dish, long deadlineNanos) throws IOException {
+        log.info("Processing dish: {} ({}g)", dish.getDishName(), dish.getPortionGrams());
 
-        // Build an inline blob with bytes + MIME
-        Blob inputBlob = Blob.builder()
-                .mimeType(mimeType)
-                .data(imageBytes)
-                .build();
+        // Stage 2: Break down into ingredients
+        DishBreakdown breakdown = breakdownDish(dish.getDishName(), dish.getPortionGrams(), deadlineNanos);
+        log.info("Stage 2 complete: {} has {} ingredients", dish.getDishName(),
+                breakdown.getIngredients().size());
 
-        // Add image part using builder
-        Part imagePart = Part.builder()
-                .inlineData(inputBlob)
-                .build();
-        parts.add(imagePart);
+        // Stage 3: Calculate nutrition from ingredients
+        FoodItem foodItem = calculateDishNutrition(dish, breakdown);
 
-        // Create content
-        Content content = Content.fromParts(parts.toArray(new Part[0]));
+        log.info("Stage 3 complete: {} nutrition calculated", dish.getDishName());
+        return foodItem;
+    }
 
-        // Configure generation
-        GenerateContentConfig config = GenerateContentConfig.builder()
-                .topK(32f)
-                .topP(1.0f)
-                .maxOutputTokens(2048)
-                .build();
+    /**
+     * Stage 3 for a single dish: look up each ingredient and sum the dish nutrition
+     */
+    FoodItem calculateDishNutrition(DetectedDish dish, DishBreakdown breakdown) {
+        List<IngredientInfo> ingredientInfos = new ArrayList<>();
+        NutritionInfo dishNutrition = new NutritionInfo();
+        dishNutrition.setCalories(0.0);
+        dishNutrition.setProtein(0.0);
+        dishNutrition.setCarbohydrates(0.0);
+        dishNutrition.setFat(0.0);
+        dishNutrition.setFiber(0.0);
+        dishNutrition.setSugar(0.0);
+
+        for (DishBreakdown.Ingredient ingredient : breakdown.getIngredients()) {
+            NutritionInfo ingredientNutrition = calculateIngredientNutrition(
+                    ingredient.getName(),
+                    ingredient.getQuantityGrams());
+
+            // Create ingredient info
+            IngredientInfo ingredientInfo = new IngredientInfo();
+            ingredientInfo.setName(ingredient.getName());
+            ingredientInfo.setQuantityGrams(ingredient.getQuantityGrams());
+            ingredientInfo.setCategory(ingredient.getCategory());
+            ingredientInfo.setNutrition(ingredientNutrition);
+            ingredientInfos.add(ingredientInfo);
+
+            // Aggregate to dish nutrition
+            dishNutrition.setCalories(dishNutrition.getCalories() + ingredientNutrition.getCalories());
+            dishNutrition.setProtein(dishNutrition.getProtein() + ingredientNutrition.getProtein());
+            dishNutrition.setCarbohydrates(
+                    dishNutrition.getCarbohydrates() + ingredientNutrition.getCarbohydrates());
+            dishNutrition.setFat(dishNutrition.getFat() + ingredientNutrition.getFat());
+            dishNutrition.setFiber(dishNutrition.getFiber() + ingredientNutrition.getFiber());
+            dishNutrition.setSugar(dishNutrition.getSugar() + ingredientNutrition.getSugar());
+        }
 
-        // Generate content using the correct API
-        GenerateContentResponse response = client.models.generateContent(modelName, content, config);
+        // Create food item
+        FoodItem foodItem = new FoodItem();
+        foodItem.setName(dish.getDishName());
+        foodItem.setQuantity(dish.getPortionGrams());
+        foodItem.setConfidence(dish.getConfidence());
+        foodItem.setVisualCues(dish.getVisualCues());
+        foodItem.setCategory(dish.getCategory());
+        foodItem.setNutrition(dishNutrition);
+        foodItem.setIngredientBreakdown(ingredientInfos);
+        return foodItem;
+    }
 
-        // Extract text from response using quick accessor
-        String responseText = response.text();
+    /**
+     * Stage 1: Identify dishes and estimate portions using Gemini Vision
+     */
+    private List<DetectedDish> identifyDishes(byte[] imageBytes, String mimeType) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            List<DetectedDish> dishes = requestDishes(imageBytes, mimeType);
+            outcome = "success";
+            return dishes;
+        } catch (ModelUnavailableException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (JsonProcessingException e) {
+            outcome = "parse_error";
+            throw e;
+        } finally {
+            sample.stop(stageTimer(ModelRequest.IDENTIFY_DISHES, outcome));
+        }
+    }
+
+    private List<DetectedDish> requestDishes(byte[] imageBytes, String mimeType) throws IOException {
+        String prompt = buildStage1Prompt();
 
-        // Clean up response
-        responseText = responseText.replaceAll("```json", "").replaceAll("```", "").trim();
+        String responseText = stripCodeFences(generate(
+                ModelRequest.vision(ModelRequest.IDENTIFY_DISHES, prompt, imageBytes, mimeType, null, 2048)));
         log.debug("Stage 1 response: {}", responseText);
 
         // Parse JSON
-        List<DetectedDish> dishes = objectMapper.readValue(responseText, new TypeReference<List<DetectedDish>>() {
-        });
-
-        return dishes;
+        return parseResponse(ModelRequest.IDENTIFY_DISHES,
+                () -> objectMapper.readValue(responseText, new TypeReference<List<DetectedDish>>() {
+                }));
     }
 
     /**
      * Stage 2: Break down dish into ingredients using Gemini Text
      */
-    private DishBreakdown breakdownDish(String dishName, Integer portionGrams) throws IOException {
-        String prompt = buildStage2Prompt(dishName, portionGrams);
-
-        // Create text-only content using SDK helper method
-        Content content = Content.fromParts(Part.fromText(prompt));
-
-        // Configure generation
-        GenerateContentConfig config = GenerateContentConfig.builder()
-                .temperature(0.3f)
-                .topK(32f)
-                .topP(1.0f)
-                .maxOutputTokens(1024)
-                .build();
-
-        // Generate content using the correct API
-        GenerateContentResponse response = client.models.generateContent(modelName, content, config);
+    private DishBreakdown breakdownDish(String dishName, Integer portionGrams, long deadlineNanos)
+            throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            // Repeat dishes are served from the breakdown cache, scaled to this portion
+            Optional<DishBreakdown> cached = dishBreakdownCacheService.get(dishName, portionGrams);
+            if (cached.isPresent()) {
+                log.debug("Stage 2 cache hit for {} ({}g)", dishName, portionGrams);
+                outcome = "cached";
+                return cached.get();
+            }
+            DishBreakdown breakdown = requestBreakdown(dishName, portionGrams, deadlineNanos);
+            outcome = "success";
+            return breakdown;
+        } catch (ModelUnavailableException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (ModelDeadlineExceededException e) {
+            outcome = "timeout";
+            throw e;
+        } catch (JsonProcessingException e) {
+            outcome = "parse_error";
+            throw e;
+        } finally {
+            sample.stop(stageTimer(ModelRequest.BREAKDOWN_DISH, outcome));
+        }
+    }
 
-        // Extract text from response using quick accessor
-        String responseText = response.text();
+    private DishBreakdown requestBreakdown(String dishName, Integer portionGrams, long deadlineNanos)
+            throws IOException {
+        String prompt = buildStage2Prompt(dishName, portionGrams);
 
-        // Clean up response
-        responseText = responseText.replaceAll("```json", "").replaceAll("```", "").trim();
+        String responseText = stripCodeFences(generate(
+                ModelRequest.text(ModelRequest.BREAKDOWN_DISH, dishName, prompt, 0.3f, 1024), deadlineNanos));
         log.debug("Stage 2 response for {}: {}", dishName, responseText);
 
         // Parse JSON
-        DishBreakdown breakdown = objectMapper.readValue(responseText, DishBreakdown.class);
+        DishBreakdown breakdown = parseResponse(ModelRequest.BREAKDOWN_DISH,
+                () -> objectMapper.readValue(responseText, DishBreakdown.class));
+        dishBreakdownCacheService.put(dishName, portionGrams, breakdown);
 
         return breakdown;
     }
@@ -276,6 +420,7 @@ public class GeminiNutritionAnalysisService {
         FoodComposition food = nutritionDatabaseService.findFoodByName(ingredientName);
 
         if (food != null) {
+            databaseLookups.increment();
             double factor = quantityGrams / 100.0;
             NutritionInfo info = new NutritionInfo();
             info.setCalories(formatDouble(food.getEnergyKcal() * factor));
@@ -290,6 +435,7 @@ public class GeminiNutritionAnalysisService {
         // Try generic nutrition
         for (Map.Entry<String, NutritionInfo> entry : GENERIC_NUTRITION.entrySet()) {
             if (ingredientName.toLowerCase().contains(entry.getKey())) {
+                genericLookups.increment();
                 NutritionInfo generic = entry.getValue();
                 double factor = quantityGrams / 100.0;
 
@@ -305,6 +451,7 @@ public class GeminiNutritionAnalysisService {
         }
 
         // Fallback: return zeros
+        unresolvedLookups.increment();
         log.warn("No nutrition data found for ingredient: {}", ingredientName);
         return createNutritionInfo(0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
     }
@@ -421,29 +568,72 @@ public class GeminiNutritionAnalysisService {
 
         String prompt = buildRecommendationPrompt(recentStats, userProfile);
 
-        // Create text-only content
-        Content content = Content.fromParts(Part.fromText(prompt));
+        // Slightly higher temperature for creativity
+        String responseText = stripCodeFences(generate(
+                ModelRequest.text(ModelRequest.RECOMMENDATION, null, prompt, 0.7f, 1024)));
+        log.debug("Recommendation response: {}", responseText);
+
+        // Parse JSON
+        return parseResponse(ModelRequest.RECOMMENDATION,
+                () -> objectMapper.readValue(responseText, DietRecommendationResponse.class));
+    }
 
-        // Configure generation
-        GenerateContentConfig config = GenerateContentConfig.builder()
-                .temperature(0.7f) // Slightly higher for creativity
-                .topK(32f)
-                .topP(1.0f)
-                .maxOutputTokens(1024)
-                .build();
+    /**
+     * Model call under the shared rate limit, concurrency limit and circuit breaker
+     */
+    private String generate(ModelRequest request) throws IOException {
+        return generate(request, ModelCallGuard.NO_DEADLINE);
+    }
 
-        // Generate content
-        GenerateContentResponse response = client.models.generateContent(modelName, content, config);
+    private String generate(ModelRequest request, long deadlineNanos) throws IOException {
+        return modelCallGuard.execute(request.stage(), deadlineNanos, () -> modelClient.generate(request));
+    }
 
-        // Extract text
-        String responseText = response.text();
+    /**
+     * Models often wrap JSON in a markdown code block
+     */
+    private static String stripCodeFences(String responseText) {
+        return responseText.replaceAll("```json", "").replaceAll("```", "").trim();
+    }
 
-        // Clean up response
-        responseText = responseText.replaceAll("```json", "").replaceAll("```", "").trim();
-        log.debug("Recommendation response: {}", responseText);
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse() throws IOException;
+    }
 
-        // Parse JSON
-        return objectMapper.readValue(responseText, DietRecommendationResponse.class);
+    /**
+     * Parse a model response, counting responses that are not the JSON we asked for
+     */
+    private <T> T parseResponse(String stage, ResponseParser<T> parser) throws IOException {
+        try {
+            return parser.parse();
+        } catch (JsonProcessingException e) {
+            Counter.builder("gemini.response.parse.failures")
+                    .description("Model responses that could not be parsed as the requested JSON")
+                    .tag("model", modelName)
+                    .tag("stage", stage)
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        }
+    }
+
+    private Timer stageTimer(String stage, String outcome) {
+        return Timer.builder("gemini.stage.duration")
+                .description("Time spent in one Gemini pipeline stage, per call")
+                .tag("model", modelName)
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter lookupCounter(String source) {
+        return Counter.builder("gemini.ingredient.lookups")
+                .description("Stage 3 ingredient nutrition lookups by where the values came from")
+                .tag("model", modelName)
+                .tag("source", source)
+                .register(meterRegistry);
     }
 
     private String buildRecommendationPrompt(
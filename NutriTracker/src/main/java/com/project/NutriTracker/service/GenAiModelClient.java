@@ -0,0 +1,104 @@
+package com.project.NutriTracker.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.google.genai.Client;
+import com.google.genai.types.Blob;
+import com.google.genai.types.Content;
+import com.google.genai.types.GenerateContentConfig;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.HttpOptions;
+import com.google.genai.types.Part;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gemini through the Google GenAI SDK. With app.gemini.record-location set,
+ * every response is also written there in the layout FixtureModelClient replays.
+ */
+@Component
+@ConditionalOnProperty(name = "app.gemini.client", havingValue = "genai", matchIfMissing = true)
+@Slf4j
+public class GenAiModelClient implements ModelClient {
+
+    @Value("${app.gemini.api.key}")
+    private String apiKey;
+
+    @Value("${app.gemini.model:gemini-2.0-flash}")
+    private String modelName;
+
+    // Upper bound on one HTTP request to the model, so a stuck call frees its thread
+    @Value("${app.gemini.request-timeout:60s}")
+    private Duration requestTimeout;
+
+    @Value("${app.gemini.record-location:}")
+    private String recordLocation;
+
+    private Client client;
+
+    @PostConstruct
+    public void init() {
+        this.client = Client.builder()
+                .apiKey(apiKey)
+                .httpOptions(HttpOptions.builder().timeout((int) requestTimeout.toMillis()).build())
+                .build();
+        log.info("Initialized Google GenAI client with model: {}", modelName);
+        if (!recordLocation.isBlank()) {
+            log.info("Recording model responses to {}", recordLocation);
+        }
+    }
+
+    @Override
+    public String generate(ModelRequest request) throws IOException {
+        Content content;
+        if (request.imageBytes() != null) {
+            // Build an inline blob with bytes + MIME
+            Blob inputBlob = Blob.builder()
+                    .mimeType(request.mimeType())
+                    .data(request.imageBytes())
+                    .build();
+            content = Content.fromParts(Part.fromText(request.prompt()), Part.builder().inlineData(inputBlob).build());
+        } else {
+            content = Content.fromParts(Part.fromText(request.prompt()));
+        }
+
+        GenerateContentConfig.Builder config = GenerateContentConfig.builder()
+                .topK(32f)
+                .topP(1.0f)
+                .maxOutputTokens(request.maxOutputTokens());
+        if (request.temperature() != null) {
+            config.temperature(request.temperature());
+        }
+
+        GenerateContentResponse response = client.models.generateContent(modelName, content, config.build());
+        String text = response.text();
+        if (!recordLocation.isBlank()) {
+            record(request, text);
+        }
+        return text;
+    }
+
+    @Override
+    public String modelName() {
+        return modelName;
+    }
+
+    private void record(ModelRequest request, String text) {
+        try {
+            Path file = Path.of(recordLocation, request.stage(), request.fixtureKey() + ".json");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, text);
+        } catch (IOException e) {
+            // Recording is best effort and never fails the call
+            log.warn("Failed to record {} response: {}", request.stage(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.project.NutriTracker.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores files in a local directory instead of Cloud Storage, so the upload and
+ * analysis path can be load tested without cloud credentials or bucket traffic.
+ *
+ * Files are addressed by local:// URLs, which the frontend cannot display.
+ * Several nodes on one machine can share the directory, so analysis jobs can
+ * still run on any of them.
+ */
+@Service
+@ConditionalOnProperty(name = "app.storage.client", havingValue = "local")
+@Slf4j
+public class LocalStorageService implements StorageService {
+
+    private static final String URL_PREFIX = "local://";
+
+    @Value("${app.storage.local.directory:${java.io.tmpdir}/nutritracker-storage}")
+    private Path directory;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = directory.toAbsolutePath().normalize();
+        Files.createDirectories(directory);
+        log.info("Local Storage Service initialized in: {}", directory);
+    }
+
+    @Override
+    public String uploadFile(MultipartFile file, String folder) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+
+        String originalFilename = file.getOriginalFilename();
+        String extension = originalFilename != null && originalFilename.contains(".")
+                ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                : "";
+        return write(folder, extension, file.getBytes());
+    }
+
+    @Override
+    public String uploadBytes(byte[] bytes, String folder, String contentType) throws IOException {
+        String extension = contentType.contains("jpeg") ? ".jpg" : contentType.contains("png") ? ".png" : ".bin";
+        return write(folder, extension, bytes);
+    }
+
+    @Override
+    public byte[] downloadFile(String fileUrl) throws IOException {
+        try {
+            return Files.readAllBytes(resolve(fileUrl));
+        } catch (NoSuchFileException e) {
+            throw new IOException("File not found: " + fileUrl);
+        }
+    }
+
+    @Override
+    public boolean deleteFile(String fileUrl) {
+        try {
+            boolean deleted = Files.deleteIfExists(resolve(fileUrl));
+            if (!deleted) {
+                log.warn("File not found for deletion: {}", fileUrl);
+            }
+            return deleted;
+        } catch (Exception e) {
+            log.error("Error deleting file: {}", fileUrl, e);
+            return false;
+        }
+    }
+
+    private String write(String folder, String extension, byte[] bytes) throws IOException {
+        String filename = folder + "/" + UUID.randomUUID() + extension;
+        Path path = resolve(URL_PREFIX + filename);
+        Files.createDirectories(path.getParent());
+        // Written aside and moved, so other nodes never read a partial file
+        Path partial = path.resolveSibling(path.getFileName() + ".part");
+        Files.write(partial, bytes);
+        Files.move(partial, path);
+        log.debug("File stored locally: {}", filename);
+        return URL_PREFIX + filename;
+    }
+
+    private Path resolve(String fileUrl) throws IOException {
+        if (!fileUrl.startsWith(URL_PREFIX)) {
+            throw new IOException("Not a local storage URL: " + fileUrl);
+        }
+        Path path = directory.resolve(fileUrl.substring(URL_PREFIX.length())).normalize();
+        if (!path.startsWith(directory)) {
+            throw new IOException("Path outside the storage directory: " + fileUrl);
+        }
+        return path;
+    }
+}
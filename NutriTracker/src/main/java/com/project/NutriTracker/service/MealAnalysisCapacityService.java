@@ -0,0 +1,140 @@
+package com.project.NutriTracker.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.project.NutriTracker.document.MealAnalysisJob;
+import com.project.NutriTracker.exception.AnalysisOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admission control for meal image analysis.
+ *
+ * Bounds the number of outstanding analysis jobs and the image bytes this node
+ * holds on the heap (upload buffers and images being analyzed). Uploads beyond
+ * either bound are rejected with AnalysisOverloadedException, surfaced as 429.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MealAnalysisCapacityService {
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.analysis.max-queued-jobs:200}")
+    private long maxQueuedJobs;
+
+    @Value("${app.analysis.max-pending-bytes:64MB}")
+    private DataSize maxPendingBytes;
+
+    @Value("${app.analysis.queue-depth-refresh:1s}")
+    private Duration queueDepthRefresh;
+
+    @Value("${app.analysis.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    private volatile long queueDepth;
+    private volatile long queueDepthReadAt;
+
+    private Counter queueFullRejections;
+    private Counter byteBudgetRejections;
+
+    @PostConstruct
+    public void init() {
+        queueFullRejections = rejectionCounter("queue_full");
+        byteBudgetRejections = rejectionCounter("byte_budget");
+
+        Gauge.builder("meal.analysis.queue.depth", this, MealAnalysisCapacityService::queuedJobs)
+                .description("Analysis jobs pending or running across all nodes")
+                .register(meterRegistry);
+        Gauge.builder("meal.analysis.pending.bytes", pendingBytes, AtomicLong::get)
+                .description("Image bytes held on this node for uploads and analyses in flight")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserve heap budget for an image, or reject the request
+     */
+    public void reserveBytes(long bytes) {
+        long limit = maxPendingBytes.toBytes();
+        while (true) {
+            long current = pendingBytes.get();
+            // A single image larger than the whole budget is still admitted when nothing else is pending
+            if (current > 0 && current + bytes > limit) {
+                byteBudgetRejections.increment();
+                log.warn("Rejecting meal upload: {} bytes pending, budget {}", current, maxPendingBytes);
+                throw new AnalysisOverloadedException("Too many images are being processed. Please retry shortly.",
+                        retryAfterSeconds);
+            }
+            if (pendingBytes.compareAndSet(current, current + bytes)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Account for image bytes a worker holds; never rejects, since workers are already bounded
+     */
+    public void acquireBytes(long bytes) {
+        pendingBytes.addAndGet(bytes);
+    }
+
+    public void releaseBytes(long bytes) {
+        pendingBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * Reject the upload if the analysis queue is full
+     */
+    public void checkQueueCapacity() {
+        long depth = queuedJobs();
+        if (depth >= maxQueuedJobs) {
+            queueFullRejections.increment();
+            log.warn("Rejecting meal upload: {} analysis jobs queued, limit {}", depth, maxQueuedJobs);
+            throw new AnalysisOverloadedException("Meal analysis is busy. Please retry shortly.", retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Outstanding jobs, re-counted at most once per refresh interval
+     */
+    public long queuedJobs() {
+        long now = System.currentTimeMillis();
+        if (now - queueDepthReadAt > queueDepthRefresh.toMillis()) {
+            try {
+                queueDepth = mongoTemplate.count(
+                        Query.query(Criteria.where("status").in(List.of("PENDING", "RUNNING"))),
+                        MealAnalysisJob.class);
+                queueDepthReadAt = now;
+            } catch (Exception e) {
+                log.warn("Failed to count analysis jobs: {}", e.getMessage());
+            }
+        }
+        return queueDepth;
+    }
+
+    private Counter rejectionCounter(String reason) {
+        return Counter.builder("meal.analysis.rejected")
+                .description("Meal uploads rejected by analysis backpressure")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,449 @@
+package com.project.NutriTracker.service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.project.NutriTracker.document.MealAnalysisJob;
+import com.project.NutriTracker.document.MealImage;
+import com.project.NutriTracker.exception.ModelUnavailableException;
+import com.project.NutriTracker.repository.MealAnalysisJobRepository;
+import com.project.NutriTracker.repository.MealImageRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable queue for meal image analysis, stored in meal_analysis_jobs.
+ *
+ * Workers on any node claim due jobs with an atomic findAndModify that sets a
+ * lease; a job whose lease expires (node crashed or restarted) is claimed again.
+ * Failed attempts are retried with exponential backoff until max-attempts, after
+ * which the job is dead-lettered and the meal is marked FAILED. Attempts the
+ * model guard rejected outright (circuit open, over quota) are deferred by the
+ * model's retry-after instead and don't count, so an outage doesn't dead-letter
+ * the queue; after max-defer from enqueue they count again. Timeouts and other
+ * failures always count.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MealAnalysisJobService {
+
+    private final MongoTemplate mongoTemplate;
+    private final MealAnalysisJobRepository mealAnalysisJobRepository;
+    private final MealImageRepository mealImageRepository;
+    private final StorageService storageService;
+    private final AsyncMealAnalysisService asyncMealAnalysisService;
+    private final MealAnalysisCapacityService mealAnalysisCapacityService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.analysis.jobs.workers:2}")
+    private int workerCount;
+
+    @Value("${app.analysis.jobs.poll-interval:2s}")
+    private Duration pollInterval;
+
+    @Value("${app.analysis.jobs.lease:5m}")
+    private Duration lease;
+
+    @Value("${app.analysis.jobs.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.analysis.jobs.backoff-base:30s}")
+    private Duration backoffBase;
+
+    @Value("${app.analysis.jobs.backoff-max:30m}")
+    private Duration backoffMax;
+
+    // How long after enqueue model outages stop being free retries
+    @Value("${app.analysis.jobs.max-defer:24h}")
+    private Duration maxDefer;
+
+    @Value("${app.analysis.jobs.recover-window:7d}")
+    private Duration recoverWindow;
+
+    private final String nodeId = nodeId();
+    private final Set<String> heldJobs = ConcurrentHashMap.newKeySet();
+    private final Object wakeup = new Object();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    private Timer waitTimer;
+
+    private ExecutorService workers;
+    private ScheduledExecutorService leaseRenewer;
+    private volatile boolean running;
+
+    /**
+     * Queue analysis for a freshly uploaded meal image
+     */
+    public void enqueue(MealImage mealImage, String mimeType) {
+        LocalDateTime now = LocalDateTime.now();
+        MealAnalysisJob job = new MealAnalysisJob();
+        job.setId(mealImage.getId());
+        job.setUserId(mealImage.getUserId());
+        job.setImageUrl(mealImage.getImageUrl());
+        job.setMimeType(mimeType);
+        job.setStatus("PENDING");
+        job.setNextAttemptAt(now);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        mealAnalysisJobRepository.save(job);
+
+        synchronized (wakeup) {
+            wakeup.notifyAll();
+        }
+        log.debug("Enqueued analysis job for meal image: {}", mealImage.getId());
+    }
+
+    /**
+     * True if the meal has a job that is waiting or running, so its analysis is still coming
+     */
+    public boolean isQueued(String mealImageId) {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(mealImageId)
+                .and("status").in("PENDING", "RUNNING")), MealAnalysisJob.class);
+    }
+
+    @PostConstruct
+    public void init() {
+        waitTimer = Timer.builder("meal.analysis.wait")
+                .description("Time from a job becoming due until a worker claims it")
+                .register(meterRegistry);
+        Gauge.builder("meal.analysis.workers.active", activeWorkers, AtomicInteger::get)
+                .description("Workers on this node currently analyzing a meal")
+                .register(meterRegistry);
+        Gauge.builder("meal.analysis.workers.max", this, service -> service.workerCount)
+                .description("Configured analysis workers on this node")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        recoverStrandedMeals();
+
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount,
+                Thread.ofPlatform().name("meal-analysis-", 0).daemon(true).factory());
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workLoop);
+        }
+
+        // Keep leases alive for long analyses; stops automatically if this node dies
+        long renewMillis = Math.max(1000, lease.toMillis() / 3);
+        leaseRenewer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("meal-analysis-lease").daemon(true).factory());
+        leaseRenewer.scheduleAtFixedRate(this::renewLeases, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+
+        log.info("Started {} meal analysis workers on node {}", workerCount, nodeId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        synchronized (wakeup) {
+            wakeup.notifyAll();
+        }
+        if (leaseRenewer != null) {
+            leaseRenewer.shutdownNow();
+        }
+        if (workers != null) {
+            // In-flight jobs keep their lease and are reclaimed elsewhere once it expires
+            workers.shutdownNow();
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                MealAnalysisJob job = claimNext();
+                if (job == null) {
+                    synchronized (wakeup) {
+                        wakeup.wait(pollInterval.toMillis());
+                    }
+                    continue;
+                }
+                if (job.getNextAttemptAt() != null) {
+                    waitTimer.record(Duration.between(job.getNextAttemptAt(), LocalDateTime.now()));
+                }
+                heldJobs.add(job.getId());
+                activeWorkers.incrementAndGet();
+                try {
+                    process(job);
+                } finally {
+                    activeWorkers.decrementAndGet();
+                    heldJobs.remove(job.getId());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Meal analysis worker error", e);
+                sleepQuietly(pollInterval);
+            }
+        }
+    }
+
+    /**
+     * Atomically lease the oldest due job, or one whose lease has expired
+     */
+    MealAnalysisJob claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("status").is("PENDING").and("nextAttemptAt").lte(now),
+                Criteria.where("status").is("RUNNING").and("leaseExpiresAt").lt(now)))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+
+        Update update = new Update()
+                .set("status", "RUNNING")
+                .set("leaseOwner", nodeId)
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("updatedAt", now)
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                MealAnalysisJob.class);
+    }
+
+    void process(MealAnalysisJob job) {
+        if (job.getAttempts() > maxAttempts) {
+            // Reclaimed after its lease expired on the final attempt, e.g. the node crashed mid-analysis
+            deadLetter(job, "Exceeded " + maxAttempts + " attempts: " + job.getLastError());
+            return;
+        }
+
+        if (!mealImageRepository.existsById(job.getId())) {
+            log.info("Meal image {} was deleted, dropping analysis job", job.getId());
+            complete(job);
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        long heldBytes = 0;
+        try {
+            byte[] imageBytes = storageService.downloadFile(job.getImageUrl());
+            heldBytes = imageBytes.length;
+            mealAnalysisCapacityService.acquireBytes(heldBytes);
+            asyncMealAnalysisService.analyzeImage(job.getId(), imageBytes, job.getMimeType(),
+                    () -> renewLease(job));
+            complete(job);
+        } catch (Exception e) {
+            outcome = fail(job, e);
+        } finally {
+            mealAnalysisCapacityService.releaseBytes(heldBytes);
+            sample.stop(Timer.builder("meal.analysis.duration")
+                    .description("Time spent analyzing a meal image, per attempt")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void complete(MealAnalysisJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        mongoTemplate.updateFirst(ownedBy(job),
+                new Update()
+                        .set("status", "DONE")
+                        .set("completedAt", now)
+                        .set("updatedAt", now)
+                        .unset("leaseOwner")
+                        .unset("leaseExpiresAt"),
+                MealAnalysisJob.class);
+    }
+
+    private String fail(MealAnalysisJob job, Exception e) {
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        LocalDateTime now = LocalDateTime.now();
+
+        ModelUnavailableException unavailable = modelUnavailable(e);
+        if (unavailable != null && job.getCreatedAt() != null && job.getCreatedAt().plus(maxDefer).isAfter(now)) {
+            Duration delay = deferral(unavailable.getRetryAfterSeconds());
+            log.warn("Analysis of meal image {} deferred for {}, model unavailable: {}", job.getId(), delay, error);
+            mongoTemplate.updateFirst(ownedBy(job),
+                    new Update()
+                            .set("status", "PENDING")
+                            .set("nextAttemptAt", now.plus(delay))
+                            .set("lastError", error)
+                            .set("updatedAt", now)
+                            .inc("attempts", -1)
+                            .inc("deferrals", 1)
+                            .unset("leaseOwner")
+                            .unset("leaseExpiresAt"),
+                    MealAnalysisJob.class);
+            return "deferred";
+        }
+
+        if (job.getAttempts() >= maxAttempts) {
+            log.error("Analysis of meal image {} failed on final attempt {}", job.getId(), job.getAttempts(), e);
+            deadLetter(job, error);
+            return "dead";
+        }
+
+        Duration delay = backoff(job.getAttempts());
+        log.warn("Analysis of meal image {} failed on attempt {}, retrying in {}: {}",
+                job.getId(), job.getAttempts(), delay, error);
+
+        mongoTemplate.updateFirst(ownedBy(job),
+                new Update()
+                        .set("status", "PENDING")
+                        .set("nextAttemptAt", now.plus(delay))
+                        .set("lastError", error)
+                        .set("updatedAt", now)
+                        .unset("leaseOwner")
+                        .unset("leaseExpiresAt"),
+                MealAnalysisJob.class);
+        return "retry";
+    }
+
+    private void deadLetter(MealAnalysisJob job, String error) {
+        mongoTemplate.updateFirst(ownedBy(job),
+                new Update()
+                        .set("status", "DEAD")
+                        .set("lastError", error)
+                        .set("updatedAt", LocalDateTime.now())
+                        .unset("leaseOwner")
+                        .unset("leaseExpiresAt"),
+                MealAnalysisJob.class);
+        asyncMealAnalysisService.markFailed(job.getId(), error);
+    }
+
+    /**
+     * Exponential backoff with full jitter, capped at backoff-max
+     */
+    private Duration backoff(int attempt) {
+        long base = backoffBase.toMillis();
+        long ceiling = Math.min(backoffMax.toMillis(), base << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(base / 2 + ThreadLocalRandom.current().nextLong(Math.max(1, ceiling - base / 2)));
+    }
+
+    /**
+     * The model's retry-after plus up to half again, so deferred jobs don't all return at once
+     */
+    private static Duration deferral(long retryAfterSeconds) {
+        long millis = Math.max(1000, TimeUnit.SECONDS.toMillis(retryAfterSeconds));
+        return Duration.ofMillis(millis + ThreadLocalRandom.current().nextLong(millis / 2 + 1));
+    }
+
+    private static ModelUnavailableException modelUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ModelUnavailableException unavailable) {
+                return unavailable;
+            }
+        }
+        return null;
+    }
+
+    private Query ownedBy(MealAnalysisJob job) {
+        // A job whose lease was taken over by another worker must not be overwritten
+        return Query.query(Criteria.where("_id").is(job.getId())
+                .and("status").is("RUNNING")
+                .and("leaseOwner").is(nodeId));
+    }
+
+    /**
+     * Extend the lease on a job this worker holds; false if another worker has taken it over
+     */
+    private boolean renewLease(MealAnalysisJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.updateFirst(ownedBy(job),
+                new Update().set("leaseExpiresAt", now.plus(lease)).set("updatedAt", now),
+                MealAnalysisJob.class).getMatchedCount() > 0;
+    }
+
+    void renewLeases() {
+        if (heldJobs.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("_id").in(heldJobs)
+                            .and("status").is("RUNNING")
+                            .and("leaseOwner").is(nodeId)),
+                    new Update().set("leaseExpiresAt", now.plus(lease)).set("updatedAt", now),
+                    MealAnalysisJob.class);
+        } catch (Exception e) {
+            log.warn("Failed to renew analysis job leases: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Enqueue meals left UPLOADED or PROCESSING by the old in-memory executor
+     */
+    private void recoverStrandedMeals() {
+        Query query = new Query(Criteria.where("status").in("UPLOADED", "PROCESSING")
+                .and("imageUrl").ne(null)
+                .and("uploadedAt").gte(LocalDateTime.now().minus(recoverWindow)));
+        query.fields().include("userId", "imageUrl");
+
+        List<MealImage> stranded = mongoTemplate.find(query, MealImage.class);
+        int recovered = 0;
+        for (MealImage meal : stranded) {
+            if (mealAnalysisJobRepository.existsById(meal.getId())) {
+                continue;
+            }
+            try {
+                MealAnalysisJob job = new MealAnalysisJob();
+                job.setId(meal.getId());
+                job.setUserId(meal.getUserId());
+                job.setImageUrl(meal.getImageUrl());
+                job.setMimeType(meal.getImageUrl().toLowerCase().endsWith(".png") ? "image/png" : "image/jpeg");
+                job.setStatus("PENDING");
+                job.setNextAttemptAt(LocalDateTime.now());
+                job.setCreatedAt(LocalDateTime.now());
+                job.setUpdatedAt(LocalDateTime.now());
+                mongoTemplate.insert(job);
+                recovered++;
+            } catch (DuplicateKeyException e) {
+                // Another node recovered it first
+            }
+        }
+        if (recovered > 0) {
+            log.info("Recovered {} stranded meal images into the analysis queue", recovered);
+        }
+    }
+
+    private static String nodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,14 +1,27 @@
 package com.project.NutriTracker.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.project.NutriTracker.document.MealImage;
 import com.project.NutriTracker.dto.MealAnalysisResponse;
+import com.project.NutriTracker.dto.MealHistoryPageResponse;
 import com.project.NutriTracker.dto.MealImageUploadResponse;
+import com.project.NutriTracker.exception.AnalysisOverloadedException;
 import com.project.NutriTracker.exception.ResourceNotFoundException;
 import com.project.NutriTracker.repository.MealImageRepository;
 
@@ -21,43 +34,115 @@ import lombok.extern.slf4j.Slf4j;
 public class MealImageService {
 
     private final MealImageRepository mealImageRepository;
-    private final CloudStorageService cloudStorageService;
-    private final AsyncMealAnalysisService asyncMealAnalysisService;
+    private final StorageService storageService;
+    private final MealAnalysisJobService mealAnalysisJobService;
+    private final MealAnalysisCapacityService mealAnalysisCapacityService;
+    private final DailyNutritionRollupService dailyNutritionRollupService;
+    private final MongoTemplate mongoTemplate;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    // A re-upload of an analyzed photo within this window is a retry, not a second meal
+    @Value("${app.meals.duplicate-window:1h}")
+    private Duration duplicateWindow;
 
     /**
      * Upload meal image and save metadata
      */
     public MealImageUploadResponse uploadMealImage(MultipartFile file, String userId) {
+        long reservedBytes = 0;
         try {
             log.info("Uploading meal image for user: {}", userId);
 
             // Validate file
             validateImageFile(file);
 
-            // Read bytes for analysis
+            // Bound the image bytes buffered on this node before reading them
+            mealAnalysisCapacityService.reserveBytes(file.getSize());
+            reservedBytes = file.getSize();
+
+            // Read bytes for content hashing
             byte[] imageBytes = file.getBytes();
             String contentType = file.getContentType();
+            String contentHash = sha256Hex(imageBytes);
+
+            // Re-uploads of the same photo reuse the stored blob and, if available, the analysis
+            MealImage previous = mealImageRepository
+                    .findFirstByUserIdAndContentHashOrderByUploadedAtDesc(userId, contentHash)
+                    .orElse(null);
+
+            // A double-tap or client retry while the first upload is still queued or running
+            // gets that meal back rather than a second analysis of the same photo
+            if (previous != null && isInFlight(previous)) {
+                log.info("Duplicate image for userId: {}, analysis already pending for meal image: {}", userId,
+                        previous.getId());
+                return new MealImageUploadResponse(
+                        previous.getId(),
+                        previous.getImageUrl(),
+                        previous.getStatus(),
+                        "Duplicate image detected. Analysis is already in progress.",
+                        previous.getUploadedAt().toString());
+            }
+
+            // A client retrying after losing the response gets the analyzed meal back rather than
+            // a copy that would count the same food twice
+            if (previous != null && isRecentlyAnalyzed(previous)) {
+                log.info("Duplicate image for userId: {}, returning analyzed meal image: {}", userId,
+                        previous.getId());
+                return new MealImageUploadResponse(
+                        previous.getId(),
+                        previous.getImageUrl(),
+                        previous.getStatus(),
+                        "Duplicate image detected. Returning the existing analysis.",
+                        previous.getUploadedAt().toString());
+            }
+
+            boolean reuseAnalysis = previous != null && "ANALYZED".equals(previous.getStatus());
+            if (!reuseAnalysis) {
+                // Fail fast before storing anything if analysis cannot take more work
+                mealAnalysisCapacityService.checkQueueCapacity();
+            }
 
-            // Upload to Google Cloud Storage
-            String imageUrl = cloudStorageService.uploadFile(file, "meals");
+            String imageUrl = previous != null
+                    ? previous.getImageUrl()
+                    : storageService.uploadFile(file, "meals");
 
             // Create meal image document
             MealImage mealImage = new MealImage();
             mealImage.setUserId(userId);
             mealImage.setImageUrl(imageUrl);
             mealImage.setFileName(file.getOriginalFilename());
+            mealImage.setContentHash(contentHash);
             mealImage.setStatus("UPLOADED");
             mealImage.setUploadedAt(LocalDateTime.now());
 
+            if (reuseAnalysis) {
+                mealImage.setDetectedFoods(previous.getDetectedFoods());
+                mealImage.setNutritionSummary(previous.getNutritionSummary());
+                mealImage.setStatus("ANALYZED");
+                mealImage.setAnalyzedAt(LocalDateTime.now());
+            }
+
             // Save to database
             MealImage savedImage = mealImageRepository.save(mealImage);
 
             log.info("Meal image uploaded successfully with ID: {} for userId: {}", savedImage.getId(), userId);
 
-            // Trigger async analysis
-            // We use the bytes we read so we don't depend on the MultipartFile/stream
-            // validity in the async thread
-            asyncMealAnalysisService.analyzeImageAsync(savedImage.getId(), imageBytes, contentType);
+            if (reuseAnalysis) {
+                dailyNutritionRollupService.recordMeal(savedImage);
+                log.info("Duplicate image for userId: {}, copied analysis from meal image: {}", userId,
+                        previous.getId());
+                return new MealImageUploadResponse(
+                        savedImage.getId(),
+                        savedImage.getImageUrl(),
+                        savedImage.getStatus(),
+                        "Duplicate image detected. Reused previous analysis.",
+                        savedImage.getUploadedAt().toString());
+            }
+
+            // Queue analysis; workers read the image back from storage, so the
+            // job survives restarts and can run on any node
+            mealAnalysisJobService.enqueue(savedImage, contentType);
 
             // Return response
             return new MealImageUploadResponse(
@@ -67,12 +152,40 @@ public class MealImageService {
                     "Image uploaded successfully. Analysis will be performed shortly.",
                     savedImage.getUploadedAt().toString());
 
+        } catch (AnalysisOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error uploading meal image: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to upload meal image: " + e.getMessage());
+        } finally {
+            mealAnalysisCapacityService.releaseBytes(reservedBytes);
         }
     }
 
+    /**
+     * Still waiting on an analysis job that will produce its result
+     */
+    private boolean isInFlight(MealImage meal) {
+        return ("UPLOADED".equals(meal.getStatus()) || "PROCESSING".equals(meal.getStatus()))
+                && mealAnalysisJobService.isQueued(meal.getId());
+    }
+
+    /**
+     * Analyzed and uploaded within the duplicate window
+     */
+    private boolean isRecentlyAnalyzed(MealImage meal) {
+        return "ANALYZED".equals(meal.getStatus())
+                && meal.getUploadedAt() != null
+                && meal.getUploadedAt().isAfter(LocalDateTime.now().minus(duplicateWindow));
+    }
+
+    /**
+     * Hex-encoded SHA-256 of the image bytes, used to detect re-uploads
+     */
+    private String sha256Hex(byte[] bytes) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
     /**
      * Get meal image by ID
      */
@@ -82,10 +195,69 @@ public class MealImageService {
     }
 
     /**
-     * Get all meal images for a user
+     * Get one page of a user's meal history, newest first.
+     * Keyset pagination on (uploadedAt, id), so page cost does not grow with history length.
      */
-    public List<MealImage> getUserMealImages(String userId) {
-        return mealImageRepository.findByUserIdOrderByUploadedAtDesc(userId);
+    public MealHistoryPageResponse getUserMealHistory(String userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (cursor != null && !cursor.isBlank()) {
+            HistoryCursor position = decodeCursor(cursor);
+            criteria = criteria.orOperator(
+                    Criteria.where("uploadedAt").lt(position.uploadedAt()),
+                    Criteria.where("uploadedAt").is(position.uploadedAt()).and("id").lt(position.id()));
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "uploadedAt", "id"))
+                .limit(pageSize + 1);
+        query.fields().include("imageUrl", "fileName", "status", "detectedFoods.name", "nutritionSummary",
+                "uploadedAt", "analyzedAt");
+
+        List<MealImage> meals = mongoTemplate.find(query, MealImage.class);
+        boolean hasMore = meals.size() > pageSize;
+        List<MealImage> page = hasMore ? meals.subList(0, pageSize) : meals;
+
+        List<MealHistoryPageResponse.MealListItem> items = page.stream()
+                .map(meal -> MealHistoryPageResponse.MealListItem.builder()
+                        .id(meal.getId())
+                        .imageUrl(meal.getImageUrl())
+                        .fileName(meal.getFileName())
+                        .status(meal.getStatus())
+                        .foodItems(meal.getDetectedFoods() != null
+                                ? meal.getDetectedFoods().stream().map(MealImage.FoodItem::getName).toList()
+                                : List.of())
+                        .nutritionSummary(meal.getNutritionSummary())
+                        .uploadedAt(meal.getUploadedAt() != null ? meal.getUploadedAt().toString() : null)
+                        .analyzedAt(meal.getAnalyzedAt() != null ? meal.getAnalyzedAt().toString() : null)
+                        .build())
+                .toList();
+
+        MealImage last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return MealHistoryPageResponse.builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore && last != null ? encodeCursor(last) : null)
+                .build();
+    }
+
+    private record HistoryCursor(LocalDateTime uploadedAt, String id) {
+    }
+
+    private String encodeCursor(MealImage meal) {
+        String raw = meal.getUploadedAt() + "|" + meal.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HistoryCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 
     /**
@@ -109,8 +281,16 @@ public class MealImageService {
      */
     public void updateMealImageStatus(String id, String status) {
         MealImage mealImage = getMealImageById(id);
+        boolean wasAnalyzed = "ANALYZED".equals(mealImage.getStatus());
         mealImage.setStatus(status);
         mealImageRepository.save(mealImage);
+
+        boolean isAnalyzed = "ANALYZED".equals(status);
+        if (wasAnalyzed && !isAnalyzed) {
+            dailyNutritionRollupService.removeMeal(mealImage);
+        } else if (!wasAnalyzed && isAnalyzed) {
+            dailyNutritionRollupService.recordMeal(mealImage);
+        }
     }
 
     /**
@@ -119,6 +299,9 @@ public class MealImageService {
     public void deleteMealImage(String id) {
         MealImage mealImage = getMealImageById(id);
         mealImageRepository.delete(mealImage);
+        if ("ANALYZED".equals(mealImage.getStatus())) {
+            dailyNutritionRollupService.removeMeal(mealImage);
+        }
         log.info("Deleted meal image with ID: {}", id);
     }
 
@@ -198,6 +381,7 @@ public class MealImageService {
 
             // Save to database
             MealImage savedImage = mealImageRepository.save(mealImage);
+            dailyNutritionRollupService.recordMeal(savedImage);
             log.info("Manual food entry created successfully with ID: {}", savedImage.getId());
 
             return savedImage;
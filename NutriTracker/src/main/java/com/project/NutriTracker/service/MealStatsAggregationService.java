@@ -0,0 +1,95 @@
+package com.project.NutriTracker.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.project.NutriTracker.document.DailyNutritionRollup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Computes per-day nutrition totals with a Mongo aggregation on meal_images.
+ *
+ * The status filter, the day grouping and the macro sums all run inside Mongo,
+ * so only one small document per logged day comes back to the JVM.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MealStatsAggregationService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Daily totals for a user between start and end (inclusive), ordered by date
+     */
+    public List<DailyNutritionRollup> aggregateDailyTotals(String userId, LocalDate start, LocalDate end) {
+        // LocalDateTime is stored using the JVM zone, so group days in that zone too
+        DateOperators.Timezone timezone = DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId());
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId)
+                        .and("status").is("ANALYZED")
+                        .and("uploadedAt").gte(start.atStartOfDay()).lt(end.plusDays(1).atStartOfDay())),
+                Aggregation.project()
+                        .and(DateOperators.DateToString.dateOf("uploadedAt")
+                                .toString("%Y-%m-%d")
+                                .withTimezone(timezone))
+                        .as("day")
+                        .and("nutritionSummary.totalCalories").as("calories")
+                        .and("nutritionSummary.totalProtein").as("protein")
+                        .and("nutritionSummary.totalCarbohydrates").as("carbohydrates")
+                        .and("nutritionSummary.totalFat").as("fat")
+                        .and("nutritionSummary.totalFiber").as("fiber")
+                        .and("nutritionSummary.totalSugar").as("sugar"),
+                Aggregation.group("day")
+                        .sum("calories").as("totalCalories")
+                        .sum("protein").as("totalProtein")
+                        .sum("carbohydrates").as("totalCarbohydrates")
+                        .sum("fat").as("totalFat")
+                        .sum("fiber").as("totalFiber")
+                        .sum("sugar").as("totalSugar")
+                        .count().as("mealCount"),
+                Aggregation.sort(Sort.Direction.ASC, "_id"));
+
+        List<Document> results = mongoTemplate.aggregate(aggregation, "meal_images", Document.class)
+                .getMappedResults();
+        log.debug("Aggregated {} daily totals for user: {} between {} and {}", results.size(), userId, start, end);
+
+        return results.stream()
+                .map(doc -> toDailyTotals(userId, doc))
+                .toList();
+    }
+
+    private DailyNutritionRollup toDailyTotals(String userId, Document doc) {
+        LocalDate date = LocalDate.parse(doc.getString("_id"));
+
+        DailyNutritionRollup totals = new DailyNutritionRollup();
+        totals.setId(DailyNutritionRollup.idFor(userId, date));
+        totals.setUserId(userId);
+        totals.setDate(date);
+        totals.setTotalCalories(number(doc, "totalCalories"));
+        totals.setTotalProtein(number(doc, "totalProtein"));
+        totals.setTotalCarbohydrates(number(doc, "totalCarbohydrates"));
+        totals.setTotalFat(number(doc, "totalFat"));
+        totals.setTotalFiber(number(doc, "totalFiber"));
+        totals.setTotalSugar(number(doc, "totalSugar"));
+        totals.setMealCount((int) number(doc, "mealCount"));
+        return totals;
+    }
+
+    private double number(Document doc, String key) {
+        Object value = doc.get(key);
+        return value instanceof Number n ? n.doubleValue() : 0.0;
+    }
+}
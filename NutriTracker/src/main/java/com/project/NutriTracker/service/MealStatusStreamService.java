@@ -0,0 +1,213 @@
+package com.project.NutriTracker.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.project.NutriTracker.document.MealImage;
+import com.project.NutriTracker.dto.MealStatusEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes meal analysis status changes to Server-Sent Events subscribers.
+ *
+ * Transitions made on this node are published directly. Transitions made by a
+ * worker on another node are picked up by one batched status query over all
+ * meals watched on this node, so subscribers see them within one poll interval
+ * regardless of which node ran the analysis.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MealStatusStreamService {
+
+    private static final Set<String> TERMINAL_STATUSES = Set.of("ANALYZED", "FAILED");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.meals.status-stream.timeout:2m}")
+    private Duration timeout;
+
+    @Value("${app.meals.status-stream.poll-interval:1s}")
+    private Duration pollInterval;
+
+    private final Map<String, Subscribers> subscribers = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService poller;
+
+    private static final class Subscribers {
+        private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+        private String lastStatus;
+        private String lastErrorMessage;
+    }
+
+    @PostConstruct
+    public void init() {
+        poller = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("meal-status-stream").daemon(true).factory());
+        poller.scheduleWithFixedDelay(this::pollWatchedMeals, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        subscribers.values().forEach(group -> group.emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    /**
+     * Open a stream for a meal; the current status is sent immediately
+     */
+    public SseEmitter subscribe(MealImage mealImage) {
+        String mealImageId = mealImage.getId();
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+
+        if (TERMINAL_STATUSES.contains(mealImage.getStatus())) {
+            send(emitter, event(mealImageId, mealImage.getStatus(), mealImage.getErrorMessage()));
+            emitter.complete();
+            return emitter;
+        }
+
+        emitter.onCompletion(() -> unsubscribe(mealImageId, emitter));
+        emitter.onTimeout(() -> {
+            unsubscribe(mealImageId, emitter);
+            emitter.complete();
+        });
+        emitter.onError(e -> unsubscribe(mealImageId, emitter));
+
+        while (true) {
+            Subscribers group = subscribers.computeIfAbsent(mealImageId, id -> new Subscribers());
+            synchronized (group) {
+                if (subscribers.get(mealImageId) != group) {
+                    if (TERMINAL_STATUSES.contains(group.lastStatus)) {
+                        // A terminal status was published while we joined; the group is closed
+                        send(emitter, event(mealImageId, group.lastStatus, group.lastErrorMessage));
+                        emitter.complete();
+                        return emitter;
+                    }
+                    // Dropped as its last subscriber left; join a fresh group
+                    continue;
+                }
+                // Joined under the group's lock, so a terminal publish either sees this emitter or ran before
+                group.emitters.add(emitter);
+                if (group.lastStatus == null) {
+                    group.lastStatus = mealImage.getStatus();
+                    group.lastErrorMessage = mealImage.getErrorMessage();
+                }
+                send(emitter, event(mealImageId, group.lastStatus, group.lastErrorMessage));
+                log.debug("Subscribed to status of meal image: {} ({} subscribers)", mealImageId,
+                        group.emitters.size());
+            }
+            return emitter;
+        }
+    }
+
+    /**
+     * Notify subscribers of a status change made on this node
+     */
+    public void publish(String mealImageId, String status, String errorMessage) {
+        Subscribers group = subscribers.get(mealImageId);
+        if (group == null || status == null) {
+            return;
+        }
+
+        synchronized (group) {
+            if (status.equals(group.lastStatus)) {
+                return;
+            }
+            group.lastStatus = status;
+            group.lastErrorMessage = errorMessage;
+
+            MealStatusEvent event = event(mealImageId, status, errorMessage);
+            for (SseEmitter emitter : group.emitters) {
+                if (!send(emitter, event)) {
+                    group.emitters.remove(emitter);
+                }
+            }
+            if (TERMINAL_STATUSES.contains(status)) {
+                // Removed under the lock, so a subscriber joining now sees the group closed and gets this status
+                subscribers.remove(mealImageId, group);
+                group.emitters.forEach(SseEmitter::complete);
+            }
+        }
+    }
+
+    /**
+     * One query for every meal watched on this node, to catch transitions made elsewhere
+     */
+    private void pollWatchedMeals() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> watched = subscribers.keySet();
+            Query query = new Query(Criteria.where("_id").in(watched));
+            query.fields().include("status", "errorMessage");
+
+            List<MealImage> meals = mongoTemplate.find(query, MealImage.class);
+            Set<String> found = ConcurrentHashMap.newKeySet();
+            for (MealImage meal : meals) {
+                found.add(meal.getId());
+                publish(meal.getId(), meal.getStatus(), meal.getErrorMessage());
+            }
+
+            // Meals deleted while being watched
+            for (String mealImageId : watched) {
+                if (!found.contains(mealImageId)) {
+                    Subscribers group = subscribers.remove(mealImageId);
+                    if (group != null) {
+                        group.emitters.forEach(SseEmitter::complete);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to poll watched meal statuses: {}", e.getMessage());
+        }
+    }
+
+    private void unsubscribe(String mealImageId, SseEmitter emitter) {
+        subscribers.computeIfPresent(mealImageId, (id, group) -> {
+            group.emitters.remove(emitter);
+            return group.emitters.isEmpty() ? null : group;
+        });
+    }
+
+    private boolean send(SseEmitter emitter, MealStatusEvent event) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(event));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the completion callback cleans up
+            log.debug("Dropping status subscriber for meal image {}: {}", event.getMealImageId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private MealStatusEvent event(String mealImageId, String status, String errorMessage) {
+        return MealStatusEvent.builder()
+                .mealImageId(mealImageId)
+                .status(status)
+                .errorMessage("FAILED".equals(status) ? errorMessage : null)
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+    }
+}
@@ -0,0 +1,332 @@
+package com.project.NutriTracker.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.genai.errors.ApiException;
+import com.google.genai.errors.GenAiIOException;
+import com.project.NutriTracker.exception.ModelDeadlineExceededException;
+import com.project.NutriTracker.exception.ModelUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Protects the model quota and fails fast while the model is degraded.
+ *
+ * Each attempt passes, in order: the circuit breaker (rejected while open),
+ * an adaptive concurrency limit, and a token bucket sized to the quota; calls
+ * wait up to max-wait for the last two, and a token taken by a call that is
+ * then rejected is put back. Transient failures (429, 5xx, network errors)
+ * are retried with exponential backoff and full jitter; rejections are not,
+ * and surface as ModelUnavailableException so the caller can requeue the work.
+ * Calls with a deadline never wait or retry past it, and fail with
+ * ModelDeadlineExceededException instead. Limits are per node.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ModelCallGuard {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.gemini.rate-limit.requests-per-minute:300}")
+    private double requestsPerMinute;
+
+    @Value("${app.gemini.rate-limit.burst:10}")
+    private int burst;
+
+    // Longest a call waits for a token or a concurrency slot before it is rejected
+    @Value("${app.gemini.rate-limit.max-wait:20s}")
+    private Duration maxWait;
+
+    @Value("${app.gemini.concurrency.initial:8}")
+    private int initialConcurrency;
+
+    @Value("${app.gemini.concurrency.min:1}")
+    private int minConcurrency;
+
+    @Value("${app.gemini.concurrency.max:32}")
+    private int maxConcurrency;
+
+    @Value("${app.gemini.circuit.window:20}")
+    private int circuitWindow;
+
+    @Value("${app.gemini.circuit.minimum-calls:10}")
+    private int circuitMinimumCalls;
+
+    @Value("${app.gemini.circuit.failure-rate:0.5}")
+    private double circuitFailureRate;
+
+    @Value("${app.gemini.circuit.open-duration:30s}")
+    private Duration circuitOpenDuration;
+
+    @Value("${app.gemini.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.gemini.retry.backoff-base:500ms}")
+    private Duration backoffBase;
+
+    @Value("${app.gemini.retry.backoff-max:8s}")
+    private Duration backoffMax;
+
+    private TokenBucket tokenBucket;
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+    private CircuitBreaker circuitBreaker;
+
+    private Counter circuitOpenRejections;
+    private Counter rateLimitRejections;
+    private Counter concurrencyRejections;
+    private final Map<String, Counter> retries = new ConcurrentHashMap<>();
+    private final Map<CircuitBreaker.State, Counter> transitions = new EnumMap<>(CircuitBreaker.State.class);
+
+    // Deadline for calls that have none, in System.nanoTime() terms
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    @FunctionalInterface
+    public interface ModelCall {
+        String call() throws IOException;
+    }
+
+    @PostConstruct
+    public void init() {
+        tokenBucket = new TokenBucket(requestsPerMinute / 60.0, burst);
+        concurrencyLimit = new AdaptiveConcurrencyLimit(initialConcurrency, minConcurrency, maxConcurrency);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            transitions.put(state, Counter.builder("gemini.circuit.transitions")
+                    .description("Circuit breaker state changes, by the state entered")
+                    .tag("state", name(state))
+                    .register(meterRegistry));
+        }
+        for (String stage : List.of(ModelRequest.IDENTIFY_DISHES, ModelRequest.BREAKDOWN_DISH,
+                ModelRequest.RECOMMENDATION)) {
+            retries.put(stage, retryCounter(stage));
+        }
+
+        circuitBreaker = new CircuitBreaker(circuitWindow, circuitMinimumCalls, circuitFailureRate,
+                circuitOpenDuration.toNanos(), this::onTransition);
+
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("gemini.circuit.state", circuitBreaker, breaker -> breaker.state() == state ? 1 : 0)
+                    .description("1 for the circuit breaker's current state, 0 for the others")
+                    .tag("state", name(state))
+                    .register(meterRegistry);
+        }
+        Gauge.builder("gemini.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .description("Current adaptive limit on concurrent model calls")
+                .register(meterRegistry);
+        Gauge.builder("gemini.concurrency.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Model calls in flight on this node")
+                .register(meterRegistry);
+        Gauge.builder("gemini.rate.limit.tokens", tokenBucket, TokenBucket::available)
+                .description("Rate limiter tokens available; negative while calls wait")
+                .register(meterRegistry);
+
+        circuitOpenRejections = rejectionCounter("circuit_open");
+        rateLimitRejections = rejectionCounter("rate_limited");
+        concurrencyRejections = rejectionCounter("concurrency");
+    }
+
+    /**
+     * Run a model call for the stage under the limits, retrying transient failures
+     */
+    public String execute(String stage, ModelCall call) throws IOException {
+        return execute(stage, NO_DEADLINE, call);
+    }
+
+    /**
+     * Run a model call that must start by deadlineNanos (System.nanoTime()); waits and
+     * retries that would run past it give up with ModelDeadlineExceededException
+     */
+    public String execute(String stage, long deadlineNanos, ModelCall call) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return attempt(call, deadlineNanos);
+            } catch (IOException | RuntimeException e) {
+                if (attempt >= maxAttempts || !isTransient(e)) {
+                    throw e;
+                }
+                Duration delay = backoff(attempt);
+                if (delay.toNanos() >= remaining(deadlineNanos)) {
+                    throw new ModelDeadlineExceededException("Model call for " + stage + " ran out of time after "
+                            + attempt + " attempts", e);
+                }
+                retries.computeIfAbsent(stage, this::retryCounter).increment();
+                log.warn("Model call for {} failed on attempt {}, retrying in {}: {}", stage, attempt, delay,
+                        e.getMessage());
+                sleep(delay.toNanos());
+            }
+        }
+    }
+
+    private String attempt(ModelCall call, long deadlineNanos) throws IOException {
+        if (remaining(deadlineNanos) <= 0) {
+            throw new ModelDeadlineExceededException("Model call deadline passed");
+        }
+        // Checked before taking a token, so rejected calls don't drain the rate budget
+        long openFor = circuitBreaker.openRemaining();
+        if (openFor > 0) {
+            circuitOpenRejections.increment();
+            throw new ModelUnavailableException("Model circuit is open", seconds(openFor));
+        }
+        acquireSlot(deadlineNanos);
+
+        boolean succeeded = false;
+        boolean overloaded = false;
+        try {
+            long wait = tokenBucket.reserve(maxWait.toNanos());
+            if (wait < 0) {
+                rateLimitRejections.increment();
+                throw new ModelUnavailableException("Model rate limit exceeded", seconds(maxWait.toNanos()));
+            }
+            if (wait > remaining(deadlineNanos)) {
+                tokenBucket.refund();
+                throw new ModelDeadlineExceededException("Model call deadline passed waiting for a token");
+            }
+            try {
+                sleep(wait);
+            } catch (InterruptedIOException e) {
+                tokenBucket.refund();
+                throw e;
+            }
+
+            long open = circuitBreaker.tryAcquire();
+            if (open > 0) {
+                tokenBucket.refund();
+                circuitOpenRejections.increment();
+                throw new ModelUnavailableException("Model circuit is open", seconds(open));
+            }
+            try {
+                String response = call.call();
+                circuitBreaker.onSuccess();
+                succeeded = true;
+                return response;
+            } catch (IOException | RuntimeException e) {
+                if (isTransient(e)) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onIgnored();
+                }
+                overloaded = isOverload(e);
+                throw e;
+            }
+        } finally {
+            concurrencyLimit.release(succeeded, overloaded);
+        }
+    }
+
+    /**
+     * Wait for a concurrency slot, up to max-wait and never past the deadline
+     */
+    private void acquireSlot(long deadlineNanos) throws IOException {
+        long budget = remaining(deadlineNanos);
+        try {
+            if (concurrencyLimit.acquire(Math.min(maxWait.toNanos(), budget))) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to call the model");
+        }
+        if (budget < maxWait.toNanos()) {
+            throw new ModelDeadlineExceededException("Model call deadline passed waiting for a slot");
+        }
+        concurrencyRejections.increment();
+        throw new ModelUnavailableException("Model concurrency limit reached", seconds(maxWait.toNanos()));
+    }
+
+    /**
+     * Worth retrying the same call: throttling, server errors and network failures
+     */
+    static boolean isTransient(Throwable e) {
+        if (e instanceof ApiException api) {
+            return api.code() == 408 || api.code() == 429 || api.code() >= 500;
+        }
+        if (e instanceof ModelUnavailableException || e instanceof ModelDeadlineExceededException
+                || (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException))) {
+            return false;
+        }
+        return e instanceof IOException || e instanceof GenAiIOException;
+    }
+
+    /**
+     * The model is telling us to send less
+     */
+    private static boolean isOverload(Throwable e) {
+        if (e instanceof ApiException api) {
+            return api.code() == 429 || api.code() == 503;
+        }
+        return e instanceof SocketTimeoutException;
+    }
+
+    /**
+     * Exponential backoff with full jitter, capped at backoff-max
+     */
+    private Duration backoff(int attempt) {
+        long ceiling = Math.min(backoffMax.toMillis(), backoffBase.toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(Math.max(1, ceiling) + 1));
+    }
+
+    private static void sleep(long nanos) throws InterruptedIOException {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to call the model");
+        }
+    }
+
+    private void onTransition(CircuitBreaker.State state) {
+        transitions.get(state).increment();
+        if (state == CircuitBreaker.State.OPEN) {
+            log.warn("Model circuit opened; rejecting calls for {}", circuitOpenDuration);
+        } else {
+            log.info("Model circuit is now {}", name(state));
+        }
+    }
+
+    private Counter retryCounter(String stage) {
+        return Counter.builder("gemini.calls.retries")
+                .description("Model calls retried after a transient failure")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private Counter rejectionCounter(String reason) {
+        return Counter.builder("gemini.calls.rejected")
+                .description("Model calls rejected without reaching the model")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static long remaining(long deadlineNanos) {
+        return deadlineNanos == NO_DEADLINE ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999));
+    }
+
+    private static String name(CircuitBreaker.State state) {
+        return state.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,22 @@
+package com.project.NutriTracker.service;
+
+import java.io.IOException;
+
+/**
+ * Generative model behind meal analysis and recommendations.
+ *
+ * GenAiModelClient calls Gemini; FixtureModelClient replays recorded responses
+ * locally for load testing. Selected with app.gemini.client (genai or fixture).
+ */
+public interface ModelClient {
+
+    /**
+     * Raw response text for the request, as the model returned it
+     */
+    String generate(ModelRequest request) throws IOException;
+
+    /**
+     * Model name reported in metrics
+     */
+    String modelName();
+}
@@ -0,0 +1,53 @@
+package com.project.NutriTracker.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * One call to a ModelClient.
+ *
+ * @param stage       pipeline stage, one of the constants below
+ * @param subject     what the call is about (a dish name), or null
+ * @param prompt      prompt text
+ * @param imageBytes  image sent with the prompt, or null for text-only calls
+ * @param mimeType    MIME type of the image
+ * @param temperature sampling temperature, or null for the model default
+ * @param maxOutputTokens response length cap
+ */
+public record ModelRequest(String stage, String subject, String prompt, byte[] imageBytes, String mimeType,
+        Float temperature, int maxOutputTokens) {
+
+    public static final String IDENTIFY_DISHES = "identify_dishes";
+    public static final String BREAKDOWN_DISH = "breakdown_dish";
+    public static final String RECOMMENDATION = "recommendation";
+
+    public static ModelRequest vision(String stage, String prompt, byte[] imageBytes, String mimeType,
+            Float temperature, int maxOutputTokens) {
+        return new ModelRequest(stage, null, prompt, imageBytes, mimeType, temperature, maxOutputTokens);
+    }
+
+    public static ModelRequest text(String stage, String subject, String prompt, Float temperature,
+            int maxOutputTokens) {
+        return new ModelRequest(stage, subject, prompt, null, null, temperature, maxOutputTokens);
+    }
+
+    /**
+     * Stable name for this request's recorded response: the slugged subject,
+     * else a hash of the image or prompt. "Dal Tadka" -> "dal-tadka"
+     */
+    public String fixtureKey() {
+        if (subject != null && !subject.isBlank()) {
+            return subject.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(imageBytes != null ? imageBytes : prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
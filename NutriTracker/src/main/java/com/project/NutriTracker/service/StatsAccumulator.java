@@ -0,0 +1,195 @@
+package com.project.NutriTracker.service;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass accumulator behind the monthly and yearly stats.
+ *
+ * Rows (one per day or per month) are added in order, and every statistic the
+ * stats DTOs need is kept in primitive arrays indexed by channel: sums, counts
+ * within the goal range, the regression terms for trends, and the arg-min/max
+ * rows used for best/worst days and months. Nothing is re-streamed afterwards.
+ */
+final class StatsAccumulator {
+
+    static final int CALORIES = 0;
+    static final int PROTEIN = 1;
+    static final int CARBS = 2;
+    static final int FAT = 3;
+    static final int FIBER = 4;
+    static final int SUGAR = 5;
+    static final int ADHERENCE = 6;
+    private static final int CHANNELS = 7;
+
+    // A month counts towards monthsMetGoals at this adherence rate
+    static final double ADHERENCE_MET_THRESHOLD = 70.0;
+
+    private static final double GOAL_TOLERANCE = 0.1;
+    private static final double TREND_SLOPE_THRESHOLD = 5;
+
+    private final double[] goals; // NaN where a channel has no goal
+    private final double[] sum = new double[CHANNELS];
+    private final double[] sumXY = new double[CHANNELS];
+    private final int[] withinGoal = new int[CHANNELS];
+
+    private int count;
+    private int mealCount;
+    private int metGoalsCount;
+    private int adherenceMetCount;
+
+    // Ties keep the earliest row, matching Stream.max/min
+    private int bestRow = -1;
+    private int bestRowMeals;
+    private int fewestMealsRow = -1;
+    private int fewestMeals;
+    private int maxAdherenceRow = -1;
+    private double maxAdherence;
+    private int minAdherenceRow = -1;
+    private double minAdherence;
+
+    StatsAccumulator() {
+        this(null);
+    }
+
+    /**
+     * @param goals daily goals indexed by channel (calories, protein, carbs, fat); null for none
+     */
+    StatsAccumulator(double[] goals) {
+        this.goals = new double[CHANNELS];
+        Arrays.fill(this.goals, Double.NaN);
+        if (goals != null) {
+            System.arraycopy(goals, 0, this.goals, 0, Math.min(goals.length, CHANNELS));
+        }
+    }
+
+    static double[] goals(Double calories, Double protein, Double carbs, Double fat) {
+        return new double[] { value(calories), value(protein), value(carbs), value(fat) };
+    }
+
+    void add(double calories, double protein, double carbs, double fat, double fiber, double sugar,
+            double adherence, int meals, boolean metGoals) {
+        int x = count;
+        accumulate(CALORIES, calories, x);
+        accumulate(PROTEIN, protein, x);
+        accumulate(CARBS, carbs, x);
+        accumulate(FAT, fat, x);
+        accumulate(FIBER, fiber, x);
+        accumulate(SUGAR, sugar, x);
+        accumulate(ADHERENCE, adherence, x);
+
+        mealCount += meals;
+        if (metGoals) {
+            metGoalsCount++;
+            if (bestRow < 0 || meals > bestRowMeals) {
+                bestRow = x;
+                bestRowMeals = meals;
+            }
+        }
+        if (fewestMealsRow < 0 || meals < fewestMeals) {
+            fewestMealsRow = x;
+            fewestMeals = meals;
+        }
+        if (adherence >= ADHERENCE_MET_THRESHOLD) {
+            adherenceMetCount++;
+        }
+        if (maxAdherenceRow < 0 || adherence > maxAdherence) {
+            maxAdherenceRow = x;
+            maxAdherence = adherence;
+        }
+        if (minAdherenceRow < 0 || adherence < minAdherence) {
+            minAdherenceRow = x;
+            minAdherence = adherence;
+        }
+        count++;
+    }
+
+    private void accumulate(int channel, double value, int x) {
+        sum[channel] += value;
+        sumXY[channel] += x * value;
+        double goal = goals[channel];
+        if (!Double.isNaN(goal) && value >= goal * (1 - GOAL_TOLERANCE) && value <= goal * (1 + GOAL_TOLERANCE)) {
+            withinGoal[channel]++;
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    int mealCount() {
+        return mealCount;
+    }
+
+    int metGoalsCount() {
+        return metGoalsCount;
+    }
+
+    int adherenceMetCount() {
+        return adherenceMetCount;
+    }
+
+    double sum(int channel) {
+        return sum[channel];
+    }
+
+    double mean(int channel) {
+        return count > 0 ? sum[channel] / count : 0.0;
+    }
+
+    /**
+     * Percentage of rows within ±10% of the channel's goal
+     */
+    double withinGoalRate(int channel) {
+        return count > 0 ? (withinGoal[channel] * 100.0) / count : 0.0;
+    }
+
+    /**
+     * Least-squares slope of the channel against row index
+     */
+    double slope(int channel) {
+        double n = count;
+        double sumX = n * (n - 1) / 2;
+        double sumX2 = (n - 1) * n * (2 * n - 1) / 6;
+        return (n * sumXY[channel] - sumX * sum[channel]) / (n * sumX2 - sumX * sumX);
+    }
+
+    String trend(int channel) {
+        if (count < 2) {
+            return "STABLE";
+        }
+        double slope = slope(channel);
+        if (slope > TREND_SLOPE_THRESHOLD) {
+            return "INCREASING";
+        } else if (slope < -TREND_SLOPE_THRESHOLD) {
+            return "DECREASING";
+        }
+        return "STABLE";
+    }
+
+    /**
+     * Row with the most meals among rows that met all goals, else the first row
+     */
+    int bestRow() {
+        return bestRow >= 0 ? bestRow : 0;
+    }
+
+    int fewestMealsRow() {
+        return fewestMealsRow;
+    }
+
+    int maxAdherenceRow() {
+        return maxAdherenceRow;
+    }
+
+    int minAdherenceRow() {
+        return minAdherenceRow;
+    }
+
+    private static double value(Double d) {
+        return d != null ? d : Double.NaN;
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.NutriTracker.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.project.NutriTracker.document.StatsPeriodVersion;
+import com.project.NutriTracker.repository.StatsPeriodVersionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user, per-month version counters for stats data.
+ *
+ * Bumped whenever a day's rollup changes, so any node can tell whether a cached
+ * stats response is still current with one small indexed read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatsPeriodVersionService {
+
+    private final MongoTemplate mongoTemplate;
+    private final StatsPeriodVersionRepository statsPeriodVersionRepository;
+
+    /**
+     * Record that the stats for the month containing date have changed
+     */
+    public void bump(String userId, LocalDate date) {
+        YearMonth yearMonth = YearMonth.from(date);
+        try {
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(userId + "|" + yearMonth)),
+                    new Update()
+                            .setOnInsert("userId", userId)
+                            .setOnInsert("yearMonth", yearMonth.toString())
+                            .inc("version", 1)
+                            .set("updatedAt", LocalDateTime.now()),
+                    StatsPeriodVersion.class);
+        } catch (Exception e) {
+            log.error("Failed to bump stats version for user: {} month: {}", userId, yearMonth, e);
+        }
+    }
+
+    /**
+     * Combined version of every month overlapping start..end (inclusive).
+     * Counters only grow, so the sum changes whenever any month in the range does.
+     */
+    public long version(String userId, LocalDate start, LocalDate end) {
+        return statsPeriodVersionRepository.findByUserIdAndYearMonthRange(userId,
+                YearMonth.from(start).toString(), YearMonth.from(end).toString())
+                .stream()
+                .mapToLong(StatsPeriodVersion::getVersion)
+                .sum();
+    }
+}
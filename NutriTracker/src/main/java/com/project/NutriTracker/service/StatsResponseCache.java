@@ -0,0 +1,165 @@
+package com.project.NutriTracker.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.project.NutriTracker.document.UserStreak;
+import com.project.NutriTracker.dto.MonthlyStatsResponse;
+import com.project.NutriTracker.dto.StreakResponse;
+import com.project.NutriTracker.dto.YearlyStatsResponse;
+import com.project.NutriTracker.utils.ExpiringCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bounded cache of monthly, yearly and streak stats responses.
+ *
+ * Responses are keyed by the ETag of the period they cover: the user's goals
+ * plus the stats version of every month in the period. Any meal change in the
+ * period or any goal change produces a new ETag, so stale entries are never
+ * served and simply age out. Versions are stored in Mongo, so this holds
+ * across nodes. Cached responses are shared and must not be mutated.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatsResponseCache {
+
+    private final StatsService statsService;
+    private final UserService userService;
+    private final StatsPeriodVersionService statsPeriodVersionService;
+    private final StreakTrackerService streakTrackerService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.stats.response-cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${app.stats.response-cache.ttl:1h}")
+    private Duration ttl;
+
+    private ExpiringCache<String, Object> entries;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter notModified;
+
+    @PostConstruct
+    public void init() {
+        hits = counter("hit");
+        misses = counter("miss");
+        notModified = counter("not_modified");
+
+        this.entries = new ExpiringCache<>(maxEntries);
+        meterRegistry.gauge("stats.response.cache.size", this, StatsResponseCache::size);
+    }
+
+    public String monthlyETag(String userId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        long version = statsPeriodVersionService.version(userId, yearMonth.atDay(1), yearMonth.atEndOfMonth());
+        return etag("monthly", yearMonth.toString(), goalsVersion(userId), version);
+    }
+
+    public String yearlyETag(String userId, int year) {
+        long version = statsPeriodVersionService.version(userId, LocalDate.of(year, 1, 1),
+                LocalDate.of(year, 12, 31));
+        return etag("yearly", String.valueOf(year), goalsVersion(userId), version);
+    }
+
+    public String streakETag(String userId, LocalDate endDate, int days) {
+        // Same window as StatsService.calculateStreak: the days ending on endDate
+        long version = statsPeriodVersionService.version(userId, endDate.minusDays(days - 1), endDate);
+        // Streaks span the whole history, not just the calendar window
+        UserStreak streak = streakTrackerService.getStreak(userId);
+        String tracked = streak != null
+                ? Integer.toHexString(Objects.hash(streak.getCurrentRunStart(), streak.getCurrentRunEnd(),
+                        streak.longestRun()))
+                : "pending";
+        String period = endDate + "-" + days + "-" + tracked;
+        return etag("streak", period, goalsVersion(userId), version);
+    }
+
+    public MonthlyStatsResponse getMonthlyStats(String userId, int year, int month, String etag) {
+        return get(userId, etag, () -> statsService.getMonthlyStats(userId, year, month));
+    }
+
+    public YearlyStatsResponse getYearlyStats(String userId, int year, String etag) {
+        return get(userId, etag, () -> statsService.getYearlyStats(userId, year));
+    }
+
+    public StreakResponse getStreak(String userId, LocalDate endDate, int days, String etag) {
+        // Not cached while the tracked streaks are being recomputed, as the ETag may predate that
+        return get(userId, etag, () -> statsService.calculateStreak(userId, endDate, days),
+                response -> !response.getWindowOnly());
+    }
+
+    /**
+     * True if an If-None-Match header matches the current ETag
+     */
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                notModified.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> T get(String userId, String etag, Supplier<T> loader) {
+        return get(userId, etag, loader, response -> true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String userId, String etag, Supplier<T> loader, Predicate<T> cacheable) {
+        String key = userId + "|" + etag;
+        Object cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return (T) cached;
+        }
+        misses.increment();
+
+        // A concurrent miss for the same key just does the work twice
+        T response = loader.get();
+        if (cacheable.test(response)) {
+            entries.put(key, response, System.currentTimeMillis() + ttl.toMillis());
+        }
+        return response;
+    }
+
+    // Checked against the stored profile, so a goal change on any node changes the ETag at once
+    private String goalsVersion(String userId) {
+        return userService.getCurrentDerivedFromProfile(userId, "goalsVersion", UserService::goalsVersion);
+    }
+
+    private String etag(String type, String period, String goalsVersion, long dataVersion) {
+        return "\"" + type + "-" + period + "-" + goalsVersion + "-" + dataVersion + "\"";
+    }
+
+    private double size() {
+        return entries.size();
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("stats.response.cache.requests")
+                .description("Stats response cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
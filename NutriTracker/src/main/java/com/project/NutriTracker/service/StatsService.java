@@ -6,16 +6,18 @@ import java.time.LocalTime;
 import java.time.Year;
 import java.time.YearMonth;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.project.NutriTracker.document.DailyNutritionRollup;
 import com.project.NutriTracker.document.MealImage;
 import com.project.NutriTracker.document.User;
+import com.project.NutriTracker.document.UserStreak;
 import com.project.NutriTracker.dto.DailyStatsResponse;
 import com.project.NutriTracker.dto.MonthlyStatsResponse;
 import com.project.NutriTracker.dto.UserProfileResponse;
@@ -35,6 +37,13 @@ public class StatsService {
         private final MealImageRepository mealImageRepository;
         private final UserRepository userRepository;
         private final UserService userService;
+        private final DailyNutritionRollupService dailyNutritionRollupService;
+        private final MealStatsAggregationService mealStatsAggregationService;
+        private final StreakTrackerService streakTrackerService;
+
+        // "rollup" reads daily_nutrition_rollup, "aggregation" groups meal_images inside Mongo
+        @Value("${app.stats.engine:rollup}")
+        private String statsEngine;
 
         /**
          * Get daily nutrition stats for a specific date
@@ -42,23 +51,15 @@ public class StatsService {
         public DailyStatsResponse getDailyStats(String userId, LocalDate date) {
                 log.info("Getting daily stats for user: {} on date: {}", userId, date);
 
-                // Get user profile to fetch nutrition goals
-                UserProfileResponse userProfile = userService.getUserProfile(userId);
-
                 // Get all meals for the specified date
                 LocalDateTime startOfDay = date.atStartOfDay();
                 LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
 
                 log.info("Querying meals between {} and {}", startOfDay, endOfDay);
-                List<MealImage> meals = mealImageRepository.findByUserIdAndUploadedAtBetween(
-                                userId, startOfDay, endOfDay);
 
-                log.info("Found {} total meals for user", meals.size());
-
-                // Filter only analyzed meals
-                List<MealImage> analyzedMeals = meals.stream()
-                                .filter(meal -> "ANALYZED".equals(meal.getStatus()))
-                                .collect(Collectors.toList());
+                // Only analyzed meals, without ingredient breakdowns
+                List<MealImage> analyzedMeals = mealImageRepository.findSummariesByUserIdAndStatusAndUploadedAtBetween(
+                                userId, "ANALYZED", startOfDay, endOfDay);
 
                 log.info("Found {} analyzed meals", analyzedMeals.size());
 
@@ -66,7 +67,8 @@ public class StatsService {
                 DailyStatsResponse.NutritionConsumed consumed = calculateDailyTotalNutrition(analyzedMeals);
 
                 // Get nutrition goals from user profile
-                DailyStatsResponse.NutritionGoals goals = buildNutritionGoals(userProfile);
+                DailyStatsResponse.NutritionGoals goals = userService.getDerivedFromProfile(userId, "dailyGoals",
+                                this::buildNutritionGoals);
 
                 // Calculate remaining nutrition
                 DailyStatsResponse.NutritionRemaining remaining = calculateRemaining(consumed, goals);
@@ -202,47 +204,50 @@ public class StatsService {
 
                 log.info("Fetching monthly stats for user: {} for {}-{}", userId, year, month);
 
-                // Get user profile for goals
-                UserProfileResponse userProfile = userService.getUserProfile(userId);
-                MonthlyStatsResponse.NutritionGoals goals = buildMonthlyGoals(userProfile);
+                // Get goals derived from the user profile
+                MonthlyStatsResponse.NutritionGoals goals = userService.getDerivedFromProfile(userId, "monthlyGoals",
+                                StatsService::buildMonthlyGoals);
 
-                // Get all meals for the month
-                LocalDateTime startDateTime = startDate.atStartOfDay();
-                LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-                List<MealImage> meals = mealImageRepository.findByUserIdAndUploadedAtBetween(
-                                userId, startDateTime, endDateTime);
+                // Get the logged days for the month
+                List<DailyNutritionRollup> rollups = loadDailyTotals(userId, startDate, endDate);
 
-                // Filter analyzed meals
-                List<MealImage> analyzedMeals = meals.stream()
-                                .filter(meal -> "ANALYZED".equals(meal.getStatus()))
-                                .collect(Collectors.toList());
-
-                // Group meals by date
-                Map<LocalDate, List<MealImage>> mealsByDate = analyzedMeals.stream()
-                                .collect(Collectors.groupingBy(meal -> meal.getUploadedAt().toLocalDate()));
+                return aggregateMonthly(yearMonth, goals, rollups);
+        }
 
-                // Calculate daily breakdowns
-                List<MonthlyStatsResponse.DailyBreakdown> dailyBreakdowns = new ArrayList<>();
-                for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-                        List<MealImage> dayMeals = mealsByDate.getOrDefault(date, List.of());
-                        if (!dayMeals.isEmpty()) {
-                                dailyBreakdowns.add(buildDailyBreakdown(date, dayMeals, goals));
-                        }
+        /**
+         * Monthly stats from the month's logged days, in date order
+         */
+        MonthlyStatsResponse aggregateMonthly(YearMonth yearMonth, MonthlyStatsResponse.NutritionGoals goals,
+                        List<DailyNutritionRollup> rollups) {
+                // Build daily breakdowns and accumulate every monthly statistic in one pass.
+                // Averages, adherence and trends use the rounded daily values, totals the raw ones.
+                StatsAccumulator days = new StatsAccumulator(StatsAccumulator.goals(goals.getDailyCalories(),
+                                goals.getDailyProtein(), goals.getDailyCarbohydrates(), goals.getDailyFat()));
+                StatsAccumulator totals = new StatsAccumulator();
+                List<MonthlyStatsResponse.DailyBreakdown> dailyBreakdowns = new ArrayList<>(rollups.size());
+                for (DailyNutritionRollup rollup : rollups) {
+                        MonthlyStatsResponse.DailyBreakdown day = buildDailyBreakdown(rollup, goals);
+                        dailyBreakdowns.add(day);
+                        days.add(day.getCalories(), day.getProtein(), day.getCarbohydrates(), day.getFat(), 0, 0, 0,
+                                        day.getMealsCount(), day.getMetGoals());
+                        totals.add(rollup.getTotalCalories(), rollup.getTotalProtein(),
+                                        rollup.getTotalCarbohydrates(), rollup.getTotalFat(), rollup.getTotalFiber(),
+                                        rollup.getTotalSugar(), 0, rollup.getMealCount(), false);
                 }
 
                 // Calculate aggregated stats
-                int totalMeals = analyzedMeals.size();
-                int totalDaysLogged = mealsByDate.size();
+                int totalMeals = totals.mealCount();
+                int totalDaysLogged = rollups.size();
                 int daysInMonth = yearMonth.lengthOfMonth();
 
-                MonthlyStatsResponse.AverageNutrition avgNutrition = calculateAverageNutrition(dailyBreakdowns);
-                MonthlyStatsResponse.TotalNutrition totalNutrition = calculateMonthlyTotalNutrition(analyzedMeals);
-                MonthlyStatsResponse.GoalAdherence adherence = calculateGoalAdherence(dailyBreakdowns, goals);
-                MonthlyStatsResponse.NutritionTrends trends = calculateMonthlyTrends(dailyBreakdowns, goals);
+                MonthlyStatsResponse.AverageNutrition avgNutrition = calculateAverageNutrition(days);
+                MonthlyStatsResponse.TotalNutrition totalNutrition = calculateMonthlyTotalNutrition(totals);
+                MonthlyStatsResponse.GoalAdherence adherence = calculateGoalAdherence(days);
+                MonthlyStatsResponse.NutritionTrends trends = calculateMonthlyTrends(days, goals);
 
                 // Find best and worst days
-                MonthlyStatsResponse.DaySummary bestDay = findBestDay(dailyBreakdowns);
-                MonthlyStatsResponse.DaySummary worstDay = findWorstDay(dailyBreakdowns);
+                MonthlyStatsResponse.DaySummary bestDay = findBestDay(dailyBreakdowns, days);
+                MonthlyStatsResponse.DaySummary worstDay = findWorstDay(dailyBreakdowns, days);
 
                 return MonthlyStatsResponse.builder()
                                 .month(yearMonth)
@@ -266,53 +271,75 @@ public class StatsService {
         public YearlyStatsResponse getYearlyStats(String userId, int year) {
                 log.info("Fetching yearly stats for user: {} for year {}", userId, year);
 
-                // Get user profile for goals
-                UserProfileResponse userProfile = userService.getUserProfile(userId);
-                YearlyStatsResponse.NutritionGoals goals = buildYearlyGoals(userProfile);
+                // Get goals derived from the user profile
+                YearlyStatsResponse.NutritionGoals goals = userService.getDerivedFromProfile(userId, "yearlyGoals",
+                                StatsService::buildYearlyGoals);
 
-                // Get all meals for the year
-                LocalDateTime startDateTime = LocalDate.of(year, 1, 1).atStartOfDay();
-                LocalDateTime endDateTime = LocalDate.of(year, 12, 31).atTime(LocalTime.MAX);
-                List<MealImage> meals = mealImageRepository.findByUserIdAndUploadedAtBetween(
-                                userId, startDateTime, endDateTime);
+                // Get the logged days for the year
+                List<DailyNutritionRollup> rollups = loadDailyTotals(userId,
+                                LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
 
-                // Filter analyzed meals
-                List<MealImage> analyzedMeals = meals.stream()
-                                .filter(meal -> "ANALYZED".equals(meal.getStatus()))
-                                .collect(Collectors.toList());
+                return aggregateYearly(year, goals, rollups);
+        }
 
-                // Group meals by month
-                Map<YearMonth, List<MealImage>> mealsByMonth = analyzedMeals.stream()
-                                .collect(Collectors.groupingBy(meal -> YearMonth.from(meal.getUploadedAt())));
+        /**
+         * Yearly stats from the year's logged days, in date order
+         */
+        YearlyStatsResponse aggregateYearly(int year, YearlyStatsResponse.NutritionGoals goals,
+                        List<DailyNutritionRollup> rollups) {
+
+                // One pass over the days feeds the yearly totals, each month and each season
+                double[] goalVector = StatsAccumulator.goals(goals.getDailyCalories(), goals.getDailyProtein(),
+                                goals.getDailyCarbohydrates(), goals.getDailyFat());
+                StatsAccumulator totals = new StatsAccumulator();
+                StatsAccumulator[] monthAccumulators = new StatsAccumulator[12];
+                Map<String, StatsAccumulator> seasons = new HashMap<>();
+                for (DailyNutritionRollup rollup : rollups) {
+                        int month = rollup.getDate().getMonthValue();
+                        if (monthAccumulators[month - 1] == null) {
+                                monthAccumulators[month - 1] = new StatsAccumulator(goalVector);
+                        }
+                        StatsAccumulator season = seasons.computeIfAbsent(getSeason(month),
+                                        key -> new StatsAccumulator());
+                        for (StatsAccumulator accumulator : new StatsAccumulator[] { totals,
+                                        monthAccumulators[month - 1], season }) {
+                                accumulator.add(rollup.getTotalCalories(), rollup.getTotalProtein(),
+                                                rollup.getTotalCarbohydrates(), rollup.getTotalFat(),
+                                                rollup.getTotalFiber(), rollup.getTotalSugar(), 0,
+                                                rollup.getMealCount(), false);
+                        }
+                }
 
-                // Calculate monthly breakdowns
+                // Calculate monthly breakdowns, accumulating the per-month series as they are built
+                StatsAccumulator months = new StatsAccumulator();
                 List<YearlyStatsResponse.MonthlyBreakdown> monthlyBreakdowns = new ArrayList<>();
                 for (int m = 1; m <= 12; m++) {
-                        YearMonth yearMonth = YearMonth.of(year, m);
-                        List<MealImage> monthMeals = mealsByMonth.getOrDefault(yearMonth, List.of());
-                        if (!monthMeals.isEmpty()) {
-                                monthlyBreakdowns.add(buildMonthlyBreakdown(yearMonth, monthMeals, goals));
+                        if (monthAccumulators[m - 1] != null) {
+                                YearlyStatsResponse.MonthlyBreakdown breakdown = buildMonthlyBreakdown(
+                                                YearMonth.of(year, m), monthAccumulators[m - 1]);
+                                monthlyBreakdowns.add(breakdown);
+                                months.add(breakdown.getAverageCalories(), breakdown.getAverageProtein(),
+                                                breakdown.getAverageCarbs(), breakdown.getAverageFat(), 0, 0,
+                                                breakdown.getAdherenceRate(), breakdown.getMealsCount(), false);
                         }
                 }
 
                 // Calculate aggregated stats
-                int totalMeals = analyzedMeals.size();
-                Map<LocalDate, List<MealImage>> mealsByDate = analyzedMeals.stream()
-                                .collect(Collectors.groupingBy(meal -> meal.getUploadedAt().toLocalDate()));
-                int totalDaysLogged = mealsByDate.size();
+                int totalMeals = totals.mealCount();
+                int totalDaysLogged = rollups.size();
                 int daysInYear = Year.of(year).length();
 
-                YearlyStatsResponse.AverageNutrition avgNutrition = calculateYearlyAverageNutrition(monthlyBreakdowns);
-                YearlyStatsResponse.TotalNutrition totalNutrition = calculateYearlyTotalNutrition(analyzedMeals);
-                YearlyStatsResponse.GoalAdherence adherence = calculateYearlyGoalAdherence(monthlyBreakdowns);
-                YearlyStatsResponse.YearlyTrends trends = calculateYearlyTrends(monthlyBreakdowns, goals);
+                YearlyStatsResponse.AverageNutrition avgNutrition = calculateYearlyAverageNutrition(months);
+                YearlyStatsResponse.TotalNutrition totalNutrition = calculateYearlyTotalNutrition(totals);
+                YearlyStatsResponse.GoalAdherence adherence = calculateYearlyGoalAdherence(months);
+                YearlyStatsResponse.YearlyTrends trends = calculateYearlyTrends(monthlyBreakdowns, months, goals);
 
                 // Find best and worst months
-                YearlyStatsResponse.MonthSummary bestMonth = findBestMonth(monthlyBreakdowns);
-                YearlyStatsResponse.MonthSummary worstMonth = findWorstMonth(monthlyBreakdowns);
+                YearlyStatsResponse.MonthSummary bestMonth = findBestMonth(monthlyBreakdowns, months);
+                YearlyStatsResponse.MonthSummary worstMonth = findWorstMonth(monthlyBreakdowns, months);
 
                 // Calculate seasonal patterns
-                YearlyStatsResponse.SeasonalPatterns seasonalPatterns = calculateSeasonalPatterns(mealsByMonth);
+                YearlyStatsResponse.SeasonalPatterns seasonalPatterns = calculateSeasonalPatterns(seasons);
 
                 return YearlyStatsResponse.builder()
                                 .year(year)
@@ -336,81 +363,46 @@ public class StatsService {
          */
         public List<MonthlyStatsResponse.DailyBreakdown> getDailyBreakdownForRange(String userId, LocalDate startDate,
                         LocalDate endDate) {
-                // Get user profile for goals
-                UserProfileResponse userProfile = userService.getUserProfile(userId);
-                MonthlyStatsResponse.NutritionGoals goals = buildMonthlyGoals(userProfile);
-
-                // Get all meals for the range
-                LocalDateTime startDateTime = startDate.atStartOfDay();
-                LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-                List<MealImage> meals = mealImageRepository.findByUserIdAndUploadedAtBetween(
-                                userId, startDateTime, endDateTime);
-
-                // Filter analyzed meals
-                List<MealImage> analyzedMeals = meals.stream()
-                                .filter(meal -> "ANALYZED".equals(meal.getStatus()))
-                                .collect(Collectors.toList());
+                // Get goals derived from the user profile
+                MonthlyStatsResponse.NutritionGoals goals = userService.getDerivedFromProfile(userId, "monthlyGoals",
+                                StatsService::buildMonthlyGoals);
 
-                // Group meals by date
-                Map<LocalDate, List<MealImage>> mealsByDate = analyzedMeals.stream()
-                                .collect(Collectors.groupingBy(meal -> meal.getUploadedAt().toLocalDate()));
-
-                // Calculate daily breakdowns
-                List<MonthlyStatsResponse.DailyBreakdown> dailyBreakdowns = new ArrayList<>();
-                for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-                        List<MealImage> dayMeals = mealsByDate.getOrDefault(date, List.of());
-                        // Only include days with meals to filter out empty days from the "streak" or
-                        // recommendation logic if desired
-                        // But for streaks, empty days are important (missed streak).
-                        // However, for "diet recommendation based on what you ate", empty days are
-                        // noise unless we say "you didn't eat".
-                        // Logic in getMonthlyStats includes ONLY days with meals: if
-                        // (!dayMeals.isEmpty())
-                        // I will stick to that to be consistent.
-                        if (!dayMeals.isEmpty()) {
-                                dailyBreakdowns.add(buildDailyBreakdown(date, dayMeals, goals));
-                        }
-                }
-                return dailyBreakdowns;
+                // Only days with meals are included, consistent with getMonthlyStats
+                return loadDailyTotals(userId, startDate, endDate).stream()
+                                .map(rollup -> buildDailyBreakdown(rollup, goals))
+                                .collect(Collectors.toList());
         }
 
         /**
-         * Calculate streak information for a user
+         * Calculate streak information for a user.
+         * Current and longest streaks are read from the tracked streak state in O(1), so
+         * they cover the whole history; the calendar covers the requested days.
          */
         public com.project.NutriTracker.dto.StreakResponse calculateStreak(String userId, LocalDate endDate,
                         int daysToAnalyze) {
                 LocalDate startDate = endDate.minusDays(daysToAnalyze - 1);
 
-                // Get user profile for goals
-                UserProfileResponse userProfile = userService.getUserProfile(userId);
-                MonthlyStatsResponse.NutritionGoals goals = buildMonthlyGoals(userProfile);
-
-                // Get all meals for the range
-                LocalDateTime startDateTime = startDate.atStartOfDay();
-                LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-                List<MealImage> meals = mealImageRepository.findByUserIdAndUploadedAtBetween(
-                                userId, startDateTime, endDateTime);
+                // Get goals derived from the user profile
+                MonthlyStatsResponse.NutritionGoals goals = userService.getDerivedFromProfile(userId, "monthlyGoals",
+                                StatsService::buildMonthlyGoals);
 
-                // Filter analyzed meals
-                List<MealImage> analyzedMeals = meals.stream()
-                                .filter(meal -> "ANALYZED".equals(meal.getStatus()))
-                                .collect(Collectors.toList());
-
-                // Group meals by date
-                Map<LocalDate, List<MealImage>> mealsByDate = analyzedMeals.stream()
-                                .collect(Collectors.groupingBy(meal -> meal.getUploadedAt().toLocalDate()));
+                // Get the logged days for the range
+                Map<LocalDate, DailyNutritionRollup> rollupsByDate = loadDailyTotals(userId, startDate, endDate)
+                                .stream()
+                                .collect(Collectors.toMap(DailyNutritionRollup::getDate, rollup -> rollup));
 
                 // Build calendar data
                 List<com.project.NutriTracker.dto.StreakResponse.StreakDay> calendar = new ArrayList<>();
+                LocalDate lastLoggedDate = null;
                 for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-                        List<MealImage> dayMeals = mealsByDate.getOrDefault(date, List.of());
-                        boolean hasData = !dayMeals.isEmpty();
+                        DailyNutritionRollup rollup = rollupsByDate.get(date);
+                        boolean hasData = rollup != null;
                         boolean metGoals = false;
 
                         if (hasData) {
-                                MonthlyStatsResponse.DailyBreakdown breakdown = buildDailyBreakdown(date, dayMeals,
-                                                goals);
+                                MonthlyStatsResponse.DailyBreakdown breakdown = buildDailyBreakdown(rollup, goals);
                                 metGoals = breakdown.getMetGoals();
+                                lastLoggedDate = date;
                         }
 
                         calendar.add(com.project.NutriTracker.dto.StreakResponse.StreakDay.builder()
@@ -420,34 +412,43 @@ public class StatsService {
                                         .build());
                 }
 
-                // Calculate current streak (counting backwards from endDate)
-                int currentStreak = 0;
-                LocalDate streakStartDate = null;
-                LocalDate lastLoggedDate = null;
-
-                for (int i = calendar.size() - 1; i >= 0; i--) {
-                        com.project.NutriTracker.dto.StreakResponse.StreakDay day = calendar.get(i);
-                        if (day.getHasData() && lastLoggedDate == null) {
-                                lastLoggedDate = day.getDate();
-                        }
-                        if (day.getMetGoals()) {
+                int currentStreak;
+                int longestStreak;
+                LocalDate streakStartDate;
+                boolean windowOnly;
+
+                // Tracked state is as of the latest goal-met day, so it answers for any
+                // endDate from the start of that run on
+                UserStreak tracked = streakTrackerService.getStreak(userId);
+                if (tracked != null && (tracked.getCurrentRunEnd() == null
+                                || !endDate.isBefore(tracked.getCurrentRunStart()))) {
+                        boolean active = tracked.getCurrentRunEnd() != null
+                                        && !endDate.isAfter(tracked.getCurrentRunEnd());
+                        currentStreak = active
+                                        ? (int) (endDate.toEpochDay() - tracked.getCurrentRunStart().toEpochDay()) + 1
+                                        : 0;
+                        longestStreak = active
+                                        ? Math.max(tracked.getPriorLongestRun(), currentStreak)
+                                        : tracked.longestRun();
+                        streakStartDate = active ? tracked.getCurrentRunStart() : null;
+                        windowOnly = false;
+                } else {
+                        // Fallback while the tracked state is being rebuilt, or for a look back
+                        // before the current run: count within the calendar window only
+                        currentStreak = 0;
+                        streakStartDate = null;
+                        for (int i = calendar.size() - 1; i >= 0 && calendar.get(i).getMetGoals(); i--) {
                                 currentStreak++;
-                                streakStartDate = day.getDate();
-                        } else {
-                                break;
+                                streakStartDate = calendar.get(i).getDate();
                         }
-                }
 
-                // Calculate longest streak
-                int longestStreak = 0;
-                int tempStreak = 0;
-                for (com.project.NutriTracker.dto.StreakResponse.StreakDay day : calendar) {
-                        if (day.getMetGoals()) {
-                                tempStreak++;
+                        longestStreak = 0;
+                        int tempStreak = 0;
+                        for (com.project.NutriTracker.dto.StreakResponse.StreakDay day : calendar) {
+                                tempStreak = day.getMetGoals() ? tempStreak + 1 : 0;
                                 longestStreak = Math.max(longestStreak, tempStreak);
-                        } else {
-                                tempStreak = 0;
                         }
+                        windowOnly = true;
                 }
 
                 // Generate motivational message
@@ -457,6 +458,7 @@ public class StatsService {
                                 .currentStreak(currentStreak)
                                 .longestStreak(longestStreak)
                                 .streakStartDate(streakStartDate)
+                                .windowOnly(windowOnly)
                                 .lastLoggedDate(lastLoggedDate)
                                 .calendar(calendar)
                                 .motivationalMessage(motivationalMessage)
@@ -481,7 +483,7 @@ public class StatsService {
 
         // ==================== Helper Methods for Monthly Stats ====================
 
-        private MonthlyStatsResponse.NutritionGoals buildMonthlyGoals(UserProfileResponse userProfile) {
+        static MonthlyStatsResponse.NutritionGoals buildMonthlyGoals(UserProfileResponse userProfile) {
                 if (userProfile.getNutritionGoals() == null) {
                         return MonthlyStatsResponse.NutritionGoals.builder()
                                         .dailyCalories(2000.0)
@@ -501,144 +503,87 @@ public class StatsService {
         }
 
         private MonthlyStatsResponse.DailyBreakdown buildDailyBreakdown(
-                        LocalDate date, List<MealImage> dayMeals, MonthlyStatsResponse.NutritionGoals goals) {
-
-                double totalCalories = 0, totalProtein = 0, totalCarbs = 0, totalFat = 0;
-
-                for (MealImage meal : dayMeals) {
-                        if (meal.getNutritionSummary() != null) {
-                                MealImage.NutritionSummary summary = meal.getNutritionSummary();
-                                totalCalories += summary.getTotalCalories() != null ? summary.getTotalCalories() : 0;
-                                totalProtein += summary.getTotalProtein() != null ? summary.getTotalProtein() : 0;
-                                totalCarbs += summary.getTotalCarbohydrates() != null ? summary.getTotalCarbohydrates()
-                                                : 0;
-                                totalFat += summary.getTotalFat() != null ? summary.getTotalFat() : 0;
-                        }
-                }
-
-                boolean metGoals = isWithinGoalRange(totalCalories, goals.getDailyCalories(), 0.1) &&
-                                isWithinGoalRange(totalProtein, goals.getDailyProtein(), 0.1) &&
-                                isWithinGoalRange(totalCarbs, goals.getDailyCarbohydrates(), 0.1) &&
-                                isWithinGoalRange(totalFat, goals.getDailyFat(), 0.1);
+                        DailyNutritionRollup rollup, MonthlyStatsResponse.NutritionGoals goals) {
 
                 return MonthlyStatsResponse.DailyBreakdown.builder()
-                                .date(date.toString())
-                                .calories(round(totalCalories))
-                                .protein(round(totalProtein))
-                                .carbohydrates(round(totalCarbs))
-                                .fat(round(totalFat))
-                                .mealsCount(dayMeals.size())
-                                .metGoals(metGoals)
+                                .date(rollup.getDate().toString())
+                                .calories(round(rollup.getTotalCalories()))
+                                .protein(round(rollup.getTotalProtein()))
+                                .carbohydrates(round(rollup.getTotalCarbohydrates()))
+                                .fat(round(rollup.getTotalFat()))
+                                .mealsCount(rollup.getMealCount())
+                                .metGoals(metGoals(rollup, goals))
                                 .build();
         }
 
-        private MonthlyStatsResponse.AverageNutrition calculateAverageNutrition(
-                        List<MonthlyStatsResponse.DailyBreakdown> dailyBreakdowns) {
+        /**
+         * A day meets its goals when calories and every macro are within ±10%
+         */
+        static boolean metGoals(DailyNutritionRollup rollup, MonthlyStatsResponse.NutritionGoals goals) {
+                return isWithinGoalRange(rollup.getTotalCalories(), goals.getDailyCalories(), 0.1) &&
+                                isWithinGoalRange(rollup.getTotalProtein(), goals.getDailyProtein(), 0.1) &&
+                                isWithinGoalRange(rollup.getTotalCarbohydrates(), goals.getDailyCarbohydrates(), 0.1) &&
+                                isWithinGoalRange(rollup.getTotalFat(), goals.getDailyFat(), 0.1);
+        }
+
+        private MonthlyStatsResponse.AverageNutrition calculateAverageNutrition(StatsAccumulator days) {
 
-                if (dailyBreakdowns.isEmpty()) {
+                if (days.isEmpty()) {
                         return MonthlyStatsResponse.AverageNutrition.builder()
                                         .calories(0.0).protein(0.0).carbohydrates(0.0)
                                         .fat(0.0).fiber(0.0).sugar(0.0).build();
                 }
 
-                double avgCalories = dailyBreakdowns.stream()
-                                .mapToDouble(MonthlyStatsResponse.DailyBreakdown::getCalories).average().orElse(0.0);
-                double avgProtein = dailyBreakdowns.stream()
-                                .mapToDouble(MonthlyStatsResponse.DailyBreakdown::getProtein).average().orElse(0.0);
-                double avgCarbs = dailyBreakdowns.stream()
-                                .mapToDouble(MonthlyStatsResponse.DailyBreakdown::getCarbohydrates).average()
-                                .orElse(0.0);
-                double avgFat = dailyBreakdowns.stream()
-                                .mapToDouble(MonthlyStatsResponse.DailyBreakdown::getFat).average().orElse(0.0);
-
                 return MonthlyStatsResponse.AverageNutrition.builder()
-                                .calories(round(avgCalories))
-                                .protein(round(avgProtein))
-                                .carbohydrates(round(avgCarbs))
-                                .fat(round(avgFat))
+                                .calories(round(days.mean(StatsAccumulator.CALORIES)))
+                                .protein(round(days.mean(StatsAccumulator.PROTEIN)))
+                                .carbohydrates(round(days.mean(StatsAccumulator.CARBS)))
+                                .fat(round(days.mean(StatsAccumulator.FAT)))
                                 .fiber(0.0) // Can be calculated if needed
                                 .sugar(0.0) // Can be calculated if needed
                                 .build();
         }
 
-        private MonthlyStatsResponse.TotalNutrition calculateMonthlyTotalNutrition(List<MealImage> meals) {
-                double totalCalories = 0, totalProtein = 0, totalCarbs = 0, totalFat = 0, totalFiber = 0,
-                                totalSugar = 0;
-
-                for (MealImage meal : meals) {
-                        if (meal.getNutritionSummary() != null) {
-                                MealImage.NutritionSummary summary = meal.getNutritionSummary();
-                                totalCalories += summary.getTotalCalories() != null ? summary.getTotalCalories() : 0;
-                                totalProtein += summary.getTotalProtein() != null ? summary.getTotalProtein() : 0;
-                                totalCarbs += summary.getTotalCarbohydrates() != null ? summary.getTotalCarbohydrates()
-                                                : 0;
-                                totalFat += summary.getTotalFat() != null ? summary.getTotalFat() : 0;
-                                totalFiber += summary.getTotalFiber() != null ? summary.getTotalFiber() : 0;
-                                totalSugar += summary.getTotalSugar() != null ? summary.getTotalSugar() : 0;
-                        }
-                }
-
+        private MonthlyStatsResponse.TotalNutrition calculateMonthlyTotalNutrition(StatsAccumulator totals) {
                 return MonthlyStatsResponse.TotalNutrition.builder()
-                                .calories(round(totalCalories))
-                                .protein(round(totalProtein))
-                                .carbohydrates(round(totalCarbs))
-                                .fat(round(totalFat))
-                                .fiber(round(totalFiber))
-                                .sugar(round(totalSugar))
+                                .calories(round(totals.sum(StatsAccumulator.CALORIES)))
+                                .protein(round(totals.sum(StatsAccumulator.PROTEIN)))
+                                .carbohydrates(round(totals.sum(StatsAccumulator.CARBS)))
+                                .fat(round(totals.sum(StatsAccumulator.FAT)))
+                                .fiber(round(totals.sum(StatsAccumulator.FIBER)))
+                                .sugar(round(totals.sum(StatsAccumulator.SUGAR)))
                                 .build();
         }
 
-        private MonthlyStatsResponse.GoalAdherence calculateGoalAdherence(
-                        List<MonthlyStatsResponse.DailyBreakdown> dailyBreakdowns,
-                        MonthlyStatsResponse.NutritionGoals goals) {
+        private MonthlyStatsResponse.GoalAdherence calculateGoalAdherence(StatsAccumulator days) {
 
-                if (dailyBreakdowns.isEmpty()) {
+                if (days.isEmpty()) {
                         return MonthlyStatsResponse.GoalAdherence.builder()
                                         .caloriesAdherenceRate(0.0).proteinAdherenceRate(0.0)
                                         .carbsAdherenceRate(0.0).fatAdherenceRate(0.0)
                                         .overallAdherenceRate(0.0).daysMetGoals(0).build();
                 }
 
-                long caloriesDaysMetGoal = dailyBreakdowns.stream()
-                                .filter(day -> isWithinGoalRange(day.getCalories(), goals.getDailyCalories(), 0.1))
-                                .count();
-                long proteinDaysMetGoal = dailyBreakdowns.stream()
-                                .filter(day -> isWithinGoalRange(day.getProtein(), goals.getDailyProtein(), 0.1))
-                                .count();
-                long carbsDaysMetGoal = dailyBreakdowns.stream()
-                                .filter(day -> isWithinGoalRange(day.getCarbohydrates(), goals.getDailyCarbohydrates(),
-                                                0.1))
-                                .count();
-                long fatDaysMetGoal = dailyBreakdowns.stream()
-                                .filter(day -> isWithinGoalRange(day.getFat(), goals.getDailyFat(), 0.1))
-                                .count();
-
-                int totalDays = dailyBreakdowns.size();
-                double caloriesRate = (caloriesDaysMetGoal * 100.0) / totalDays;
-                double proteinRate = (proteinDaysMetGoal * 100.0) / totalDays;
-                double carbsRate = (carbsDaysMetGoal * 100.0) / totalDays;
-                double fatRate = (fatDaysMetGoal * 100.0) / totalDays;
+                double caloriesRate = days.withinGoalRate(StatsAccumulator.CALORIES);
+                double proteinRate = days.withinGoalRate(StatsAccumulator.PROTEIN);
+                double carbsRate = days.withinGoalRate(StatsAccumulator.CARBS);
+                double fatRate = days.withinGoalRate(StatsAccumulator.FAT);
                 double overallRate = (caloriesRate + proteinRate + carbsRate + fatRate) / 4.0;
 
-                int daysMetAllGoals = (int) dailyBreakdowns.stream()
-                                .filter(MonthlyStatsResponse.DailyBreakdown::getMetGoals)
-                                .count();
-
                 return MonthlyStatsResponse.GoalAdherence.builder()
                                 .caloriesAdherenceRate(round(caloriesRate))
                                 .proteinAdherenceRate(round(proteinRate))
                                 .carbsAdherenceRate(round(carbsRate))
                                 .fatAdherenceRate(round(fatRate))
                                 .overallAdherenceRate(round(overallRate))
-                                .daysMetGoals(daysMetAllGoals)
+                                .daysMetGoals(days.metGoalsCount())
                                 .build();
         }
 
-        private MonthlyStatsResponse.NutritionTrends calculateMonthlyTrends(
-                        List<MonthlyStatsResponse.DailyBreakdown> dailyBreakdowns,
+        private MonthlyStatsResponse.NutritionTrends calculateMonthlyTrends(StatsAccumulator days,
                         MonthlyStatsResponse.NutritionGoals goals) {
 
-                if (dailyBreakdowns.size() < 2) {
+                if (days.count() < 2) {
                         return MonthlyStatsResponse.NutritionTrends.builder()
                                         .caloriesTrend("STABLE")
                                         .proteinTrend("STABLE")
@@ -651,31 +596,13 @@ public class StatsService {
                                         .build();
                 }
 
-                // Calculate trends (simple linear trend)
-                String caloriesTrend = calculateTrend(dailyBreakdowns,
-                                MonthlyStatsResponse.DailyBreakdown::getCalories);
-                String proteinTrend = calculateTrend(dailyBreakdowns, MonthlyStatsResponse.DailyBreakdown::getProtein);
-                String carbsTrend = calculateTrend(dailyBreakdowns,
-                                MonthlyStatsResponse.DailyBreakdown::getCarbohydrates);
-                String fatTrend = calculateTrend(dailyBreakdowns, MonthlyStatsResponse.DailyBreakdown::getFat);
-
                 // Calculate average calorie deficit
-                double avgCalories = dailyBreakdowns.stream()
-                                .mapToDouble(MonthlyStatsResponse.DailyBreakdown::getCalories).average().orElse(0.0);
-                double avgDeficit = goals.getDailyCalories() - avgCalories;
+                double avgDeficit = goals.getDailyCalories() - days.mean(StatsAccumulator.CALORIES);
 
                 // Calculate macro distribution
-                double avgProtein = dailyBreakdowns.stream()
-                                .mapToDouble(MonthlyStatsResponse.DailyBreakdown::getProtein).average().orElse(0.0);
-                double avgCarbs = dailyBreakdowns.stream()
-                                .mapToDouble(MonthlyStatsResponse.DailyBreakdown::getCarbohydrates).average()
-                                .orElse(0.0);
-                double avgFat = dailyBreakdowns.stream()
-                                .mapToDouble(MonthlyStatsResponse.DailyBreakdown::getFat).average().orElse(0.0);
-
-                double proteinCals = avgProtein * 4;
-                double carbsCals = avgCarbs * 4;
-                double fatCals = avgFat * 9;
+                double proteinCals = days.mean(StatsAccumulator.PROTEIN) * 4;
+                double carbsCals = days.mean(StatsAccumulator.CARBS) * 4;
+                double fatCals = days.mean(StatsAccumulator.FAT) * 9;
                 double totalCals = proteinCals + carbsCals + fatCals;
 
                 MonthlyStatsResponse.MacroDistribution macroDistribution = MonthlyStatsResponse.MacroDistribution
@@ -685,25 +612,24 @@ public class StatsService {
                                 .fatPercentage(totalCals > 0 ? round((fatCals / totalCals) * 100) : 0.0)
                                 .build();
 
+                // Trends are the linear regression slopes accumulated per day
                 return MonthlyStatsResponse.NutritionTrends.builder()
-                                .caloriesTrend(caloriesTrend)
-                                .proteinTrend(proteinTrend)
-                                .carbsTrend(carbsTrend)
-                                .fatTrend(fatTrend)
+                                .caloriesTrend(days.trend(StatsAccumulator.CALORIES))
+                                .proteinTrend(days.trend(StatsAccumulator.PROTEIN))
+                                .carbsTrend(days.trend(StatsAccumulator.CARBS))
+                                .fatTrend(days.trend(StatsAccumulator.FAT))
                                 .averageCalorieDeficit(round(avgDeficit))
                                 .macroDistribution(macroDistribution)
                                 .build();
         }
 
-        private MonthlyStatsResponse.DaySummary findBestDay(List<MonthlyStatsResponse.DailyBreakdown> dailyBreakdowns) {
+        private MonthlyStatsResponse.DaySummary findBestDay(List<MonthlyStatsResponse.DailyBreakdown> dailyBreakdowns,
+                        StatsAccumulator days) {
                 if (dailyBreakdowns.isEmpty()) {
                         return null;
                 }
 
-                MonthlyStatsResponse.DailyBreakdown best = dailyBreakdowns.stream()
-                                .filter(MonthlyStatsResponse.DailyBreakdown::getMetGoals)
-                                .max(Comparator.comparingInt(MonthlyStatsResponse.DailyBreakdown::getMealsCount))
-                                .orElse(dailyBreakdowns.get(0));
+                MonthlyStatsResponse.DailyBreakdown best = dailyBreakdowns.get(days.bestRow());
 
                 return MonthlyStatsResponse.DaySummary.builder()
                                 .date(best.getDate())
@@ -714,14 +640,12 @@ public class StatsService {
         }
 
         private MonthlyStatsResponse.DaySummary findWorstDay(
-                        List<MonthlyStatsResponse.DailyBreakdown> dailyBreakdowns) {
+                        List<MonthlyStatsResponse.DailyBreakdown> dailyBreakdowns, StatsAccumulator days) {
                 if (dailyBreakdowns.isEmpty()) {
                         return null;
                 }
 
-                MonthlyStatsResponse.DailyBreakdown worst = dailyBreakdowns.stream()
-                                .min(Comparator.comparingInt(MonthlyStatsResponse.DailyBreakdown::getMealsCount))
-                                .orElse(dailyBreakdowns.get(dailyBreakdowns.size() - 1));
+                MonthlyStatsResponse.DailyBreakdown worst = dailyBreakdowns.get(days.fewestMealsRow());
 
                 return MonthlyStatsResponse.DaySummary.builder()
                                 .date(worst.getDate())
@@ -733,7 +657,7 @@ public class StatsService {
 
         // ==================== Helper Methods for Yearly Stats ====================
 
-        private YearlyStatsResponse.NutritionGoals buildYearlyGoals(UserProfileResponse userProfile) {
+        static YearlyStatsResponse.NutritionGoals buildYearlyGoals(UserProfileResponse userProfile) {
                 if (userProfile.getNutritionGoals() == null) {
                         return YearlyStatsResponse.NutritionGoals.builder()
                                         .dailyCalories(2000.0)
@@ -752,132 +676,61 @@ public class StatsService {
                                 .build();
         }
 
-        private YearlyStatsResponse.MonthlyBreakdown buildMonthlyBreakdown(
-                        YearMonth yearMonth, List<MealImage> monthMeals, YearlyStatsResponse.NutritionGoals goals) {
-
-                Map<LocalDate, List<MealImage>> mealsByDate = monthMeals.stream()
-                                .collect(Collectors.groupingBy(meal -> meal.getUploadedAt().toLocalDate()));
-
-                int daysLogged = mealsByDate.size();
-
-                double totalCalories = 0, totalProtein = 0, totalCarbs = 0, totalFat = 0;
-                for (MealImage meal : monthMeals) {
-                        if (meal.getNutritionSummary() != null) {
-                                MealImage.NutritionSummary summary = meal.getNutritionSummary();
-                                totalCalories += summary.getTotalCalories() != null ? summary.getTotalCalories() : 0;
-                                totalProtein += summary.getTotalProtein() != null ? summary.getTotalProtein() : 0;
-                                totalCarbs += summary.getTotalCarbohydrates() != null ? summary.getTotalCarbohydrates()
-                                                : 0;
-                                totalFat += summary.getTotalFat() != null ? summary.getTotalFat() : 0;
-                        }
-                }
-
-                double avgCalories = daysLogged > 0 ? totalCalories / daysLogged : 0;
-                double avgProtein = daysLogged > 0 ? totalProtein / daysLogged : 0;
-                double avgCarbs = daysLogged > 0 ? totalCarbs / daysLogged : 0;
-                double avgFat = daysLogged > 0 ? totalFat / daysLogged : 0;
-
-                // Calculate adherence for this month
-                long daysMetGoals = mealsByDate.entrySet().stream()
-                                .filter(entry -> {
-                                        double dayCalories = entry.getValue().stream()
-                                                        .mapToDouble(m -> m.getNutritionSummary() != null
-                                                                        ? m.getNutritionSummary().getTotalCalories()
-                                                                        : 0)
-                                                        .sum();
-                                        return isWithinGoalRange(dayCalories, goals.getDailyCalories(), 0.1);
-                                })
-                                .count();
-
-                double adherenceRate = daysLogged > 0 ? (daysMetGoals * 100.0) / daysLogged : 0.0;
+        private YearlyStatsResponse.MonthlyBreakdown buildMonthlyBreakdown(YearMonth yearMonth,
+                        StatsAccumulator month) {
 
+                // Adherence for this month: share of days within the calorie goal
                 return YearlyStatsResponse.MonthlyBreakdown.builder()
                                 .month(yearMonth.toString())
-                                .mealsCount(monthMeals.size())
-                                .daysLogged(daysLogged)
-                                .averageCalories(round(avgCalories))
-                                .averageProtein(round(avgProtein))
-                                .averageCarbs(round(avgCarbs))
-                                .averageFat(round(avgFat))
-                                .adherenceRate(round(adherenceRate))
+                                .mealsCount(month.mealCount())
+                                .daysLogged(month.count())
+                                .averageCalories(round(month.mean(StatsAccumulator.CALORIES)))
+                                .averageProtein(round(month.mean(StatsAccumulator.PROTEIN)))
+                                .averageCarbs(round(month.mean(StatsAccumulator.CARBS)))
+                                .averageFat(round(month.mean(StatsAccumulator.FAT)))
+                                .adherenceRate(round(month.withinGoalRate(StatsAccumulator.CALORIES)))
                                 .build();
         }
 
-        private YearlyStatsResponse.AverageNutrition calculateYearlyAverageNutrition(
-                        List<YearlyStatsResponse.MonthlyBreakdown> monthlyBreakdowns) {
+        private YearlyStatsResponse.AverageNutrition calculateYearlyAverageNutrition(StatsAccumulator months) {
 
-                if (monthlyBreakdowns.isEmpty()) {
+                if (months.isEmpty()) {
                         return YearlyStatsResponse.AverageNutrition.builder()
                                         .calories(0.0).protein(0.0).carbohydrates(0.0)
                                         .fat(0.0).fiber(0.0).sugar(0.0).build();
                 }
 
-                double avgCalories = monthlyBreakdowns.stream()
-                                .mapToDouble(YearlyStatsResponse.MonthlyBreakdown::getAverageCalories).average()
-                                .orElse(0.0);
-                double avgProtein = monthlyBreakdowns.stream()
-                                .mapToDouble(YearlyStatsResponse.MonthlyBreakdown::getAverageProtein).average()
-                                .orElse(0.0);
-                double avgCarbs = monthlyBreakdowns.stream()
-                                .mapToDouble(YearlyStatsResponse.MonthlyBreakdown::getAverageCarbs).average()
-                                .orElse(0.0);
-                double avgFat = monthlyBreakdowns.stream()
-                                .mapToDouble(YearlyStatsResponse.MonthlyBreakdown::getAverageFat).average().orElse(0.0);
-
                 return YearlyStatsResponse.AverageNutrition.builder()
-                                .calories(round(avgCalories))
-                                .protein(round(avgProtein))
-                                .carbohydrates(round(avgCarbs))
-                                .fat(round(avgFat))
+                                .calories(round(months.mean(StatsAccumulator.CALORIES)))
+                                .protein(round(months.mean(StatsAccumulator.PROTEIN)))
+                                .carbohydrates(round(months.mean(StatsAccumulator.CARBS)))
+                                .fat(round(months.mean(StatsAccumulator.FAT)))
                                 .fiber(0.0)
                                 .sugar(0.0)
                                 .build();
         }
 
-        private YearlyStatsResponse.TotalNutrition calculateYearlyTotalNutrition(List<MealImage> meals) {
-                double totalCalories = 0, totalProtein = 0, totalCarbs = 0, totalFat = 0, totalFiber = 0,
-                                totalSugar = 0;
-
-                for (MealImage meal : meals) {
-                        if (meal.getNutritionSummary() != null) {
-                                MealImage.NutritionSummary summary = meal.getNutritionSummary();
-                                totalCalories += summary.getTotalCalories() != null ? summary.getTotalCalories() : 0;
-                                totalProtein += summary.getTotalProtein() != null ? summary.getTotalProtein() : 0;
-                                totalCarbs += summary.getTotalCarbohydrates() != null ? summary.getTotalCarbohydrates()
-                                                : 0;
-                                totalFat += summary.getTotalFat() != null ? summary.getTotalFat() : 0;
-                                totalFiber += summary.getTotalFiber() != null ? summary.getTotalFiber() : 0;
-                                totalSugar += summary.getTotalSugar() != null ? summary.getTotalSugar() : 0;
-                        }
-                }
-
+        private YearlyStatsResponse.TotalNutrition calculateYearlyTotalNutrition(StatsAccumulator totals) {
                 return YearlyStatsResponse.TotalNutrition.builder()
-                                .calories(round(totalCalories))
-                                .protein(round(totalProtein))
-                                .carbohydrates(round(totalCarbs))
-                                .fat(round(totalFat))
-                                .fiber(round(totalFiber))
-                                .sugar(round(totalSugar))
+                                .calories(round(totals.sum(StatsAccumulator.CALORIES)))
+                                .protein(round(totals.sum(StatsAccumulator.PROTEIN)))
+                                .carbohydrates(round(totals.sum(StatsAccumulator.CARBS)))
+                                .fat(round(totals.sum(StatsAccumulator.FAT)))
+                                .fiber(round(totals.sum(StatsAccumulator.FIBER)))
+                                .sugar(round(totals.sum(StatsAccumulator.SUGAR)))
                                 .build();
         }
 
-        private YearlyStatsResponse.GoalAdherence calculateYearlyGoalAdherence(
-                        List<YearlyStatsResponse.MonthlyBreakdown> monthlyBreakdowns) {
+        private YearlyStatsResponse.GoalAdherence calculateYearlyGoalAdherence(StatsAccumulator months) {
 
-                if (monthlyBreakdowns.isEmpty()) {
+                if (months.isEmpty()) {
                         return YearlyStatsResponse.GoalAdherence.builder()
                                         .caloriesAdherenceRate(0.0).proteinAdherenceRate(0.0)
                                         .carbsAdherenceRate(0.0).fatAdherenceRate(0.0)
                                         .overallAdherenceRate(0.0).monthsMetGoals(0).build();
                 }
 
-                double avgAdherence = monthlyBreakdowns.stream()
-                                .mapToDouble(YearlyStatsResponse.MonthlyBreakdown::getAdherenceRate)
-                                .average().orElse(0.0);
-
-                int monthsMetGoals = (int) monthlyBreakdowns.stream()
-                                .filter(month -> month.getAdherenceRate() >= 70.0)
-                                .count();
+                double avgAdherence = months.mean(StatsAccumulator.ADHERENCE);
 
                 return YearlyStatsResponse.GoalAdherence.builder()
                                 .caloriesAdherenceRate(round(avgAdherence))
@@ -885,15 +738,15 @@ public class StatsService {
                                 .carbsAdherenceRate(round(avgAdherence))
                                 .fatAdherenceRate(round(avgAdherence))
                                 .overallAdherenceRate(round(avgAdherence))
-                                .monthsMetGoals(monthsMetGoals)
+                                .monthsMetGoals(months.adherenceMetCount())
                                 .build();
         }
 
         private YearlyStatsResponse.YearlyTrends calculateYearlyTrends(
-                        List<YearlyStatsResponse.MonthlyBreakdown> monthlyBreakdowns,
+                        List<YearlyStatsResponse.MonthlyBreakdown> monthlyBreakdowns, StatsAccumulator months,
                         YearlyStatsResponse.NutritionGoals goals) {
 
-                if (monthlyBreakdowns.isEmpty()) {
+                if (months.isEmpty()) {
                         return YearlyStatsResponse.YearlyTrends.builder()
                                         .overallTrend("STABLE")
                                         .caloriesTrend("STABLE")
@@ -909,39 +762,13 @@ public class StatsService {
                                         .build();
                 }
 
-                // Calculate trends
-                String caloriesTrend = calculateTrend(monthlyBreakdowns,
-                                YearlyStatsResponse.MonthlyBreakdown::getAverageCalories);
-                String proteinTrend = calculateTrend(monthlyBreakdowns,
-                                YearlyStatsResponse.MonthlyBreakdown::getAverageProtein);
-                String carbsTrend = calculateTrend(monthlyBreakdowns,
-                                YearlyStatsResponse.MonthlyBreakdown::getAverageCarbs);
-                String fatTrend = calculateTrend(monthlyBreakdowns,
-                                YearlyStatsResponse.MonthlyBreakdown::getAverageFat);
-
-                // Overall trend based on adherence
-                String overallTrend = calculateTrend(monthlyBreakdowns,
-                                YearlyStatsResponse.MonthlyBreakdown::getAdherenceRate);
-
                 // Calculate average calorie deficit
-                double avgCalories = monthlyBreakdowns.stream()
-                                .mapToDouble(YearlyStatsResponse.MonthlyBreakdown::getAverageCalories).average()
-                                .orElse(0.0);
-                double avgDeficit = goals.getDailyCalories() - avgCalories;
+                double avgDeficit = goals.getDailyCalories() - months.mean(StatsAccumulator.CALORIES);
 
                 // Calculate macro distribution
-                double avgProtein = monthlyBreakdowns.stream()
-                                .mapToDouble(YearlyStatsResponse.MonthlyBreakdown::getAverageProtein).average()
-                                .orElse(0.0);
-                double avgCarbs = monthlyBreakdowns.stream()
-                                .mapToDouble(YearlyStatsResponse.MonthlyBreakdown::getAverageCarbs).average()
-                                .orElse(0.0);
-                double avgFat = monthlyBreakdowns.stream()
-                                .mapToDouble(YearlyStatsResponse.MonthlyBreakdown::getAverageFat).average().orElse(0.0);
-
-                double proteinCals = avgProtein * 4;
-                double carbsCals = avgCarbs * 4;
-                double fatCals = avgFat * 9;
+                double proteinCals = months.mean(StatsAccumulator.PROTEIN) * 4;
+                double carbsCals = months.mean(StatsAccumulator.CARBS) * 4;
+                double fatCals = months.mean(StatsAccumulator.FAT) * 9;
                 double totalCals = proteinCals + carbsCals + fatCals;
 
                 YearlyStatsResponse.MacroDistribution macroDistribution = YearlyStatsResponse.MacroDistribution
@@ -951,36 +778,27 @@ public class StatsService {
                                 .fatPercentage(totalCals > 0 ? round((fatCals / totalCals) * 100) : 0.0)
                                 .build();
 
-                // Find most and least consistent months
-                YearlyStatsResponse.MonthlyBreakdown mostConsistent = monthlyBreakdowns.stream()
-                                .max(Comparator.comparingDouble(YearlyStatsResponse.MonthlyBreakdown::getAdherenceRate))
-                                .orElse(null);
-                YearlyStatsResponse.MonthlyBreakdown leastConsistent = monthlyBreakdowns.stream()
-                                .min(Comparator.comparingDouble(YearlyStatsResponse.MonthlyBreakdown::getAdherenceRate))
-                                .orElse(null);
-
+                // Most and least consistent months by adherence rate; overall trend follows adherence
                 return YearlyStatsResponse.YearlyTrends.builder()
-                                .overallTrend(overallTrend)
-                                .caloriesTrend(caloriesTrend)
-                                .proteinTrend(proteinTrend)
-                                .carbsTrend(carbsTrend)
-                                .fatTrend(fatTrend)
+                                .overallTrend(months.trend(StatsAccumulator.ADHERENCE))
+                                .caloriesTrend(months.trend(StatsAccumulator.CALORIES))
+                                .proteinTrend(months.trend(StatsAccumulator.PROTEIN))
+                                .carbsTrend(months.trend(StatsAccumulator.CARBS))
+                                .fatTrend(months.trend(StatsAccumulator.FAT))
                                 .averageCalorieDeficit(round(avgDeficit))
                                 .macroDistribution(macroDistribution)
-                                .mostConsistentMonth(mostConsistent != null ? mostConsistent.getMonth() : null)
-                                .leastConsistentMonth(leastConsistent != null ? leastConsistent.getMonth() : null)
+                                .mostConsistentMonth(monthlyBreakdowns.get(months.maxAdherenceRow()).getMonth())
+                                .leastConsistentMonth(monthlyBreakdowns.get(months.minAdherenceRow()).getMonth())
                                 .build();
         }
 
         private YearlyStatsResponse.MonthSummary findBestMonth(
-                        List<YearlyStatsResponse.MonthlyBreakdown> monthlyBreakdowns) {
+                        List<YearlyStatsResponse.MonthlyBreakdown> monthlyBreakdowns, StatsAccumulator months) {
                 if (monthlyBreakdowns.isEmpty()) {
                         return null;
                 }
 
-                YearlyStatsResponse.MonthlyBreakdown best = monthlyBreakdowns.stream()
-                                .max(Comparator.comparingDouble(YearlyStatsResponse.MonthlyBreakdown::getAdherenceRate))
-                                .orElse(monthlyBreakdowns.get(0));
+                YearlyStatsResponse.MonthlyBreakdown best = monthlyBreakdowns.get(months.maxAdherenceRow());
 
                 return YearlyStatsResponse.MonthSummary.builder()
                                 .month(best.getMonth())
@@ -991,14 +809,12 @@ public class StatsService {
         }
 
         private YearlyStatsResponse.MonthSummary findWorstMonth(
-                        List<YearlyStatsResponse.MonthlyBreakdown> monthlyBreakdowns) {
+                        List<YearlyStatsResponse.MonthlyBreakdown> monthlyBreakdowns, StatsAccumulator months) {
                 if (monthlyBreakdowns.isEmpty()) {
                         return null;
                 }
 
-                YearlyStatsResponse.MonthlyBreakdown worst = monthlyBreakdowns.stream()
-                                .min(Comparator.comparingDouble(YearlyStatsResponse.MonthlyBreakdown::getAdherenceRate))
-                                .orElse(monthlyBreakdowns.get(monthlyBreakdowns.size() - 1));
+                YearlyStatsResponse.MonthlyBreakdown worst = monthlyBreakdowns.get(months.minAdherenceRow());
 
                 return YearlyStatsResponse.MonthSummary.builder()
                                 .month(worst.getMonth())
@@ -1008,94 +824,44 @@ public class StatsService {
                                 .build();
         }
 
-        private YearlyStatsResponse.SeasonalPatterns calculateSeasonalPatterns(
-                        Map<YearMonth, List<MealImage>> mealsByMonth) {
-
-                Map<String, List<MealImage>> seasonalMeals = new HashMap<>();
-                seasonalMeals.put("winter", new ArrayList<>());
-                seasonalMeals.put("spring", new ArrayList<>());
-                seasonalMeals.put("summer", new ArrayList<>());
-                seasonalMeals.put("autumn", new ArrayList<>());
-
-                for (Map.Entry<YearMonth, List<MealImage>> entry : mealsByMonth.entrySet()) {
-                        int month = entry.getKey().getMonthValue();
-                        String season = getSeason(month);
-                        seasonalMeals.get(season).addAll(entry.getValue());
-                }
-
+        private YearlyStatsResponse.SeasonalPatterns calculateSeasonalPatterns(Map<String, StatsAccumulator> seasons) {
                 return YearlyStatsResponse.SeasonalPatterns.builder()
-                                .winter(calculateSeasonStats(seasonalMeals.get("winter")))
-                                .spring(calculateSeasonStats(seasonalMeals.get("spring")))
-                                .summer(calculateSeasonStats(seasonalMeals.get("summer")))
-                                .autumn(calculateSeasonStats(seasonalMeals.get("autumn")))
+                                .winter(calculateSeasonStats(seasons.get("winter")))
+                                .spring(calculateSeasonStats(seasons.get("spring")))
+                                .summer(calculateSeasonStats(seasons.get("summer")))
+                                .autumn(calculateSeasonStats(seasons.get("autumn")))
                                 .build();
         }
 
-        private YearlyStatsResponse.SeasonStats calculateSeasonStats(List<MealImage> meals) {
-                if (meals.isEmpty()) {
+        private YearlyStatsResponse.SeasonStats calculateSeasonStats(StatsAccumulator season) {
+                if (season == null || season.isEmpty()) {
                         return YearlyStatsResponse.SeasonStats.builder()
                                         .averageCalories(0.0).averageProtein(0.0)
                                         .averageCarbs(0.0).averageFat(0.0).totalMeals(0).build();
                 }
 
-                Map<LocalDate, List<MealImage>> mealsByDate = meals.stream()
-                                .collect(Collectors.groupingBy(meal -> meal.getUploadedAt().toLocalDate()));
-
-                double totalCalories = 0, totalProtein = 0, totalCarbs = 0, totalFat = 0;
-                for (MealImage meal : meals) {
-                        if (meal.getNutritionSummary() != null) {
-                                MealImage.NutritionSummary summary = meal.getNutritionSummary();
-                                totalCalories += summary.getTotalCalories() != null ? summary.getTotalCalories() : 0;
-                                totalProtein += summary.getTotalProtein() != null ? summary.getTotalProtein() : 0;
-                                totalCarbs += summary.getTotalCarbohydrates() != null ? summary.getTotalCarbohydrates()
-                                                : 0;
-                                totalFat += summary.getTotalFat() != null ? summary.getTotalFat() : 0;
-                        }
-                }
-
-                int daysLogged = mealsByDate.size();
                 return YearlyStatsResponse.SeasonStats.builder()
-                                .averageCalories(daysLogged > 0 ? round(totalCalories / daysLogged) : 0.0)
-                                .averageProtein(daysLogged > 0 ? round(totalProtein / daysLogged) : 0.0)
-                                .averageCarbs(daysLogged > 0 ? round(totalCarbs / daysLogged) : 0.0)
-                                .averageFat(daysLogged > 0 ? round(totalFat / daysLogged) : 0.0)
-                                .totalMeals(meals.size())
+                                .averageCalories(round(season.mean(StatsAccumulator.CALORIES)))
+                                .averageProtein(round(season.mean(StatsAccumulator.PROTEIN)))
+                                .averageCarbs(round(season.mean(StatsAccumulator.CARBS)))
+                                .averageFat(round(season.mean(StatsAccumulator.FAT)))
+                                .totalMeals(season.mealCount())
                                 .build();
         }
 
         // ==================== Utility Methods ====================
 
-        private <T> String calculateTrend(List<T> items, java.util.function.ToDoubleFunction<T> valueExtractor) {
-                if (items.size() < 2) {
-                        return "STABLE";
-                }
-
-                List<Double> values = items.stream().map(valueExtractor::applyAsDouble).collect(Collectors.toList());
-
-                // Simple linear regression slope
-                int n = values.size();
-                double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
-
-                for (int i = 0; i < n; i++) {
-                        sumX += i;
-                        sumY += values.get(i);
-                        sumXY += i * values.get(i);
-                        sumX2 += i * i;
-                }
-
-                double slope = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
-
-                // Determine trend based on slope
-                if (slope > 5) {
-                        return "INCREASING";
-                } else if (slope < -5) {
-                        return "DECREASING";
-                } else {
-                        return "STABLE";
+        /**
+         * Per-day totals for logged days in the range, from the configured stats engine
+         */
+        private List<DailyNutritionRollup> loadDailyTotals(String userId, LocalDate startDate, LocalDate endDate) {
+                if ("aggregation".equalsIgnoreCase(statsEngine)) {
+                        return mealStatsAggregationService.aggregateDailyTotals(userId, startDate, endDate);
                 }
+                return dailyNutritionRollupService.getRollups(userId, startDate, endDate);
         }
 
-        private boolean isWithinGoalRange(double actual, double goal, double tolerance) {
+        private static boolean isWithinGoalRange(double actual, double goal, double tolerance) {
                 double lowerBound = goal * (1 - tolerance);
                 double upperBound = goal * (1 + tolerance);
                 return actual >= lowerBound && actual <= upperBound;
@@ -0,0 +1,35 @@
+package com.project.NutriTracker.service;
+
+import java.io.IOException;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Blob storage for meal and profile images.
+ *
+ * CloudStorageService stores them in Google Cloud Storage; LocalStorageService
+ * keeps them in a local directory for load testing without cloud credentials.
+ * Selected with app.storage.client (gcs or local).
+ */
+public interface StorageService {
+
+    /**
+     * Store an uploaded file under a folder (e.g. "meals", "profiles") and return its URL
+     */
+    String uploadFile(MultipartFile file, String folder) throws IOException;
+
+    /**
+     * Store bytes under a folder and return their URL
+     */
+    String uploadBytes(byte[] bytes, String folder, String contentType) throws IOException;
+
+    /**
+     * Contents of a file by the URL it was stored under
+     */
+    byte[] downloadFile(String fileUrl) throws IOException;
+
+    /**
+     * Delete a file by its URL; returns true if it existed
+     */
+    boolean deleteFile(String fileUrl);
+}
@@ -0,0 +1,281 @@
+package com.project.NutriTracker.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.project.NutriTracker.document.DailyNutritionRollup;
+import com.project.NutriTracker.document.UserStreak;
+import com.project.NutriTracker.dto.MonthlyStatsResponse;
+import com.project.NutriTracker.repository.DailyNutritionRollupRepository;
+import com.project.NutriTracker.repository.UserStreakRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains per-user streak state (latest run of goal-met days and the longest
+ * run before it) so streak reads are a single document lookup.
+ *
+ * Changes on or after the start of the current run are applied in place: the
+ * run extends, restarts, shrinks at either end or splits around a day that
+ * stopped meeting goals. Anything else (changes before the current run, the
+ * run emptying, changed goals) marks the state stale and queues an exact
+ * rebuild from the daily rollups on a background thread; reads never rebuild.
+ * Every write bumps the document version, so a rebuild that raced with a day
+ * change is never saved over it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StreakTrackerService {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserStreakRepository userStreakRepository;
+    private final DailyNutritionRollupRepository dailyNutritionRollupRepository;
+    private final UserService userService;
+
+    @Value("${app.stats.streak.rebuild-threads:2}")
+    private int rebuildThreads;
+
+    private ExecutorService rebuilder;
+
+    // Users with a queued or running rebuild; true if it must run again when done
+    private final Map<String, Boolean> pendingRebuilds = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        rebuilder = Executors.newFixedThreadPool(rebuildThreads,
+                Thread.ofPlatform().name("streak-rebuild-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Current streak state for a user, or null while it is missing, stale or
+     * computed against other goals; a rebuild is then queued in the background
+     */
+    public UserStreak getStreak(String userId) {
+        UserStreak state = userStreakRepository.findById(userId).orElse(null);
+        if (isCurrent(state, goals(userId))) {
+            return state;
+        }
+        scheduleRebuild(userId);
+        return null;
+    }
+
+    /**
+     * The daily totals of a day changed; called after the rollup for that day was written
+     */
+    public void onDayChanged(String userId, LocalDate date) {
+        try {
+            UserStreak state = userStreakRepository.findById(userId).orElse(null);
+            TrackedGoals goals = goals(userId);
+            if (!isCurrent(state, goals)) {
+                invalidate(userId); // Fences off any rebuild in progress
+                return;
+            }
+
+            DailyNutritionRollup rollup = dailyNutritionRollupRepository
+                    .findById(DailyNutritionRollup.idFor(userId, date)).orElse(null);
+            boolean met = rollup != null && rollup.getMealCount() > 0 && StatsService.metGoals(rollup, goals.goals());
+
+            switch (apply(state, date, met)) {
+                case UPDATED -> userStreakRepository.save(state);
+                case STALE -> invalidate(userId);
+                case UNCHANGED -> {
+                }
+            }
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Concurrent streak update for user: {}, rebuilding", userId);
+            invalidate(userId);
+        } catch (Exception e) {
+            log.error("Failed to update streak for user: {}", userId, e);
+            invalidate(userId);
+        }
+    }
+
+    /**
+     * Outcome of applying a day's change to the tracked state
+     */
+    enum Change {
+        UPDATED, UNCHANGED, STALE // STALE: state untouched, needs a rebuild
+    }
+
+    /**
+     * Apply one day's change in place where possible; state is only modified when UPDATED
+     */
+    static Change apply(UserStreak state, LocalDate date, boolean met) {
+        LocalDate runStart = state.getCurrentRunStart();
+        LocalDate runEnd = state.getCurrentRunEnd();
+
+        if (runEnd == null || date.isAfter(runEnd)) {
+            // After the last goal-met day, so no other met day lies between them
+            if (!met) {
+                return Change.UNCHANGED;
+            }
+            appendMetDay(state, date);
+            return Change.UPDATED;
+        }
+
+        if (date.isBefore(runStart)) {
+            // Might join, split or shorten an earlier run
+            return Change.STALE;
+        }
+
+        // Inside the current run
+        if (met) {
+            return Change.UNCHANGED;
+        }
+        if (runStart.equals(runEnd)) {
+            // The run is gone and the one before it is not tracked
+            return Change.STALE;
+        }
+        if (date.equals(runEnd)) {
+            state.setCurrentRunEnd(date.minusDays(1));
+        } else if (date.equals(runStart)) {
+            state.setCurrentRunStart(date.plusDays(1));
+        } else {
+            // Split: the part before the day becomes an earlier run
+            state.setCurrentRunEnd(date.minusDays(1));
+            closeCurrentRun(state);
+            state.setCurrentRunStart(date.plusDays(1));
+            state.setCurrentRunEnd(runEnd);
+        }
+        return Change.UPDATED;
+    }
+
+    /**
+     * Record a goal-met day after the current run: extend it if adjacent, else start a new one
+     */
+    static void appendMetDay(UserStreak state, LocalDate date) {
+        LocalDate runEnd = state.getCurrentRunEnd();
+        if (runEnd != null && runEnd.plusDays(1).equals(date)) {
+            state.setCurrentRunEnd(date);
+        } else {
+            closeCurrentRun(state);
+            state.setCurrentRunStart(date);
+            state.setCurrentRunEnd(date);
+        }
+    }
+
+    /**
+     * Fold the current run into the longest earlier run before a later one starts
+     */
+    private static void closeCurrentRun(UserStreak state) {
+        int prior = state.getPriorLongestRun() != null ? state.getPriorLongestRun() : 0;
+        if (state.currentRunLength() > prior) {
+            state.setPriorLongestRun(state.currentRunLength());
+            state.setPriorLongestRunStart(state.getCurrentRunStart());
+        }
+    }
+
+    /**
+     * Queue an exact rebuild; requests while one is queued or running make it run once more
+     */
+    private void scheduleRebuild(String userId) {
+        if (pendingRebuilds.put(userId, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            rebuilder.execute(() -> {
+                do {
+                    pendingRebuilds.put(userId, Boolean.FALSE);
+                    try {
+                        rebuild(userId);
+                    } catch (Exception e) {
+                        log.error("Failed to rebuild streak for user: {}", userId, e);
+                    }
+                } while (!pendingRebuilds.remove(userId, Boolean.FALSE));
+            });
+        } catch (Exception e) {
+            pendingRebuilds.remove(userId);
+            log.warn("Could not queue streak rebuild for user: {}", userId, e);
+        }
+    }
+
+    /**
+     * Recompute a user's streak state exactly from their daily rollups
+     */
+    private void rebuild(String userId) {
+        TrackedGoals goals = goals(userId);
+        UserStreak previous = userStreakRepository.findById(userId).orElse(null);
+        if (isCurrent(previous, goals)) {
+            return;
+        }
+
+        UserStreak state = new UserStreak();
+        state.setUserId(userId);
+        state.setPriorLongestRun(0);
+        state.setGoalsVersion(goals.version());
+        state.setRebuiltAt(LocalDateTime.now());
+        state.setVersion(previous != null ? previous.getVersion() : null);
+
+        Query query = new Query(Criteria.where("userId").is(userId)).with(Sort.by("date"));
+        query.fields().include("date", "mealCount", "totalCalories", "totalProtein", "totalCarbohydrates",
+                "totalFat");
+
+        try (Stream<DailyNutritionRollup> days = mongoTemplate.stream(query, DailyNutritionRollup.class)) {
+            days.filter(day -> day.getMealCount() > 0 && StatsService.metGoals(day, goals.goals()))
+                    .forEach(day -> appendMetDay(state, day.getDate()));
+        }
+
+        try {
+            userStreakRepository.save(state);
+        } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+            // A day changed during the rebuild and invalidated it, which queues another run
+            log.debug("Streak for user: {} changed during rebuild", userId);
+        }
+    }
+
+    private boolean isCurrent(UserStreak state, TrackedGoals goals) {
+        return state != null && state.getRebuiltAt() != null && state.getPriorLongestRun() != null
+                && Objects.equals(state.getGoalsVersion(), goals.version());
+    }
+
+    /**
+     * Mark the state stale and queue a rebuild; the version bump also fails any in-flight save
+     */
+    private void invalidate(String userId) {
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)),
+                    new Update().unset("rebuiltAt").inc("version", 1), UserStreak.class);
+        } catch (Exception e) {
+            log.error("Failed to invalidate streak for user: {}", userId, e);
+        }
+        scheduleRebuild(userId);
+    }
+
+    /**
+     * Goals with the version they were built from, derived together so they always match
+     */
+    private record TrackedGoals(String version, MonthlyStatsResponse.NutritionGoals goals) {
+    }
+
+    // Checked against the stored profile, so every node agrees on the version after a goal change
+    private TrackedGoals goals(String userId) {
+        return userService.getCurrentDerivedFromProfile(userId, "streakGoals",
+                profile -> new TrackedGoals(UserService.goalsVersion(profile),
+                        StatsService.buildMonthlyGoals(profile)));
+    }
+}
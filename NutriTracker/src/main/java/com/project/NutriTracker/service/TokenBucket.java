@@ -0,0 +1,64 @@
+package com.project.NutriTracker.service;
+
+/**
+ * Token bucket rate limiter: refills at a fixed rate up to a burst capacity.
+ *
+ * Callers reserve a token and then sleep for the returned time outside the
+ * lock, so waiting callers are served in reservation order and the bucket may
+ * go negative by the number of waiters.
+ */
+final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double tokensPerSecond, int burst) {
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000.0;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Take a token, returning how long to wait before using it, or -1 without
+     * taking one if that would be longer than maxWaitNanos
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        long wait = (long) Math.ceil((1 - tokens) / tokensPerNano);
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return wait;
+    }
+
+    /**
+     * Return a reserved token that was not used
+     */
+    synchronized void refund() {
+        refill();
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    /**
+     * Tokens available now; negative while callers are waiting
+     */
+    synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,186 @@
+package com.project.NutriTracker.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project.NutriTracker.document.User;
+import com.project.NutriTracker.dto.UserProfileResponse;
+import com.project.NutriTracker.repository.UserRepository;
+import com.project.NutriTracker.utils.ExpiringCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bounded cache of computed user profiles and the goal objects derived from them.
+ *
+ * Entries expire after the TTL or at local midnight, whichever is first, because
+ * age (and so BMR, TDEE and goals) depends on the current date. Cached objects are
+ * shared between requests and must not be mutated by callers.
+ *
+ * Updates replace the entry on the node that made them, so that node is never
+ * stale. Other nodes check an entry older than revalidate-after against the
+ * User document's updatedAt stamp (a projected point read) before serving it
+ * again, so a profile or goal change reaches them within revalidate-after.
+ * Profile edits are rare and a few minutes' lag on another node only delays
+ * derived goals, so the window is kept long enough that hits rarely touch Mongo.
+ * Callers that must see a change at once (cache versions keyed on the goals)
+ * use deriveCurrent, which checks the stamp on every call and refreshes the
+ * entry for everyone else when it is stale.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserProfileCache {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.users.profile-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.users.profile-cache.ttl:1h}")
+    private Duration ttl;
+
+    @Value("${app.users.profile-cache.revalidate-after:5m}")
+    private Duration revalidateAfter;
+
+    private ExpiringCache<String, Entry> entries;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter stale;
+    private Counter evictions;
+
+    private static final class Entry {
+        private final UserProfileResponse profile;
+        private volatile long checkedAtMillis = System.currentTimeMillis();
+        private final Map<String, Object> derived = new ConcurrentHashMap<>();
+
+        private Entry(UserProfileResponse profile) {
+            this.profile = profile;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        hits = counter("hit");
+        misses = counter("miss");
+        stale = counter("stale");
+        evictions = Counter.builder("user.profile.cache.evictions")
+                .description("Entries evicted from the user profile cache")
+                .register(meterRegistry);
+
+        this.entries = new ExpiringCache<>(maxEntries, evictions::increment);
+        meterRegistry.gauge("user.profile.cache.size", this, UserProfileCache::size);
+    }
+
+    /**
+     * Cached profile, loading and caching it on a miss
+     */
+    public UserProfileResponse get(String userId, Function<String, UserProfileResponse> loader) {
+        return entry(userId, loader, revalidateAfter.toMillis()).profile;
+    }
+
+    /**
+     * Object derived from the cached profile, built at most once per cached profile
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T derive(String userId, String key, Function<String, UserProfileResponse> loader,
+            Function<UserProfileResponse, T> builder) {
+        Entry entry = entry(userId, loader, revalidateAfter.toMillis());
+        return (T) entry.derived.computeIfAbsent(key, k -> builder.apply(entry.profile));
+    }
+
+    /**
+     * Like derive, but checks the cached profile against the stored stamp first, so
+     * the result reflects updates made on any node. Costs a projected point read.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T deriveCurrent(String userId, String key, Function<String, UserProfileResponse> loader,
+            Function<UserProfileResponse, T> builder) {
+        Entry entry = entry(userId, loader, 0);
+        return (T) entry.derived.computeIfAbsent(key, k -> builder.apply(entry.profile));
+    }
+
+    /**
+     * Replace a user's profile after an update, dropping everything derived from the old one
+     */
+    public void put(String userId, UserProfileResponse profile) {
+        entries.put(userId, new Entry(profile), expiresAt());
+    }
+
+    public void invalidate(String userId) {
+        entries.remove(userId);
+    }
+
+    private Entry entry(String userId, Function<String, UserProfileResponse> loader, long revalidateAfterMillis) {
+        Entry entry = entries.get(userId);
+        if (entry != null && isCurrent(userId, entry, revalidateAfterMillis)) {
+            hits.increment();
+            return entry;
+        }
+        if (entry != null) {
+            // Updated on another node since it was cached
+            stale.increment();
+        } else {
+            misses.increment();
+        }
+
+        // A concurrent load for the same user just does the work twice
+        Entry loaded = new Entry(loader.apply(userId));
+        entries.put(userId, loaded, expiresAt());
+        return loaded;
+    }
+
+    /**
+     * Whether the entry still matches the stored profile, checking the stamp at most once per revalidateAfterMillis
+     */
+    private boolean isCurrent(String userId, Entry entry, long revalidateAfterMillis) {
+        long now = System.currentTimeMillis();
+        if (now - entry.checkedAtMillis < revalidateAfterMillis) {
+            return true;
+        }
+        Optional<User> stored = userRepository.findUpdatedAtById(userId);
+        if (stored.isEmpty() || !Objects.equals(millis(stored.get().getUpdatedAt()),
+                millis(entry.profile.getUpdatedAt()))) {
+            return false;
+        }
+        entry.checkedAtMillis = now;
+        return true;
+    }
+
+    // Mongo stores dates at millisecond precision
+    private static LocalDateTime millis(LocalDateTime time) {
+        return time != null ? time.truncatedTo(ChronoUnit.MILLIS) : null;
+    }
+
+    private long expiresAt() {
+        ZoneId zone = ZoneId.systemDefault();
+        long midnight = LocalDate.now(zone).plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return Math.min(System.currentTimeMillis() + ttl.toMillis(), midnight);
+    }
+
+    private double size() {
+        return entries.size();
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("user.profile.cache.requests")
+                .description("User profile cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
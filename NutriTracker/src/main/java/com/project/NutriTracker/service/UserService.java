@@ -1,7 +1,11 @@
 package com.project.NutriTracker.service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Period;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
@@ -10,6 +14,7 @@ import com.project.NutriTracker.dto.UserProfileRequest;
 import com.project.NutriTracker.dto.UserProfileResponse;
 import com.project.NutriTracker.exception.ResourceNotFoundException;
 import com.project.NutriTracker.repository.UserRepository;
+import com.project.NutriTracker.security.AuthenticatedPrincipalCache;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,11 +25,45 @@ import lombok.extern.slf4j.Slf4j;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final AuthenticatedPrincipalCache principalCache;
+    private final UserProfileCache userProfileCache;
 
     /**
      * Get user profile by ID
      */
     public UserProfileResponse getUserProfile(String userId) {
+        return userProfileCache.get(userId, this::loadUserProfile);
+    }
+
+    /**
+     * Get a value derived from the user profile (e.g. stats goals), built once per cached profile
+     */
+    public <T> T getDerivedFromProfile(String userId, String key, Function<UserProfileResponse, T> builder) {
+        return userProfileCache.derive(userId, key, this::loadUserProfile, builder);
+    }
+
+    /**
+     * Like getDerivedFromProfile, but always checked against the stored profile, so
+     * updates made on other nodes are seen at once
+     */
+    public <T> T getCurrentDerivedFromProfile(String userId, String key, Function<UserProfileResponse, T> builder) {
+        return userProfileCache.deriveCurrent(userId, key, this::loadUserProfile, builder);
+    }
+
+    /**
+     * Identifies the goals derived from a profile: they only change with a profile
+     * update or with the user's age. Stable across nodes, as it uses stored values only.
+     */
+    public static String goalsVersion(UserProfileResponse profile) {
+        LocalDateTime updatedAt = profile.getUpdatedAt();
+        // Mongo stores dates at millisecond precision
+        String stamp = updatedAt != null
+                ? Long.toHexString(updatedAt.truncatedTo(ChronoUnit.MILLIS).toInstant(ZoneOffset.UTC).toEpochMilli())
+                : "0";
+        return stamp + "." + profile.getAge();
+    }
+
+    private UserProfileResponse loadUserProfile(String userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
@@ -62,9 +101,12 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        principalCache.invalidateUser(userId);
         log.info("Updated profile for user: {}", userId);
 
-        return buildUserProfileResponse(user);
+        UserProfileResponse profile = buildUserProfileResponse(user);
+        userProfileCache.put(userId, profile);
+        return profile;
     }
 
     /**
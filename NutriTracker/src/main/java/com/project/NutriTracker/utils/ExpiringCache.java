@@ -0,0 +1,129 @@
+package com.project.NutriTracker.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+
+/**
+ * Bounded cache whose entries each carry their own expiry time.
+ *
+ * Reads and writes are plain ConcurrentHashMap operations, so lookups never
+ * contend on a shared lock; expiry is checked on read. When the cache grows
+ * past maxEntries, one writer drops expired entries and then the least
+ * recently read until it is back under 90% of the bound, so that work is
+ * amortized over many inserts. Eviction order is approximate LRU.
+ */
+public final class ExpiringCache<K, V> {
+
+    private static final double TRIM_TO = 0.9;
+
+    private final int maxEntries;
+    private final Runnable onEviction;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock trimming = new ReentrantLock();
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+        private volatile long readAtNanos = System.nanoTime();
+
+        private Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private record Candidate<K, V>(K key, Entry<V> entry, long readAtNanos) {
+    }
+
+    public ExpiringCache(int maxEntries) {
+        this(maxEntries, () -> {
+        });
+    }
+
+    /**
+     * onEviction runs once for every entry dropped for age or size, not for explicit removals
+     */
+    public ExpiringCache(int maxEntries, Runnable onEviction) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.onEviction = onEviction;
+    }
+
+    /**
+     * The cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            if (entries.remove(key, entry)) {
+                onEviction.run();
+            }
+            return null;
+        }
+        entry.readAtNanos = System.nanoTime();
+        return entry.value;
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+        if (entries.size() > maxEntries) {
+            trim();
+        }
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove every entry matching the predicate; a full scan, for rare invalidations
+     */
+    public void removeIf(BiPredicate<K, V> predicate) {
+        entries.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void trim() {
+        // Other writers carry on while one thread trims
+        if (!trimming.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            entries.entrySet().removeIf(e -> {
+                boolean expired = e.getValue().expiresAtMillis <= now;
+                if (expired) {
+                    onEviction.run();
+                }
+                return expired;
+            });
+
+            int excess = entries.size() - (int) (maxEntries * TRIM_TO);
+            if (excess <= 0) {
+                return;
+            }
+            // Read times are snapshotted so concurrent reads can't reorder the sort
+            List<Candidate<K, V>> byRead = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> byRead.add(new Candidate<>(key, entry, entry.readAtNanos)));
+            byRead.sort(Comparator.comparingLong(Candidate::readAtNanos));
+            for (int i = 0; i < excess && i < byRead.size(); i++) {
+                Candidate<K, V> eldest = byRead.get(i);
+                if (entries.remove(eldest.key(), eldest.entry())) {
+                    onEviction.run();
+                }
+            }
+        } finally {
+            trimming.unlock();
+        }
+    }
+}
@@ -2,12 +2,16 @@ package com.project.NutriTracker.utils;
 
 import java.util.Date;
 
+import javax.crypto.SecretKey;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtUtil {
@@ -18,34 +22,40 @@ public class JwtUtil {
     @Value("${app.jwt.expiration}")
     private String expiration;
 
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     public String generateToken(String userId) {
         return Jwts.builder()
                 .subject(userId)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + Long.parseLong(expiration)))
-                .signWith(getSigninKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    private javax.crypto.SecretKey getSigninKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    /**
+     * Verify the signature and expiry once and return the claims.
+     * Throws a JwtException if the token is invalid or expired.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String getUserIdFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigninKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigninKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -54,12 +64,7 @@ public class JwtUtil {
 
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigninKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return claims.getExpiration().before(new Date());
+            return parseClaims(token).getExpiration().before(new Date());
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,63 @@
+package com.project.NutriTracker.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import com.project.NutriTracker.document.User;
+import com.project.NutriTracker.dto.MealHistoryPageResponse;
+import com.project.NutriTracker.service.MealImageService;
+import com.project.NutriTracker.service.MealStatusStreamService;
+import com.project.NutriTracker.service.NutritionDatabaseService;
+
+@ExtendWith(MockitoExtension.class)
+class MealImageControllerTest {
+
+    @Mock
+    private MealImageService mealImageService;
+    @Mock
+    private NutritionDatabaseService nutritionDatabaseService;
+    @Mock
+    private MealStatusStreamService mealStatusStreamService;
+
+    private Authentication authentication() {
+        User user = new User();
+        user.setId("user-1");
+        return new UsernamePasswordAuthenticationToken(user, null, List.of());
+    }
+
+    @Test
+    void malformedHistoryCursorIsABadRequest() {
+        when(mealImageService.getUserMealHistory("user-1", "garbage", 20))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+        MealImageController controller = new MealImageController(mealImageService, nutritionDatabaseService,
+                mealStatusStreamService);
+
+        ResponseEntity<?> response = controller.getUserMealImages("garbage", 20, authentication());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void historyPageIsReturnedAsIs() {
+        MealHistoryPageResponse page = MealHistoryPageResponse.builder().hasMore(false).build();
+        when(mealImageService.getUserMealHistory("user-1", null, 20)).thenReturn(page);
+        MealImageController controller = new MealImageController(mealImageService, nutritionDatabaseService,
+                mealStatusStreamService);
+
+        ResponseEntity<?> response = controller.getUserMealImages(null, 20, authentication());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+}
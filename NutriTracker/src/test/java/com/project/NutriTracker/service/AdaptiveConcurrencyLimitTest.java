@@ -0,0 +1,99 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    void admitsUpToTheLimitThenTimesOut() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+        assertTrue(limit.acquire(0));
+        assertTrue(limit.acquire(0));
+        assertFalse(limit.acquire(TimeUnit.MILLISECONDS.toNanos(10)));
+        assertEquals(2, limit.inFlight());
+    }
+
+    @Test
+    void successesRaiseTheLimitByOneOverLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+        // 2 -> 2.5 -> 2.9 -> 3.24
+        for (int i = 0; i < 2; i++) {
+            limit.acquire(0);
+            limit.release(true, false);
+        }
+        assertEquals(2, limit.limit());
+
+        limit.acquire(0);
+        limit.release(true, false);
+        assertEquals(3, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    void overloadCutsTheLimitOncePerInterval() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20);
+
+        limit.acquire(0);
+        limit.acquire(0);
+        limit.release(false, true);
+        assertEquals(7, limit.limit());
+
+        limit.release(false, true); // Same burst
+        assertEquals(7, limit.limit());
+    }
+
+    @Test
+    void failuresThatAreNotOverloadLeaveTheLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(5, 1, 10);
+
+        limit.acquire(0);
+        limit.release(false, false);
+
+        assertEquals(5, limit.limit());
+    }
+
+    @Test
+    void limitStaysWithinBounds() throws InterruptedException {
+        AdaptiveConcurrencyLimit atMax = new AdaptiveConcurrencyLimit(100, 1, 4);
+        assertEquals(4, atMax.limit());
+        atMax.acquire(0);
+        atMax.release(true, false);
+        assertEquals(4, atMax.limit());
+
+        AdaptiveConcurrencyLimit atMin = new AdaptiveConcurrencyLimit(1, 0, 4);
+        assertEquals(1, atMin.limit());
+        atMin.acquire(0);
+        atMin.release(false, true);
+        assertEquals(1, atMin.limit());
+    }
+
+    @Test
+    void releaseWakesAWaitingCaller() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 1);
+        limit.acquire(0);
+
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread waiter = Thread.ofPlatform().start(() -> {
+            try {
+                acquired.set(limit.acquire(TimeUnit.SECONDS.toNanos(10)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(20);
+        limit.release(true, false);
+        waiter.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertTrue(acquired.get());
+        assertEquals(1, limit.inFlight());
+    }
+}
@@ -0,0 +1,150 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.NutriTracker.service.CircuitBreaker.State;
+
+class CircuitBreakerTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final List<State> transitions = new ArrayList<>();
+
+    private CircuitBreaker breaker(int window, int minimumCalls, double failureRate, long openNanos) {
+        return new CircuitBreaker(window, minimumCalls, failureRate, openNanos, transitions::add);
+    }
+
+    /**
+     * A breaker that opened for a millisecond which has since passed
+     */
+    private CircuitBreaker openedBriefly() throws InterruptedException {
+        CircuitBreaker breaker = breaker(2, 2, 0.5, MILLI);
+        call(breaker, true);
+        call(breaker, true);
+        Thread.sleep(5);
+        assertEquals(0, breaker.openRemaining());
+        return breaker;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean fails) {
+        assertEquals(0, breaker.tryAcquire());
+        if (fails) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    @Test
+    void staysClosedUntilMinimumCalls() {
+        CircuitBreaker breaker = breaker(10, 4, 0.5, HOUR);
+
+        for (int i = 0; i < 3; i++) {
+            call(breaker, true);
+        }
+        assertEquals(State.CLOSED, breaker.state());
+
+        call(breaker, true);
+        assertEquals(State.OPEN, breaker.state());
+        assertEquals(List.of(State.OPEN), transitions);
+    }
+
+    @Test
+    void opensAtTheFailureRateInclusive() {
+        CircuitBreaker breaker = breaker(4, 4, 0.5, HOUR);
+        call(breaker, false);
+        call(breaker, true);
+        call(breaker, false);
+        assertEquals(State.CLOSED, breaker.state());
+
+        call(breaker, true);
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void windowForgetsOlderCalls() {
+        CircuitBreaker breaker = breaker(4, 4, 0.75, HOUR);
+        call(breaker, true);
+        call(breaker, true);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, false);
+        }
+        call(breaker, true);
+        call(breaker, true);
+        assertEquals(State.CLOSED, breaker.state()); // 2 of the last 4, not 4 of 8
+
+        call(breaker, true);
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void openBreakerRejectsUntilItsTimeIsUp() {
+        CircuitBreaker breaker = breaker(2, 2, 0.5, HOUR);
+        call(breaker, true);
+        call(breaker, true);
+
+        long rejectedFor = breaker.tryAcquire();
+        assertTrue(rejectedFor > HOUR - TimeUnit.SECONDS.toNanos(5) && rejectedFor <= HOUR);
+        assertTrue(breaker.openRemaining() > 0);
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThroughAndItsSuccessCloses() throws InterruptedException {
+        CircuitBreaker breaker = openedBriefly();
+
+        assertEquals(0, breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.state());
+        assertEquals(MILLI, breaker.tryAcquire()); // Only one trial at a time
+
+        breaker.onSuccess();
+        assertEquals(State.CLOSED, breaker.state());
+        assertEquals(List.of(State.OPEN, State.HALF_OPEN, State.CLOSED), transitions);
+
+        // The window starts empty again
+        call(breaker, true);
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void failedTrialOpensAgain() throws InterruptedException {
+        CircuitBreaker breaker = openedBriefly();
+
+        assertEquals(0, breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(List.of(State.OPEN, State.HALF_OPEN, State.OPEN), transitions);
+    }
+
+    @Test
+    void ignoredTrialFreesTheSlotWithoutClosing() throws InterruptedException {
+        CircuitBreaker breaker = openedBriefly();
+
+        assertEquals(0, breaker.tryAcquire());
+        breaker.onIgnored();
+
+        assertEquals(State.HALF_OPEN, breaker.state());
+        assertEquals(0, breaker.tryAcquire());
+    }
+
+    @Test
+    void ignoredOutcomesAreNotCounted() {
+        CircuitBreaker breaker = breaker(2, 2, 0.5, HOUR);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, breaker.tryAcquire());
+            breaker.onIgnored();
+        }
+        call(breaker, true);
+
+        assertEquals(State.CLOSED, breaker.state());
+    }
+}
@@ -0,0 +1,328 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.project.NutriTracker.document.DailyNutritionRollup;
+import com.project.NutriTracker.document.MealImage;
+import com.project.NutriTracker.document.MigrationMarker;
+import com.project.NutriTracker.repository.DailyNutritionRollupRepository;
+import com.project.NutriTracker.repository.MealImageRepository;
+import com.project.NutriTracker.repository.MealNutritionView;
+
+@ExtendWith(MockitoExtension.class)
+class DailyNutritionRollupServiceTest {
+
+    private static final String USER = "user-1";
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private DailyNutritionRollupRepository dailyNutritionRollupRepository;
+    @Mock
+    private MealImageRepository mealImageRepository;
+    @Mock
+    private StatsPeriodVersionService statsPeriodVersionService;
+    @Mock
+    private StreakTrackerService streakTrackerService;
+
+    @InjectMocks
+    private DailyNutritionRollupService rollupService;
+
+    private static MealImage.NutritionSummary summary(double calories, double protein) {
+        MealImage.NutritionSummary summary = new MealImage.NutritionSummary();
+        summary.setTotalCalories(calories);
+        summary.setTotalProtein(protein);
+        return summary;
+    }
+
+    private static MealImage meal(LocalDate date, MealImage.NutritionSummary summary) {
+        MealImage meal = new MealImage();
+        meal.setId("meal-1");
+        meal.setUserId(USER);
+        meal.setUploadedAt(date.atTime(13, 0));
+        meal.setStatus("ANALYZED");
+        meal.setNutritionSummary(summary);
+        return meal;
+    }
+
+    private static MealNutritionView view(String id, MealImage.NutritionSummary summary) {
+        MealNutritionView view = mock(MealNutritionView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getNutritionSummary()).thenReturn(summary);
+        return view;
+    }
+
+    private static DailyNutritionRollup stored(long revision) {
+        DailyNutritionRollup rollup = new DailyNutritionRollup();
+        rollup.setId(DailyNutritionRollup.idFor(USER, DAY));
+        rollup.setMealCount(1);
+        rollup.setRevision(revision);
+        return rollup;
+    }
+
+    private void dayHasMeals(MealNutritionView... meals) {
+        when(mealImageRepository.findNutritionByUserIdAndStatusAndUploadedAtBetween(
+                USER, "ANALYZED", DAY.atStartOfDay(), DAY.atTime(LocalTime.MAX)))
+                .thenReturn(List.of(meals));
+    }
+
+    private void updatesModify(long modified) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(DailyNutritionRollup.class)))
+                .thenReturn(UpdateResult.acknowledged(modified, modified, null));
+    }
+
+    @Test
+    void recordedMealIncrementsItsDayUnlessAlreadyCounted() {
+        rollupService.recordMeal(meal(DAY, summary(450, 20)));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(DailyNutritionRollup.class));
+        assertEquals(new Document("$ne", "meal-1"), query.getValue().getQueryObject().get("mealIds"));
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(1, inc.get("mealCount"));
+        assertEquals(450.0, inc.get("totalCalories"));
+        assertEquals(20.0, inc.get("totalProtein"));
+        assertEquals(0.0, inc.get("totalFat"));
+        assertEquals(1, inc.get("revision"));
+        assertEquals("meal-1", ((Document) update.getValue().getUpdateObject().get("$addToSet")).get("mealIds"));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(DailyNutritionRollup.class));
+        verify(statsPeriodVersionService).bump(USER, DAY);
+        verify(streakTrackerService).onDayChanged(USER, DAY);
+    }
+
+    @Test
+    void mealTheDayAlreadyCountsIsNotCountedAgain() {
+        // The day exists and lists the meal, so the upsert collides and the update matches nothing
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(DailyNutritionRollup.class)))
+                .thenThrow(new DuplicateKeyException("rollup exists"));
+        updatesModify(0);
+
+        rollupService.recordMeal(meal(DAY, summary(450, 20)));
+
+        verifyNoInteractions(statsPeriodVersionService, streakTrackerService);
+        verify(dailyNutritionRollupRepository, never()).findById(any());
+    }
+
+    @Test
+    void mealAddedToADayCreatedConcurrentlyIsCounted() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(DailyNutritionRollup.class)))
+                .thenThrow(new DuplicateKeyException("rollup exists"));
+        updatesModify(1);
+
+        rollupService.recordMeal(meal(DAY, summary(450, 20)));
+
+        verify(statsPeriodVersionService).bump(USER, DAY);
+    }
+
+    @Test
+    void removedMealDecrementsItsDayAndDropsEmptyDays() {
+        updatesModify(1);
+
+        rollupService.removeMeal(meal(DAY, summary(450, 20)));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(DailyNutritionRollup.class));
+        assertEquals("meal-1", query.getValue().getQueryObject().get("mealIds"));
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(-1, inc.get("mealCount"));
+        assertEquals(-450.0, inc.get("totalCalories"));
+        assertEquals(-20.0, inc.get("totalProtein"));
+        assertEquals("meal-1", ((Document) update.getValue().getUpdateObject().get("$pull")).get("mealIds"));
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(DailyNutritionRollup.class));
+        assertEquals(DailyNutritionRollup.idFor(USER, DAY), removed.getValue().getQueryObject().get("_id"));
+        assertNotNull(removed.getValue().getQueryObject().get("mealCount"));
+    }
+
+    @Test
+    void removingAMealTheDayDoesNotCountIsANoOp() {
+        updatesModify(0);
+
+        rollupService.removeMeal(meal(DAY, summary(450, 20)));
+
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(DailyNutritionRollup.class));
+        verifyNoInteractions(statsPeriodVersionService, streakTrackerService);
+    }
+
+    @Test
+    void mealWithoutSummaryStillCountsAsAMeal() {
+        rollupService.recordMeal(meal(DAY, null));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(DailyNutritionRollup.class));
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(1, inc.get("mealCount"));
+        assertEquals(0.0, inc.get("totalCalories"));
+    }
+
+    @Test
+    void mealsWithoutAnUploadTimeAreIgnored() {
+        MealImage meal = meal(DAY, summary(450, 20));
+        meal.setUploadedAt(null);
+
+        rollupService.recordMeal(meal);
+
+        verifyNoInteractions(mongoTemplate, statsPeriodVersionService, streakTrackerService);
+    }
+
+    @Test
+    void failedDeltaFallsBackToRebuildingTheDay() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(DailyNutritionRollup.class)))
+                .thenThrow(new RuntimeException("write failed"));
+        dayHasMeals(view("meal-1", summary(450, 20)));
+
+        rollupService.recordMeal(meal(DAY, summary(450, 20)));
+
+        ArgumentCaptor<DailyNutritionRollup> saved = ArgumentCaptor.forClass(DailyNutritionRollup.class);
+        verify(mongoTemplate).insert(saved.capture());
+        assertEquals(1, saved.getValue().getMealCount());
+        assertEquals(450.0, saved.getValue().getTotalCalories());
+        verify(statsPeriodVersionService).bump(USER, DAY);
+        verify(streakTrackerService).onDayChanged(USER, DAY);
+    }
+
+    @Test
+    void rebuildSumsTheDaysAnalyzedMeals() {
+        dayHasMeals(view("lunch", summary(450, 20)), view("dinner", summary(600, 35)), view("snack", null));
+
+        rollupService.rebuildDay(USER, DAY);
+
+        ArgumentCaptor<DailyNutritionRollup> saved = ArgumentCaptor.forClass(DailyNutritionRollup.class);
+        verify(mongoTemplate).insert(saved.capture());
+        DailyNutritionRollup rollup = saved.getValue();
+        assertEquals(DailyNutritionRollup.idFor(USER, DAY), rollup.getId());
+        assertEquals(DAY, rollup.getDate());
+        assertEquals(3, rollup.getMealCount());
+        assertEquals(List.of("lunch", "dinner", "snack"), rollup.getMealIds());
+        assertEquals(1050.0, rollup.getTotalCalories());
+        assertEquals(55.0, rollup.getTotalProtein());
+        assertEquals(1L, rollup.getRevision());
+    }
+
+    @Test
+    void rebuildOnlyReplacesTheRevisionItStartedFrom() {
+        when(dailyNutritionRollupRepository.findById(DailyNutritionRollup.idFor(USER, DAY)))
+                .thenReturn(Optional.of(stored(3)));
+        dayHasMeals(view("lunch", summary(450, 20)));
+        when(mongoTemplate.findAndReplace(any(Query.class), any(DailyNutritionRollup.class)))
+                .thenReturn(stored(3));
+
+        rollupService.rebuildDay(USER, DAY);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<DailyNutritionRollup> replacement = ArgumentCaptor.forClass(DailyNutritionRollup.class);
+        verify(mongoTemplate).findAndReplace(query.capture(), replacement.capture());
+        assertEquals(3L, query.getValue().getQueryObject().get("revision"));
+        assertEquals(4L, replacement.getValue().getRevision());
+        verify(statsPeriodVersionService).bump(USER, DAY);
+    }
+
+    @Test
+    void rebuildRetriesWhenAMealEventLandsDuringIt() {
+        // A meal was counted between reading the rollup and replacing it
+        when(dailyNutritionRollupRepository.findById(DailyNutritionRollup.idFor(USER, DAY)))
+                .thenReturn(Optional.of(stored(3)), Optional.of(stored(4)));
+        MealNutritionView lunch = view("lunch", summary(450, 20));
+        MealNutritionView dinner = view("dinner", summary(600, 35));
+        when(mealImageRepository.findNutritionByUserIdAndStatusAndUploadedAtBetween(
+                USER, "ANALYZED", DAY.atStartOfDay(), DAY.atTime(LocalTime.MAX)))
+                .thenReturn(List.of(lunch), List.of(lunch, dinner));
+        when(mongoTemplate.findAndReplace(any(Query.class), any(DailyNutritionRollup.class)))
+                .thenReturn(null, stored(4));
+
+        rollupService.rebuildDay(USER, DAY);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<DailyNutritionRollup> replacements = ArgumentCaptor.forClass(DailyNutritionRollup.class);
+        verify(mongoTemplate, times(2)).findAndReplace(queries.capture(), replacements.capture());
+        assertEquals(4L, queries.getAllValues().get(1).getQueryObject().get("revision"));
+        assertEquals(2, replacements.getAllValues().get(1).getMealCount());
+        verify(statsPeriodVersionService, times(1)).bump(USER, DAY);
+    }
+
+    @Test
+    void rebuildOfAnEmptyDayDeletesItsRollup() {
+        when(dailyNutritionRollupRepository.findById(DailyNutritionRollup.idFor(USER, DAY)))
+                .thenReturn(Optional.of(stored(3)));
+        dayHasMeals();
+        when(mongoTemplate.remove(any(Query.class), eq(DailyNutritionRollup.class)))
+                .thenReturn(DeleteResult.acknowledged(1));
+
+        rollupService.rebuildDay(USER, DAY);
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(DailyNutritionRollup.class));
+        assertEquals(3L, removed.getValue().getQueryObject().get("revision"));
+        verify(mongoTemplate, never()).insert(any(DailyNutritionRollup.class));
+        verify(statsPeriodVersionService).bump(USER, DAY);
+    }
+
+    @Test
+    void backfillRebuildsEachLoggedDayOnceAndMarksTheMigrationDone() {
+        LocalDate nextDay = DAY.plusDays(1);
+        MealImage undated = meal(DAY, null);
+        undated.setUploadedAt(null);
+        when(mongoTemplate.stream(any(Query.class), eq(MealImage.class))).thenReturn(Stream.of(
+                meal(DAY, null), meal(DAY, null), meal(nextDay, null), undated));
+        when(mealImageRepository.findNutritionByUserIdAndStatusAndUploadedAtBetween(
+                eq(USER), eq("ANALYZED"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        rollupService.backfillOnce();
+
+        verify(mealImageRepository, times(2)).findNutritionByUserIdAndStatusAndUploadedAtBetween(
+                eq(USER), eq("ANALYZED"), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(statsPeriodVersionService).bump(USER, DAY);
+        verify(statsPeriodVersionService).bump(USER, nextDay);
+
+        ArgumentCaptor<Update> completed = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), completed.capture(), eq(MigrationMarker.class));
+        assertNotNull(((Document) completed.getValue().getUpdateObject().get("$set")).get("completedAt"));
+    }
+
+    @Test
+    void backfillDoesNothingWhenTheMigrationIsDoneOrClaimed() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(MigrationMarker.class)))
+                .thenThrow(new DuplicateKeyException("migration already claimed"));
+
+        rollupService.backfillOnce();
+
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(MealImage.class));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(MigrationMarker.class));
+        verifyNoInteractions(mealImageRepository, statsPeriodVersionService);
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class FoodAliasAutomatonTest {
+
+    private final FoodAliasAutomaton aliases = FoodAliasAutomaton.load("food-aliases-test.csv");
+
+    @Test
+    void skipsCommentsBlankAndMalformedLines() {
+        assertEquals(5, aliases.size());
+    }
+
+    @Test
+    void findsKeywordAnywhereInTheName() {
+        assertEquals("His", aliases.resolve("this"));
+        assertEquals("He", aliases.resolve("the"));
+    }
+
+    @Test
+    void earlierKeywordWinsWhateverItsPosition() {
+        assertEquals("She", aliases.resolve("he said she"));
+        assertEquals("He", aliases.resolve("hers"));
+    }
+
+    @Test
+    void followsFailureLinksIntoOverlappingKeywords() {
+        // "ushers" contains she, he and hers; the walk must not lose "she" after "us"
+        assertEquals("She", aliases.resolve("ushers"));
+        // "hishe": "his" ends where "she" begins
+        assertEquals("She", aliases.resolve("hishe"));
+    }
+
+    @Test
+    void matchesCaseInsensitivelyIncludingNonAscii() {
+        assertEquals("His", aliases.resolve("THIS"));
+        assertEquals("Jalapeno pepper", aliases.resolve("Pickled JALAPEÑO slices"));
+    }
+
+    @Test
+    void returnsNullWithoutAMatch() {
+        assertNull(aliases.resolve("rice"));
+        assertNull(aliases.resolve(""));
+        assertNull(aliases.resolve(null));
+    }
+
+    @Test
+    void bundledAliasesResolveCommonNames() {
+        FoodAliasAutomaton bundled = FoodAliasAutomaton.load("food-aliases.csv");
+
+        assertEquals("Black gram dal", bundled.resolve("Urad Dal Tadka"));
+        assertEquals("Wheat flour", bundled.resolve("atta"));
+        assertNull(bundled.resolve("xyz"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.NutriTracker.document.FoodComposition;
+
+class FoodCompositionIndexTest {
+
+    private static FoodComposition food(String id, String name, String source) {
+        FoodComposition food = new FoodComposition();
+        food.setId(id);
+        food.setName(name);
+        food.setSource(source);
+        return food;
+    }
+
+    private static List<String> ids(List<FoodCompositionIndex.Match> matches) {
+        return matches.stream().map(match -> match.food().getId()).toList();
+    }
+
+    @Test
+    void exactLookupIgnoresCaseAndSurroundingSpaceAndKeepsTheFirstOccurrence() {
+        FoodComposition first = food("1", "Paneer", "INDB");
+        FoodCompositionIndex foods = FoodCompositionIndex.build(List.of(first, food("2", "PANEER", "IFCT2017")));
+
+        assertSame(first, foods.findExact("  paneer "));
+        assertNull(foods.findExact("paneer tikka"));
+        assertNull(foods.findExact(null));
+        assertEquals("2", foods.findById("2").getId());
+        assertNull(foods.findById(null));
+    }
+
+    @Test
+    void exactHeadBeatsLongerNamesSharingTheWord() {
+        FoodCompositionIndex foods = FoodCompositionIndex.build(List.of(
+                food("pudding", "Rice pudding", "INDB"),
+                food("raw", "Rice, raw, milled", "INDB")));
+
+        assertEquals("raw", foods.findBestMatch("rice").food().getId());
+    }
+
+    @Test
+    void baseIngredientsWinOverDishesWithTheSameName() {
+        FoodCompositionIndex foods = FoodCompositionIndex.build(List.of(
+                food("dish", "Spinach", "INDB"),
+                food("raw", "Spinach", "IFCT2017")));
+
+        List<FoodCompositionIndex.Match> matches = foods.findSimilar("spinach", 2);
+
+        assertEquals(List.of("raw", "dish"), ids(matches));
+        assertEquals(0.1, matches.get(0).score() - matches.get(1).score(), 1e-9);
+    }
+
+    @Test
+    void equalScoresKeepLoadOrder() {
+        FoodCompositionIndex foods = FoodCompositionIndex.build(List.of(
+                food("a", "Dal fry", "INDB"),
+                food("b", "Dal fry", "INDB"),
+                food("c", "Dal fry", "INDB")));
+
+        assertEquals(List.of("a", "b", "c"), ids(foods.findSimilar("dal fry", 3)));
+    }
+
+    @Test
+    void extraTokensCostALittle() {
+        FoodCompositionIndex foods = FoodCompositionIndex.build(List.of(
+                food("long", "Chicken curry with rice and peas", "INDB"),
+                food("short", "Chicken curry", "INDB")));
+
+        List<FoodCompositionIndex.Match> matches = foods.findSimilar("chicken curry", 2);
+
+        assertEquals(List.of("short", "long"), ids(matches));
+    }
+
+    @Test
+    void toleratesTypos() {
+        FoodCompositionIndex foods = FoodCompositionIndex.build(List.of(
+                food("paneer", "Paneer", "IFCT2017"),
+                food("peas", "Peas, green", "IFCT2017")));
+
+        assertEquals("paneer", foods.findBestMatch("paner").food().getId());
+    }
+
+    @Test
+    void dropsMatchesBelowTheMinimumScore() {
+        FoodCompositionIndex foods = FoodCompositionIndex.build(List.of(food("rice", "Rice", "INDB")));
+
+        // Shares " ri" and "ric" with "rice": Dice 4/11, no token overlap
+        assertNull(foods.findBestMatch("ricotta"));
+        assertTrue(foods.findSimilar("ricotta", 5).isEmpty());
+        assertTrue(foods.findBestMatch("rice").score() >= FoodCompositionIndex.MIN_MATCH_SCORE);
+    }
+
+    @Test
+    void similarResultsAreBestFirstAndBoundedByLimit() {
+        FoodCompositionIndex foods = FoodCompositionIndex.build(List.of(
+                food("1", "Tomato soup", "INDB"),
+                food("2", "Tomato, ripe", "IFCT2017"),
+                food("3", "Tomato chutney", "INDB"),
+                food("4", "Potato", "IFCT2017")));
+
+        List<FoodCompositionIndex.Match> matches = foods.findSimilar("tomato", 2);
+
+        assertEquals(2, matches.size());
+        assertEquals("2", matches.get(0).food().getId());
+        assertTrue(matches.get(0).score() >= matches.get(1).score());
+    }
+
+    @Test
+    void emptyQueriesFindNothing() {
+        FoodCompositionIndex foods = FoodCompositionIndex.build(List.of(food("1", "Rice", "INDB")));
+
+        assertTrue(foods.findSimilar(null, 5).isEmpty());
+        assertTrue(foods.findSimilar("", 5).isEmpty());
+        assertTrue(foods.findSimilar("rice", 0).isEmpty());
+        assertTrue(foods.suggest(null, 5).isEmpty());
+        assertEquals(0, FoodCompositionIndex.empty().size());
+    }
+
+    @Test
+    void suggestTreatsOnlyTheLastWordAsAPrefix() {
+        FoodCompositionIndex foods = FoodCompositionIndex.build(List.of(
+                food("tikka", "Chicken tikka", "INDB"),
+                food("curry", "Chicken curry", "INDB"),
+                food("cucumber", "Cucumber", "IFCT2017")));
+
+        assertEquals(List.of("curry"), foods.suggest("Chicken cu", 10).stream().map(FoodComposition::getId).toList());
+        assertTrue(foods.suggest("chick cu", 10).isEmpty());
+    }
+
+    @Test
+    void suggestIsCappedAtMaxSuggestions() {
+        List<FoodComposition> many = new ArrayList<>();
+        for (int i = 0; i < FoodCompositionIndex.MAX_SUGGESTIONS + 5; i++) {
+            many.add(food(String.valueOf(i), "Dal " + i, "INDB"));
+        }
+        FoodCompositionIndex foods = FoodCompositionIndex.build(many);
+
+        assertEquals(FoodCompositionIndex.MAX_SUGGESTIONS, foods.suggest("dal", 100).size());
+    }
+}
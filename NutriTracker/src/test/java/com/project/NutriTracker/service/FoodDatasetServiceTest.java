@@ -0,0 +1,205 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.project.NutriTracker.document.FoodComposition;
+import com.project.NutriTracker.document.FoodDatasetVersion;
+import com.project.NutriTracker.repository.FoodDatasetVersionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FoodDatasetServiceTest {
+
+    private static final String PREVIOUS = "previous-version";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private FoodCompositionLoader foodCompositionLoader;
+    @Mock
+    private FoodDatasetVersionRepository foodDatasetVersionRepository;
+    @Mock
+    private ResourceLoader resourceLoader;
+
+    private FoodDatasetService service;
+
+    // Content hash of the configured files, i.e. the version a reload stages
+    private String fileVersion;
+
+    @BeforeEach
+    void setUp() {
+        service = new FoodDatasetService(mongoTemplate, foodCompositionLoader, foodDatasetVersionRepository,
+                resourceLoader);
+        ReflectionTestUtils.setField(service, "ifctLocation", "ifct.csv");
+        ReflectionTestUtils.setField(service, "anuvaadLocation", "anuvaad.csv");
+        ReflectionTestUtils.setField(service, "pollInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(service, "autoReload", false);
+        ReflectionTestUtils.setField(service, "loadTimeout", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(service, "maxRejectRatio", 0.05);
+        ReflectionTestUtils.setField(service, "minSizeRatio", 0.8);
+
+        when(resourceLoader.getResource(anyString())).thenAnswer(invocation -> new ByteArrayResource(
+                ("code,name\n" + invocation.getArgument(0)).getBytes(StandardCharsets.UTF_8)));
+        fileVersion = ReflectionTestUtils.invokeMethod(service, "availableVersion");
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    /**
+     * Start serving activeVersion (or unversioned rows when null) with activeItems rows;
+     * the file version has stagedItems rows once loaded
+     */
+    private void start(FoodDatasetVersion activeVersion, int activeItems, int stagedItems) {
+        when(foodDatasetVersionRepository.findFirstByStatusOrderByActivatedAtDesc("ACTIVE"))
+                .thenReturn(Optional.ofNullable(activeVersion));
+        when(mongoTemplate.find(any(Query.class), eq(FoodComposition.class))).thenAnswer(invocation -> {
+            Object version = invocation.<Query>getArgument(0).getQueryObject().get("datasetVersion");
+            return fileVersion.equals(version) ? foods(fileVersion, stagedItems) : foods("active", activeItems);
+        });
+        service.init();
+    }
+
+    private static List<FoodComposition> foods(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            FoodComposition food = new FoodComposition();
+            food.setId(prefix + "-" + i);
+            food.setName("Food " + i);
+            food.setSource("IFCT2017");
+            return food;
+        }).toList();
+    }
+
+    private static FoodDatasetVersion version(String id, String status, LocalDateTime createdAt) {
+        FoodDatasetVersion version = new FoodDatasetVersion();
+        version.setId(id);
+        version.setStatus(status);
+        version.setCreatedAt(createdAt);
+        return version;
+    }
+
+    private void loadSucceeds() throws Exception {
+        when(foodCompositionLoader.load(any(), anyString(), eq(fileVersion), any())).thenAnswer(
+                invocation -> new FoodCompositionLoader.LoadReport(invocation.getArgument(1), 50, 50, 0, 0, 5));
+    }
+
+    @Test
+    void failedForcedReloadOfTheActiveVersionKeepsItActiveWithItsRows() throws Exception {
+        start(version(fileVersion, "ACTIVE", LocalDateTime.now().minusDays(1)), 100, 100);
+        when(foodDatasetVersionRepository.findById(fileVersion))
+                .thenReturn(Optional.of(version(fileVersion, "ACTIVE", LocalDateTime.now().minusDays(1))));
+        when(foodCompositionLoader.load(any(), eq("IFCT2017"), eq(fileVersion), any()))
+                .thenThrow(new IllegalStateException("Truncated CSV"));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(FoodDatasetVersion.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        service.reloadNow(true);
+
+        // Only a LOADING claim may be marked failed, so the active version's status is untouched
+        ArgumentCaptor<Query> failed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(failed.capture(), any(Update.class), eq(FoodDatasetVersion.class));
+        assertEquals("LOADING", failed.getValue().getQueryObject().get("status"));
+        verify(foodDatasetVersionRepository, never()).save(any());
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(FoodComposition.class));
+        assertEquals(fileVersion, service.current().version());
+        assertEquals(100, service.current().index().size());
+    }
+
+    @Test
+    void staleLoadingClaimIsTakenOverAfterTheLoadTimeout() throws Exception {
+        start(null, 100, 100);
+        when(foodDatasetVersionRepository.findById(fileVersion))
+                .thenReturn(Optional.of(version(fileVersion, "LOADING", LocalDateTime.now().minusMinutes(11))));
+        loadSucceeds();
+        when(mongoTemplate.remove(any(Query.class), eq(FoodComposition.class)))
+                .thenReturn(DeleteResult.acknowledged(0));
+
+        service.reloadNow(false);
+
+        ArgumentCaptor<FoodDatasetVersion> claimed = ArgumentCaptor.forClass(FoodDatasetVersion.class);
+        verify(foodDatasetVersionRepository).save(claimed.capture());
+        assertEquals("LOADING", claimed.getValue().getStatus());
+        assertEquals(fileVersion, service.current().version());
+    }
+
+    @Test
+    void freshLoadingClaimIsLeftToTheNodeHoldingIt() {
+        start(null, 100, 100);
+        when(foodDatasetVersionRepository.findById(fileVersion))
+                .thenReturn(Optional.of(version(fileVersion, "LOADING", LocalDateTime.now().minusMinutes(1))));
+
+        service.reloadNow(false);
+
+        verify(foodDatasetVersionRepository, never()).save(any());
+        verifyNoInteractions(foodCompositionLoader);
+        assertNull(service.current().version());
+    }
+
+    @Test
+    void failedAndRetiredVersionsAreNotReclaimedAutomatically() {
+        start(version(PREVIOUS, "ACTIVE", LocalDateTime.now().minusDays(1)), 100, 100);
+        when(foodDatasetVersionRepository.findById(fileVersion)).thenReturn(
+                Optional.of(version(fileVersion, "FAILED", LocalDateTime.now().minusDays(2))),
+                Optional.of(version(fileVersion, "RETIRED", LocalDateTime.now().minusDays(2))));
+
+        service.reloadNow(false);
+        service.reloadNow(false);
+
+        verify(foodDatasetVersionRepository, never()).save(any());
+        verifyNoInteractions(foodCompositionLoader);
+        assertEquals(PREVIOUS, service.current().version());
+    }
+
+    @Test
+    void tooSmallStagedDatasetIsRejectedWithoutSwapping() throws Exception {
+        start(version(PREVIOUS, "ACTIVE", LocalDateTime.now().minusDays(1)), 100, 10);
+        when(foodDatasetVersionRepository.findById(fileVersion)).thenReturn(Optional.empty());
+        loadSucceeds();
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(FoodDatasetVersion.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.remove(any(Query.class), eq(FoodComposition.class)))
+                .thenReturn(DeleteResult.acknowledged(10));
+
+        service.reloadNow(false);
+
+        // The staged rows are dropped and the previous version is never retired
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(FoodComposition.class));
+        assertEquals(fileVersion, removed.getValue().getQueryObject().get("datasetVersion"));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(FoodDatasetVersion.class));
+        assertEquals(PREVIOUS, service.current().version());
+        assertEquals(100, service.current().index().size());
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+class FoodPrefixIndexTest {
+
+    /**
+     * Index over names marked "*" as base ingredients, positions in argument order
+     */
+    private static FoodPrefixIndex index(String... names) {
+        String[][] tokens = new String[names.length][];
+        boolean[] base = new boolean[names.length];
+        int[] lengths = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            base[i] = names[i].startsWith("*");
+            String lower = names[i].replace("*", "").toLowerCase(Locale.ROOT);
+            tokens[i] = FoodCompositionIndex.tokenize(lower).toArray(String[]::new);
+            lengths[i] = lower.length();
+        }
+        return new FoodPrefixIndex(tokens, base, lengths);
+    }
+
+    private static int[] search(FoodPrefixIndex index, String query, int limit) {
+        return index.search(FoodCompositionIndex.tokenize(query), limit);
+    }
+
+    @Test
+    void namesStartingWithTheQueryComeFirst() {
+        FoodPrefixIndex index = index("Curry, chicken", "Chicken curry");
+
+        assertArrayEquals(new int[] { 1, 0 }, search(index, "chicken", 10));
+    }
+
+    @Test
+    void aWholeWordBeatsAPrefixEvenForShorterBaseIngredients() {
+        FoodPrefixIndex index = index("*Peanut", "Pea shoots curry");
+
+        assertArrayEquals(new int[] { 1, 0 }, search(index, "pea", 10));
+    }
+
+    @Test
+    void baseIngredientsBeatDishesThenShorterNamesThenLoadOrder() {
+        FoodPrefixIndex index = index("Spinach dal", "Spinach", "*Spinach, raw", "Spinach");
+
+        assertArrayEquals(new int[] { 2, 1, 3, 0 }, search(index, "spinach", 10));
+    }
+
+    @Test
+    void eachFoodAppearsOnceAtItsBestRank() {
+        // "dalma" leads as a prefix, which outranks "dal" as a later whole word
+        FoodPrefixIndex index = index("Moong dal", "Dalma dal", "Dal dal dal");
+
+        assertArrayEquals(new int[] { 2, 1, 0 }, search(index, "dal", 10));
+        // As a prefix every leading word ties, so the shorter name wins
+        assertArrayEquals(new int[] { 1, 2, 0 }, search(index, "d", 10));
+    }
+
+    @Test
+    void duplicateTokensDoNotCrowdOutOtherFoods() {
+        String[] names = new String[FoodPrefixIndex.MAX_RESULTS + 5];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "Dal dhokla dum " + (char) ('a' + i);
+        }
+        int[] found = search(index(names), "d", 100);
+
+        assertEquals(FoodPrefixIndex.MAX_RESULTS, found.length);
+        assertEquals(FoodPrefixIndex.MAX_RESULTS, Arrays.stream(found).distinct().count());
+    }
+
+    @Test
+    void multiWordQueriesNeedEveryEarlierWordWhole() {
+        FoodPrefixIndex index = index("Butter chicken curry", "Chicken curry", "Chicken cutlet", "Chicken tikka");
+
+        assertArrayEquals(new int[] { 1, 2, 0 }, search(index, "chicken cu", 10));
+        assertArrayEquals(new int[] { 1, 0 }, search(index, "chicken curry", 10));
+        assertArrayEquals(new int[0], search(index, "chick cu", 10));
+    }
+
+    @Test
+    void resultsRespectTheLimit() {
+        FoodPrefixIndex index = index("Rice", "Rice flakes", "Rice flour", "Rice bran oil");
+
+        assertArrayEquals(new int[] { 0, 2 }, search(index, "rice", 2));
+        assertArrayEquals(new int[] { 2 }, search(index, "rice fl", 1));
+        assertArrayEquals(new int[0], search(index, "rice", 0));
+    }
+
+    @Test
+    void unknownOrEmptyQueriesFindNothing() {
+        FoodPrefixIndex index = index("Rice");
+
+        assertArrayEquals(new int[0], search(index, "x", 10));
+        assertArrayEquals(new int[0], search(index, "ricer", 10));
+        assertArrayEquals(new int[0], index.search(List.of(), 10));
+    }
+}
@@ -0,0 +1,166 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.NutriTracker.document.MealImage;
+import com.project.NutriTracker.document.MealImage.FoodItem;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class GeminiNutritionAnalysisServiceTest {
+
+    private static final byte[] IMAGE = { 1, 2, 3 };
+
+    @Mock
+    private NutritionDatabaseService nutritionDatabaseService;
+    @Mock
+    private DishBreakdownCacheService dishBreakdownCacheService;
+    @Mock
+    private ModelCallGuard modelCallGuard;
+
+    private final StubModelClient modelClient = new StubModelClient();
+    private GeminiNutritionAnalysisService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // The guard's limits are covered by its own tests; here it just makes the call
+        when(modelCallGuard.execute(anyString(), anyLong(), any())).thenAnswer(invocation -> {
+            ModelCallGuard.ModelCall call = invocation.getArgument(2);
+            return call.call();
+        });
+        service = new GeminiNutritionAnalysisService(nutritionDatabaseService, dishBreakdownCacheService,
+                modelClient, modelCallGuard, new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "stage2MaxConcurrency", 4);
+        ReflectionTestUtils.setField(service, "stage2DishTimeoutSeconds", 1L);
+        ReflectionTestUtils.setField(service, "stage2MealTimeoutSeconds", 10L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private static List<String> names(MealImage meal) {
+        return meal.getDetectedFoods().stream().map(FoodItem::getName).toList();
+    }
+
+    @Test
+    void dishesComeBackInStageOneOrder() throws IOException {
+        modelClient.dishes("Dal tadka", "Jeera rice", "Roti");
+        // The first dish finishes last
+        modelClient.delayMillis = 200;
+        modelClient.slowDish = "Dal tadka";
+
+        MealImage meal = service.analyzeMeal(IMAGE, "image/jpeg");
+
+        assertEquals(List.of("Dal tadka", "Jeera rice", "Roti"), names(meal));
+        // Each breakdown is 10g of oil, 88.4 kcal
+        assertEquals(265.2, meal.getNutritionSummary().getTotalCalories());
+    }
+
+    @Test
+    void failingDishIsSkipped() throws IOException {
+        modelClient.dishes("Dal tadka", "Paneer tikka", "Roti");
+        modelClient.failingDish = "Paneer tikka";
+
+        MealImage meal = service.analyzeMeal(IMAGE, "image/jpeg");
+
+        assertEquals(List.of("Dal tadka", "Roti"), names(meal));
+        assertEquals(176.8, meal.getNutritionSummary().getTotalCalories());
+    }
+
+    @Test
+    void dishThatNeverReturnsIsSkippedAtItsTimeout() throws Exception {
+        modelClient.dishes("Dal tadka", "Paneer tikka", "Roti");
+        modelClient.hangingDish = "Paneer tikka";
+
+        long start = System.nanoTime();
+        MealImage meal = service.analyzeMeal(IMAGE, "image/jpeg");
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(List.of("Dal tadka", "Roti"), names(meal));
+        // Stopped at the one second dish timeout, well before the meal's ten
+        assertTrue(elapsed < 5_000, "took " + elapsed + "ms");
+        // The stuck call was cancelled rather than left running
+        assertTrue(modelClient.hangingInterrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Answers Stage 1 with the configured dishes and Stage 2 with 10g of oil per dish
+     */
+    private static class StubModelClient implements ModelClient {
+
+        private String dishesJson = "[]";
+        private volatile String slowDish;
+        private volatile long delayMillis;
+        private volatile String failingDish;
+        private volatile String hangingDish;
+        private final CountDownLatch hangingInterrupted = new CountDownLatch(1);
+
+        void dishes(String... names) {
+            StringBuilder json = new StringBuilder("[");
+            for (String name : names) {
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append("""
+                        {"dishName": "%s", "portionGrams": 100, "confidence": 0.9,
+                         "visualCues": "one bowl", "category": "main_course"}""".formatted(name));
+            }
+            dishesJson = json.append(']').toString();
+        }
+
+        @Override
+        public String generate(ModelRequest request) throws IOException {
+            if (ModelRequest.IDENTIFY_DISHES.equals(request.stage())) {
+                return dishesJson;
+            }
+            String dish = request.subject();
+            try {
+                if (dish.equals(hangingDish)) {
+                    new CountDownLatch(1).await();
+                }
+                if (dish.equals(slowDish)) {
+                    Thread.sleep(delayMillis);
+                }
+            } catch (InterruptedException e) {
+                hangingInterrupted.countDown();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+            if (dish.equals(failingDish)) {
+                throw new IOException("Model error for " + dish);
+            }
+            return """
+                    {"dishName": "%s", "totalPortionGrams": 100,
+                     "ingredients": [{"name": "Oil", "quantityGrams": 10, "category": "fat"}],
+                     "cookingMethod": "fried", "confidence": 0.9}""".formatted(dish);
+        }
+
+        @Override
+        public String modelName() {
+            return "stub";
+        }
+    }
+}
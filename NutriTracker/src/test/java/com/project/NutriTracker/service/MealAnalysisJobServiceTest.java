@@ -0,0 +1,279 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.result.UpdateResult;
+import com.project.NutriTracker.document.MealAnalysisJob;
+import com.project.NutriTracker.exception.ModelUnavailableException;
+import com.project.NutriTracker.repository.MealAnalysisJobRepository;
+import com.project.NutriTracker.repository.MealImageRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MealAnalysisJobServiceTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final Duration BACKOFF_BASE = Duration.ofSeconds(30);
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private MealAnalysisJobRepository mealAnalysisJobRepository;
+    @Mock
+    private MealImageRepository mealImageRepository;
+    @Mock
+    private StorageService storageService;
+    @Mock
+    private AsyncMealAnalysisService asyncMealAnalysisService;
+    @Mock
+    private MealAnalysisCapacityService mealAnalysisCapacityService;
+
+    private MealAnalysisJobService jobs;
+    private String nodeId;
+
+    @BeforeEach
+    void setUp() {
+        jobs = new MealAnalysisJobService(mongoTemplate, mealAnalysisJobRepository, mealImageRepository,
+                storageService, asyncMealAnalysisService, mealAnalysisCapacityService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jobs, "lease", LEASE);
+        ReflectionTestUtils.setField(jobs, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(jobs, "backoffBase", BACKOFF_BASE);
+        ReflectionTestUtils.setField(jobs, "backoffMax", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(jobs, "maxDefer", Duration.ofHours(24));
+        nodeId = (String) ReflectionTestUtils.getField(jobs, "nodeId");
+    }
+
+    private MealAnalysisJob runningJob(int attempts) {
+        MealAnalysisJob job = new MealAnalysisJob();
+        job.setId("meal-1");
+        job.setImageUrl("https://storage/meals/meal-1.jpg");
+        job.setMimeType("image/jpeg");
+        job.setStatus("RUNNING");
+        job.setAttempts(attempts);
+        job.setLeaseOwner(nodeId);
+        job.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+        return job;
+    }
+
+    private void imageFails(Exception failure) throws Exception {
+        when(mealImageRepository.existsById("meal-1")).thenReturn(true);
+        when(storageService.downloadFile(anyString())).thenReturn(new byte[] { 1, 2, 3 });
+        doThrow(failure).when(asyncMealAnalysisService)
+                .analyzeImage(eq("meal-1"), any(), eq("image/jpeg"), any(BooleanSupplier.class));
+    }
+
+    /**
+     * The single update written for the job, checking it was guarded by this node's lease
+     */
+    private Update ownedUpdate() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(MealAnalysisJob.class));
+        Document owned = query.getValue().getQueryObject();
+        assertEquals("meal-1", owned.get("_id"));
+        assertEquals("RUNNING", owned.get("status"));
+        assertEquals(nodeId, owned.get("leaseOwner"));
+        return update.getValue();
+    }
+
+    private static Document set(Update update) {
+        return (Document) update.getUpdateObject().get("$set");
+    }
+
+    private static Document inc(Update update) {
+        return (Document) update.getUpdateObject().get("$inc");
+    }
+
+    @Test
+    void claimLeasesADueOrExpiredJobToThisNode() {
+        MealAnalysisJob claimed = runningJob(1);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(MealAnalysisJob.class))).thenReturn(claimed);
+        LocalDateTime before = LocalDateTime.now();
+
+        assertSame(claimed, jobs.claimNext());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(),
+                eq(MealAnalysisJob.class));
+
+        List<?> due = (List<?>) query.getValue().getQueryObject().get("$or");
+        assertEquals("PENDING", ((Document) due.get(0)).get("status"));
+        assertEquals("RUNNING", ((Document) due.get(1)).get("status"));
+        assertNotNull(((Document) due.get(1)).get("leaseExpiresAt"));
+        assertEquals(new Document("nextAttemptAt", 1), query.getValue().getSortObject());
+
+        Document set = set(update.getValue());
+        assertEquals("RUNNING", set.get("status"));
+        assertEquals(nodeId, set.get("leaseOwner"));
+        LocalDateTime leaseExpiresAt = (LocalDateTime) set.get("leaseExpiresAt");
+        assertFalse(leaseExpiresAt.isBefore(before.plus(LEASE)));
+        assertEquals(1, inc(update.getValue()).get("attempts"));
+        assertTrue(options.getValue().isReturnNew());
+    }
+
+    @Test
+    void successfulAnalysisCompletesTheJob() throws Exception {
+        when(mealImageRepository.existsById("meal-1")).thenReturn(true);
+        when(storageService.downloadFile(anyString())).thenReturn(new byte[] { 1, 2, 3 });
+
+        jobs.process(runningJob(1));
+
+        Document set = set(ownedUpdate());
+        assertEquals("DONE", set.get("status"));
+        assertNotNull(set.get("completedAt"));
+        verify(mealAnalysisCapacityService).acquireBytes(3);
+        verify(mealAnalysisCapacityService).releaseBytes(3);
+    }
+
+    @Test
+    void deletedMealIsCompletedWithoutAnalysis() throws Exception {
+        when(mealImageRepository.existsById("meal-1")).thenReturn(false);
+
+        jobs.process(runningJob(1));
+
+        assertEquals("DONE", set(ownedUpdate()).get("status"));
+        verify(storageService, never()).downloadFile(anyString());
+    }
+
+    @Test
+    void failedAttemptIsRetriedWithBackoff() throws Exception {
+        imageFails(new IOException("model returned garbage"));
+        LocalDateTime before = LocalDateTime.now();
+
+        jobs.process(runningJob(1));
+
+        Update update = ownedUpdate();
+        Document set = set(update);
+        assertEquals("PENDING", set.get("status"));
+        assertEquals("model returned garbage", set.get("lastError"));
+        // First retry: half the base plus up to another half, with full jitter
+        LocalDateTime nextAttemptAt = (LocalDateTime) set.get("nextAttemptAt");
+        assertFalse(nextAttemptAt.isBefore(before.plus(BACKOFF_BASE.dividedBy(2))));
+        assertTrue(nextAttemptAt.isBefore(LocalDateTime.now().plus(BACKOFF_BASE)));
+        assertTrue(((Document) update.getUpdateObject().get("$unset")).containsKey("leaseOwner"));
+        verify(asyncMealAnalysisService, never()).markFailed(anyString(), anyString());
+    }
+
+    @Test
+    void failureOnTheFinalAttemptDeadLettersTheJob() throws Exception {
+        imageFails(new IOException("model returned garbage"));
+
+        jobs.process(runningJob(MAX_ATTEMPTS));
+
+        assertEquals("DEAD", set(ownedUpdate()).get("status"));
+        verify(asyncMealAnalysisService).markFailed("meal-1", "model returned garbage");
+    }
+
+    @Test
+    void jobReclaimedPastItsAttemptsIsDeadLetteredWithoutRunning() throws Exception {
+        MealAnalysisJob job = runningJob(MAX_ATTEMPTS + 1);
+        job.setLastError("lease expired");
+
+        jobs.process(job);
+
+        assertEquals("DEAD", set(ownedUpdate()).get("status"));
+        verify(asyncMealAnalysisService).markFailed(eq("meal-1"), anyString());
+        verify(storageService, never()).downloadFile(anyString());
+    }
+
+    @Test
+    void modelOutageDefersWithoutSpendingAnAttempt() throws Exception {
+        imageFails(new ModelUnavailableException("circuit open", 60));
+        LocalDateTime before = LocalDateTime.now();
+
+        jobs.process(runningJob(MAX_ATTEMPTS));
+
+        Update update = ownedUpdate();
+        assertEquals("PENDING", set(update).get("status"));
+        assertFalse(((LocalDateTime) set(update).get("nextAttemptAt")).isBefore(before.plusSeconds(60)));
+        assertEquals(-1, inc(update).get("attempts"));
+        assertEquals(1, inc(update).get("deferrals"));
+        verify(asyncMealAnalysisService, never()).markFailed(anyString(), anyString());
+    }
+
+    @Test
+    void leaseRenewalDuringAnalysisReportsATakeover() throws Exception {
+        when(mealImageRepository.existsById("meal-1")).thenReturn(true);
+        when(storageService.downloadFile(anyString())).thenReturn(new byte[] { 1 });
+        // Another worker owns the job now, so the owner-guarded update matches nothing
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(MealAnalysisJob.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        AtomicBoolean leaseHeld = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            leaseHeld.set(invocation.<BooleanSupplier>getArgument(3).getAsBoolean());
+            return null;
+        }).when(asyncMealAnalysisService).analyzeImage(eq("meal-1"), any(), eq("image/jpeg"),
+                any(BooleanSupplier.class));
+
+        jobs.process(runningJob(1));
+
+        assertFalse(leaseHeld.get());
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).updateFirst(queries.capture(), any(Update.class),
+                eq(MealAnalysisJob.class));
+        queries.getAllValues().forEach(query -> assertEquals(nodeId, query.getQueryObject().get("leaseOwner")));
+    }
+
+    @Test
+    void periodicRenewalOnlyExtendsLeasesThisNodeStillOwns() {
+        @SuppressWarnings("unchecked")
+        Set<String> held = (Set<String>) ReflectionTestUtils.getField(jobs, "heldJobs");
+        held.add("meal-1");
+
+        jobs.renewLeases();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(MealAnalysisJob.class));
+        Document owned = query.getValue().getQueryObject();
+        assertEquals(nodeId, owned.get("leaseOwner"));
+        assertEquals("RUNNING", owned.get("status"));
+        assertNotNull(set(update.getValue()).get("leaseExpiresAt"));
+    }
+
+    @Test
+    void periodicRenewalSkipsMongoWhenNothingIsHeld() {
+        jobs.renewLeases();
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(MealAnalysisJob.class));
+    }
+}
@@ -0,0 +1,261 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project.NutriTracker.document.MealImage;
+import com.project.NutriTracker.dto.MealHistoryPageResponse;
+import com.project.NutriTracker.dto.MealImageUploadResponse;
+import com.project.NutriTracker.repository.MealImageRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MealImageServiceTest {
+
+    private static final String USER = "user-1";
+
+    @Mock
+    private MealImageRepository mealImageRepository;
+    @Mock
+    private StorageService storageService;
+    @Mock
+    private MealAnalysisJobService mealAnalysisJobService;
+    @Mock
+    private MealAnalysisCapacityService mealAnalysisCapacityService;
+    @Mock
+    private DailyNutritionRollupService dailyNutritionRollupService;
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private MealImageService mealImageService;
+
+    private final MockMultipartFile photo = new MockMultipartFile("file", "lunch.jpg", "image/jpeg",
+            new byte[] { 1, 2, 3, 4 });
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mealImageService, "duplicateWindow", Duration.ofHours(1));
+    }
+
+    private MealImage previous(String status, LocalDateTime uploadedAt) {
+        MealImage meal = new MealImage();
+        meal.setId("previous");
+        meal.setUserId(USER);
+        meal.setImageUrl("https://storage/meals/lunch.jpg");
+        meal.setStatus(status);
+        meal.setUploadedAt(uploadedAt);
+        meal.setDetectedFoods(List.of(new MealImage.FoodItem()));
+        meal.setNutritionSummary(new MealImage.NutritionSummary());
+        when(mealImageRepository.findFirstByUserIdAndContentHashOrderByUploadedAtDesc(eq(USER), anyString()))
+                .thenReturn(Optional.of(meal));
+        return meal;
+    }
+
+    private void saveAssignsId() {
+        when(mealImageRepository.save(any(MealImage.class))).thenAnswer(invocation -> {
+            MealImage meal = invocation.getArgument(0);
+            meal.setId("new");
+            return meal;
+        });
+    }
+
+    @Test
+    void duplicateStillBeingAnalyzedReturnsThePendingMeal() {
+        previous("PROCESSING", LocalDateTime.now().minusMinutes(1));
+        when(mealAnalysisJobService.isQueued("previous")).thenReturn(true);
+
+        MealImageUploadResponse response = mealImageService.uploadMealImage(photo, USER);
+
+        assertEquals("previous", response.getId());
+        assertEquals("PROCESSING", response.getStatus());
+        verify(mealImageRepository, never()).save(any());
+        verify(mealAnalysisJobService, never()).enqueue(any(), any());
+        verify(mealAnalysisCapacityService).releaseBytes(photo.getSize());
+    }
+
+    @Test
+    void recentlyAnalyzedDuplicateReturnsTheExistingMealWithoutCountingItAgain() {
+        previous("ANALYZED", LocalDateTime.now().minusMinutes(5));
+
+        MealImageUploadResponse response = mealImageService.uploadMealImage(photo, USER);
+
+        assertEquals("previous", response.getId());
+        assertEquals("ANALYZED", response.getStatus());
+        verify(mealImageRepository, never()).save(any());
+        verify(dailyNutritionRollupService, never()).recordMeal(any());
+        verify(mealAnalysisJobService, never()).enqueue(any(), any());
+    }
+
+    @Test
+    void analyzedDuplicateOutsideTheWindowIsLoggedAsANewMeal() throws Exception {
+        MealImage previous = previous("ANALYZED", LocalDateTime.now().minusDays(2));
+        saveAssignsId();
+
+        MealImageUploadResponse response = mealImageService.uploadMealImage(photo, USER);
+
+        ArgumentCaptor<MealImage> saved = ArgumentCaptor.forClass(MealImage.class);
+        verify(mealImageRepository).save(saved.capture());
+        assertEquals("new", response.getId());
+        assertEquals("ANALYZED", saved.getValue().getStatus());
+        assertEquals(previous.getImageUrl(), saved.getValue().getImageUrl());
+        assertEquals(previous.getDetectedFoods(), saved.getValue().getDetectedFoods());
+        verify(dailyNutritionRollupService).recordMeal(saved.getValue());
+        verify(storageService, never()).uploadFile(any(), anyString());
+        verify(mealAnalysisJobService, never()).enqueue(any(), any());
+    }
+
+    @Test
+    void failedDuplicateReusesTheStoredImageAndQueuesAFreshAnalysis() throws Exception {
+        MealImage previous = previous("FAILED", LocalDateTime.now().minusMinutes(5));
+        saveAssignsId();
+
+        MealImageUploadResponse response = mealImageService.uploadMealImage(photo, USER);
+
+        ArgumentCaptor<MealImage> saved = ArgumentCaptor.forClass(MealImage.class);
+        verify(mealImageRepository).save(saved.capture());
+        assertNotEquals("previous", response.getId());
+        assertEquals("UPLOADED", saved.getValue().getStatus());
+        assertEquals(previous.getImageUrl(), saved.getValue().getImageUrl());
+        verify(mealAnalysisCapacityService).checkQueueCapacity();
+        verify(mealAnalysisJobService).enqueue(saved.getValue(), "image/jpeg");
+        verify(storageService, never()).uploadFile(any(), anyString());
+        verify(dailyNutritionRollupService, never()).recordMeal(any());
+    }
+
+    @Test
+    void newImageIsStoredAndQueued() throws Exception {
+        when(mealImageRepository.findFirstByUserIdAndContentHashOrderByUploadedAtDesc(eq(USER), anyString()))
+                .thenReturn(Optional.empty());
+        when(storageService.uploadFile(photo, "meals")).thenReturn("https://storage/meals/new.jpg");
+        saveAssignsId();
+
+        MealImageUploadResponse response = mealImageService.uploadMealImage(photo, USER);
+
+        assertEquals("new", response.getId());
+        assertEquals("UPLOADED", response.getStatus());
+        verify(mealAnalysisJobService).enqueue(any(MealImage.class), eq("image/jpeg"));
+    }
+
+    private static List<MealImage> history(int count) {
+        List<MealImage> meals = new ArrayList<>();
+        LocalDateTime newest = LocalDateTime.of(2026, 3, 1, 20, 0);
+        for (int i = 0; i < count; i++) {
+            MealImage meal = new MealImage();
+            meal.setId("meal-" + i);
+            meal.setStatus("ANALYZED");
+            meal.setUploadedAt(newest.minusHours(i));
+            meals.add(meal);
+        }
+        return meals;
+    }
+
+    private Query capturedHistoryQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(MealImage.class));
+        return query.getValue();
+    }
+
+    @Test
+    void firstHistoryPageFetchesOneExtraToDetectMore() {
+        List<MealImage> meals = history(4);
+        when(mongoTemplate.find(any(Query.class), eq(MealImage.class))).thenReturn(meals);
+
+        MealHistoryPageResponse page = mealImageService.getUserMealHistory(USER, null, 3);
+
+        Query query = capturedHistoryQuery();
+        assertEquals(4, query.getLimit());
+        assertNull(query.getQueryObject().get("$or"));
+        assertEquals(3, page.getItems().size());
+        assertTrue(page.getHasMore());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void nextCursorResumesAfterTheLastItemOfThePage() {
+        List<MealImage> meals = history(4);
+        when(mongoTemplate.find(any(Query.class), eq(MealImage.class))).thenReturn(meals, List.of());
+        String cursor = mealImageService.getUserMealHistory(USER, null, 3).getNextCursor();
+
+        MealHistoryPageResponse next = mealImageService.getUserMealHistory(USER, cursor, 3);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(MealImage.class));
+        Document criteria = queries.getAllValues().get(1).getQueryObject();
+        assertEquals(USER, criteria.get("userId"));
+        List<?> or = (List<?>) criteria.get("$or");
+        MealImage last = meals.get(2);
+        assertEquals(new Document("uploadedAt", new Document("$lt", last.getUploadedAt())), or.get(0));
+        assertEquals(new Document("uploadedAt", last.getUploadedAt()).append("id", new Document("$lt", last.getId())),
+                or.get(1));
+        assertTrue(next.getItems().isEmpty());
+        assertFalse(next.getHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void lastHistoryPageHasNoCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(MealImage.class))).thenReturn(history(2));
+
+        MealHistoryPageResponse page = mealImageService.getUserMealHistory(USER, null, 3);
+
+        assertEquals(2, page.getItems().size());
+        assertFalse(page.getHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void historyPageSizeIsClamped() {
+        when(mongoTemplate.find(any(Query.class), eq(MealImage.class))).thenReturn(List.of());
+
+        mealImageService.getUserMealHistory(USER, null, 10_000);
+
+        assertEquals(101, capturedHistoryQuery().getLimit());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String notADate = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("yesterday|meal-1".getBytes(StandardCharsets.UTF_8));
+        String noSeparator = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2026-03-01T20:00".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("not base64!", notADate, noSeparator)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> mealImageService.getUserMealHistory(USER, cursor, 20), cursor);
+        }
+        verify(mongoTemplate, never()).find(any(Query.class), eq(MealImage.class));
+    }
+}
@@ -0,0 +1,142 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class StatsAccumulatorTest {
+
+    private static void addDay(StatsAccumulator stats, double calories, double adherence, int meals,
+            boolean metGoals) {
+        stats.add(calories, 100, 200, 60, 25, 30, adherence, meals, metGoals);
+    }
+
+    @Test
+    void emptyAccumulatorReportsZeros() {
+        StatsAccumulator stats = new StatsAccumulator();
+
+        assertTrue(stats.isEmpty());
+        assertEquals(0.0, stats.mean(StatsAccumulator.CALORIES), 0.0);
+        assertEquals(0.0, stats.withinGoalRate(StatsAccumulator.CALORIES), 0.0);
+        assertEquals("STABLE", stats.trend(StatsAccumulator.CALORIES));
+        assertEquals(0, stats.bestRow());
+        assertEquals(-1, stats.fewestMealsRow());
+    }
+
+    @Test
+    void sumsAndMeansEveryChannel() {
+        StatsAccumulator stats = new StatsAccumulator();
+        stats.add(1800, 90, 210, 55, 20, 35, 60, 3, false);
+        stats.add(2200, 110, 190, 65, 30, 25, 80, 4, true);
+
+        assertFalse(stats.isEmpty());
+        assertEquals(2, stats.count());
+        assertEquals(7, stats.mealCount());
+        assertEquals(1, stats.metGoalsCount());
+        assertEquals(4000.0, stats.sum(StatsAccumulator.CALORIES), 1e-9);
+        assertEquals(2000.0, stats.mean(StatsAccumulator.CALORIES), 1e-9);
+        assertEquals(100.0, stats.mean(StatsAccumulator.PROTEIN), 1e-9);
+        assertEquals(25.0, stats.mean(StatsAccumulator.FIBER), 1e-9);
+        assertEquals(70.0, stats.mean(StatsAccumulator.ADHERENCE), 1e-9);
+    }
+
+    @Test
+    void withinGoalCountsTenPercentEitherSideInclusive() {
+        StatsAccumulator stats = new StatsAccumulator(StatsAccumulator.goals(2000.0, 100.0, 200.0, 60.0));
+        addDay(stats, 1800, 0, 1, false); // -10%, inside
+        addDay(stats, 2200, 0, 1, false); // +10%, inside
+        addDay(stats, 1799, 0, 1, false); // just below
+        addDay(stats, 2201, 0, 1, false); // just above
+
+        assertEquals(50.0, stats.withinGoalRate(StatsAccumulator.CALORIES), 1e-9);
+        assertEquals(100.0, stats.withinGoalRate(StatsAccumulator.PROTEIN), 1e-9);
+    }
+
+    @Test
+    void channelsWithoutGoalNeverCountAsWithinGoal() {
+        StatsAccumulator stats = new StatsAccumulator(StatsAccumulator.goals(null, 100.0, null, null));
+        addDay(stats, 2000, 0, 1, false);
+
+        assertEquals(0.0, stats.withinGoalRate(StatsAccumulator.CALORIES), 0.0);
+        assertEquals(100.0, stats.withinGoalRate(StatsAccumulator.PROTEIN), 0.0);
+        assertEquals(0.0, stats.withinGoalRate(StatsAccumulator.FIBER), 0.0);
+    }
+
+    @Test
+    void slopeIsLeastSquaresAgainstRowIndex() {
+        StatsAccumulator stats = new StatsAccumulator();
+        for (int x = 0; x < 10; x++) {
+            addDay(stats, 1500 + 20 * x, 50, 1, false);
+        }
+
+        assertEquals(20.0, stats.slope(StatsAccumulator.CALORIES), 1e-9);
+        assertEquals(0.0, stats.slope(StatsAccumulator.PROTEIN), 1e-9);
+        assertEquals("INCREASING", stats.trend(StatsAccumulator.CALORIES));
+        assertEquals("STABLE", stats.trend(StatsAccumulator.PROTEIN));
+    }
+
+    @Test
+    void trendNeedsMoreThanTheThresholdSlope() {
+        StatsAccumulator falling = new StatsAccumulator();
+        StatsAccumulator flat = new StatsAccumulator();
+        for (int x = 0; x < 5; x++) {
+            addDay(falling, 2000 - 6 * x, 50, 1, false);
+            addDay(flat, 2000 + 5 * x, 50, 1, false); // Exactly the threshold
+        }
+
+        assertEquals("DECREASING", falling.trend(StatsAccumulator.CALORIES));
+        assertEquals("STABLE", flat.trend(StatsAccumulator.CALORIES));
+    }
+
+    @Test
+    void singleRowTrendIsStable() {
+        StatsAccumulator stats = new StatsAccumulator();
+        addDay(stats, 5000, 50, 1, false);
+
+        assertEquals("STABLE", stats.trend(StatsAccumulator.CALORIES));
+    }
+
+    @Test
+    void bestRowIsTheMetRowWithMostMealsKeepingTheEarliestTie() {
+        StatsAccumulator stats = new StatsAccumulator();
+        addDay(stats, 2000, 50, 9, false); // Most meals but missed goals
+        addDay(stats, 2000, 50, 3, true);
+        addDay(stats, 2000, 50, 5, true);
+        addDay(stats, 2000, 50, 5, true);
+
+        assertEquals(2, stats.bestRow());
+    }
+
+    @Test
+    void bestRowFallsBackToFirstRowWhenNoRowMetGoals() {
+        StatsAccumulator stats = new StatsAccumulator();
+        addDay(stats, 2000, 50, 2, false);
+        addDay(stats, 2000, 50, 4, false);
+
+        assertEquals(0, stats.bestRow());
+    }
+
+    @Test
+    void extremeRowsKeepTheEarliestTie() {
+        StatsAccumulator stats = new StatsAccumulator();
+        addDay(stats, 2000, 40, 3, false);
+        addDay(stats, 2000, 90, 1, false);
+        addDay(stats, 2000, 90, 1, false);
+        addDay(stats, 2000, 40, 2, false);
+
+        assertEquals(1, stats.fewestMealsRow());
+        assertEquals(1, stats.maxAdherenceRow());
+        assertEquals(0, stats.minAdherenceRow());
+    }
+
+    @Test
+    void adherenceThresholdIsInclusive() {
+        StatsAccumulator stats = new StatsAccumulator();
+        addDay(stats, 2000, StatsAccumulator.ADHERENCE_MET_THRESHOLD, 1, false);
+        addDay(stats, 2000, StatsAccumulator.ADHERENCE_MET_THRESHOLD - 0.01, 1, false);
+
+        assertEquals(1, stats.adherenceMetCount());
+    }
+}
@@ -0,0 +1,128 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project.NutriTracker.dto.MonthlyStatsResponse;
+import com.project.NutriTracker.dto.StreakResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class StatsResponseCacheTest {
+
+    private static final String USER = "user-1";
+    private static final String ETAG = "\"monthly-2026-03-abc-7\"";
+
+    @Mock
+    private StatsService statsService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private StatsPeriodVersionService statsPeriodVersionService;
+    @Mock
+    private StreakTrackerService streakTrackerService;
+
+    private StatsResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StatsResponseCache(statsService, userService, statsPeriodVersionService, streakTrackerService,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofHours(1));
+        cache.init();
+    }
+
+    private void goalsUnchanged() {
+        when(userService.getCurrentDerivedFromProfile(eq(USER), anyString(), any())).thenReturn("goals");
+    }
+
+    @Test
+    void ifNoneMatchMatchesExactWeakListedAndWildcardTags() {
+        assertTrue(cache.matches(ETAG, ETAG));
+        assertTrue(cache.matches("W/" + ETAG, ETAG));
+        assertTrue(cache.matches("\"other\", " + ETAG, ETAG));
+        assertTrue(cache.matches("\"other\",W/" + ETAG, ETAG));
+        assertTrue(cache.matches("*", ETAG));
+    }
+
+    @Test
+    void ifNoneMatchMissesOtherTags() {
+        assertFalse(cache.matches(null, ETAG));
+        assertFalse(cache.matches("", ETAG));
+        assertFalse(cache.matches("\"other\", W/\"another\"", ETAG));
+        // The quotes are part of the tag
+        assertFalse(cache.matches("monthly-2026-03-abc-7", ETAG));
+    }
+
+    @Test
+    void monthlyETagChangesAfterAWriteInTheMonth() {
+        goalsUnchanged();
+        when(statsPeriodVersionService.version(USER, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)))
+                .thenReturn(7L, 7L, 8L);
+
+        String before = cache.monthlyETag(USER, 2026, 3);
+        String unchanged = cache.monthlyETag(USER, 2026, 3);
+        String after = cache.monthlyETag(USER, 2026, 3);
+
+        assertEquals(before, unchanged);
+        assertNotEquals(before, after);
+        assertFalse(cache.matches(before, after));
+    }
+
+    @Test
+    void responsesAreCachedPerETag() {
+        MonthlyStatsResponse first = new MonthlyStatsResponse();
+        MonthlyStatsResponse second = new MonthlyStatsResponse();
+        when(statsService.getMonthlyStats(USER, 2026, 3)).thenReturn(first, second);
+
+        assertSame(first, cache.getMonthlyStats(USER, 2026, 3, "\"v7\""));
+        assertSame(first, cache.getMonthlyStats(USER, 2026, 3, "\"v7\""));
+        // A write bumps the version, so the next ETag misses and reloads
+        assertSame(second, cache.getMonthlyStats(USER, 2026, 3, "\"v8\""));
+
+        verify(statsService, times(2)).getMonthlyStats(USER, 2026, 3);
+    }
+
+    @Test
+    void streakETagCoversExactlyTheDaysInTheResponse() {
+        goalsUnchanged();
+        LocalDate end = LocalDate.of(2026, 3, 31);
+
+        cache.streakETag(USER, end, 30);
+
+        verify(statsPeriodVersionService).version(USER, LocalDate.of(2026, 3, 2), end);
+    }
+
+    @Test
+    void windowOnlyStreaksAreNotCached() {
+        LocalDate end = LocalDate.of(2026, 3, 31);
+        StreakResponse pending = StreakResponse.builder().windowOnly(true).build();
+        when(statsService.calculateStreak(USER, end, 30)).thenReturn(pending);
+
+        cache.getStreak(USER, end, 30, "\"s1\"");
+        cache.getStreak(USER, end, 30, "\"s1\"");
+
+        verify(statsService, times(2)).calculateStreak(USER, end, 30);
+    }
+}
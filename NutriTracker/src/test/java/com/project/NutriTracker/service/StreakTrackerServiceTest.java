@@ -0,0 +1,195 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.NutriTracker.document.UserStreak;
+import com.project.NutriTracker.service.StreakTrackerService.Change;
+
+class StreakTrackerServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    private static LocalDate day(int offset) {
+        return DAY.plusDays(offset);
+    }
+
+    private static UserStreak empty() {
+        UserStreak state = new UserStreak();
+        state.setPriorLongestRun(0);
+        return state;
+    }
+
+    /**
+     * State with the given met days folded in, as a rebuild computes it
+     */
+    private static UserStreak rebuilt(Iterable<LocalDate> metDays) {
+        UserStreak state = empty();
+        metDays.forEach(date -> StreakTrackerService.appendMetDay(state, date));
+        return state;
+    }
+
+    private static UserStreak run(int start, int end) {
+        UserStreak state = empty();
+        state.setCurrentRunStart(day(start));
+        state.setCurrentRunEnd(day(end));
+        return state;
+    }
+
+    private static void assertRun(UserStreak state, int start, int end) {
+        assertEquals(day(start), state.getCurrentRunStart());
+        assertEquals(day(end), state.getCurrentRunEnd());
+    }
+
+    @Test
+    void firstMetDayStartsARun() {
+        UserStreak state = empty();
+
+        assertEquals(Change.UNCHANGED, StreakTrackerService.apply(state, day(0), false));
+        assertEquals(Change.UPDATED, StreakTrackerService.apply(state, day(0), true));
+        assertRun(state, 0, 0);
+        assertEquals(1, state.currentRunLength());
+    }
+
+    @Test
+    void nextDayExtendsTheRun() {
+        UserStreak state = run(0, 2);
+
+        assertEquals(Change.UPDATED, StreakTrackerService.apply(state, day(3), true));
+        assertRun(state, 0, 3);
+        assertEquals(0, state.getPriorLongestRun().intValue());
+    }
+
+    @Test
+    void gapStartsANewRunAndKeepsTheOldOneAsLongest() {
+        UserStreak state = run(0, 2);
+
+        assertEquals(Change.UPDATED, StreakTrackerService.apply(state, day(5), true));
+        assertRun(state, 5, 5);
+        assertEquals(3, state.getPriorLongestRun().intValue());
+        assertEquals(day(0), state.getPriorLongestRunStart());
+        assertEquals(3, state.longestRun());
+        assertEquals(day(0), state.longestRunStart());
+    }
+
+    @Test
+    void unmetDaysAfterTheRunChangeNothing() {
+        UserStreak state = run(0, 2);
+
+        assertEquals(Change.UNCHANGED, StreakTrackerService.apply(state, day(4), false));
+        assertEquals(Change.UNCHANGED, StreakTrackerService.apply(state, day(1), true));
+        assertRun(state, 0, 2);
+    }
+
+    @Test
+    void losingTheLastDayShrinksTheEnd() {
+        UserStreak state = run(0, 4);
+
+        assertEquals(Change.UPDATED, StreakTrackerService.apply(state, day(4), false));
+        assertRun(state, 0, 3);
+    }
+
+    @Test
+    void losingTheFirstDayShrinksTheStart() {
+        UserStreak state = run(0, 4);
+
+        assertEquals(Change.UPDATED, StreakTrackerService.apply(state, day(0), false));
+        assertRun(state, 1, 4);
+        assertEquals(0, state.getPriorLongestRun().intValue());
+    }
+
+    @Test
+    void losingAMiddleDaySplitsTheRun() {
+        UserStreak state = run(0, 9);
+
+        assertEquals(Change.UPDATED, StreakTrackerService.apply(state, day(6), false));
+        assertRun(state, 7, 9);
+        assertEquals(6, state.getPriorLongestRun().intValue());
+        assertEquals(day(0), state.getPriorLongestRunStart());
+    }
+
+    @Test
+    void splitKeepsALongerEarlierRunAsLongest() {
+        UserStreak state = run(20, 24);
+        state.setPriorLongestRun(8);
+        state.setPriorLongestRunStart(day(0));
+
+        assertEquals(Change.UPDATED, StreakTrackerService.apply(state, day(22), false));
+        assertRun(state, 23, 24);
+        assertEquals(8, state.getPriorLongestRun().intValue());
+        assertEquals(day(0), state.getPriorLongestRunStart());
+    }
+
+    @Test
+    void changesBeforeTheRunNeedARebuild() {
+        UserStreak state = run(5, 7);
+
+        assertEquals(Change.STALE, StreakTrackerService.apply(state, day(4), true));
+        assertEquals(Change.STALE, StreakTrackerService.apply(state, day(1), false));
+        assertRun(state, 5, 7);
+    }
+
+    @Test
+    void emptyingTheRunNeedsARebuild() {
+        UserStreak state = run(5, 5);
+
+        assertEquals(Change.STALE, StreakTrackerService.apply(state, day(5), false));
+        assertRun(state, 5, 5);
+    }
+
+    @Test
+    void rebuildKeepsTheEarliestOfEquallyLongRuns() {
+        TreeSet<LocalDate> met = new TreeSet<>();
+        for (int d : new int[] { 0, 1, 2, 5, 6, 7, 9 }) {
+            met.add(day(d));
+        }
+        UserStreak state = rebuilt(met);
+
+        assertRun(state, 9, 9);
+        assertEquals(3, state.longestRun());
+        assertEquals(day(0), state.longestRunStart());
+    }
+
+    @Test
+    void rebuildOfNoMetDaysHasNoRun() {
+        UserStreak state = rebuilt(new TreeSet<>());
+
+        assertNull(state.getCurrentRunEnd());
+        assertEquals(0, state.currentRunLength());
+        assertEquals(0, state.longestRun());
+    }
+
+    @Test
+    void inPlaceChangesMatchAFullRebuild() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 200; trial++) {
+            TreeSet<LocalDate> met = new TreeSet<>();
+            UserStreak state = empty();
+            for (int step = 0; step < 60; step++) {
+                LocalDate date = day(random.nextInt(30));
+                boolean isMet = random.nextInt(3) > 0;
+                if (isMet) {
+                    met.add(date);
+                } else {
+                    met.remove(date);
+                }
+
+                if (StreakTrackerService.apply(state, date, isMet) == Change.STALE) {
+                    state = rebuilt(met);
+                }
+                UserStreak expected = rebuilt(met);
+                String at = "trial " + trial + ", step " + step;
+                assertEquals(expected.getCurrentRunStart(), state.getCurrentRunStart(), at);
+                assertEquals(expected.getCurrentRunEnd(), state.getCurrentRunEnd(), at);
+                assertEquals(expected.getPriorLongestRun(), state.getPriorLongestRun(), at);
+                assertEquals(expected.getPriorLongestRunStart(), state.getPriorLongestRunStart(), at);
+            }
+        }
+    }
+}
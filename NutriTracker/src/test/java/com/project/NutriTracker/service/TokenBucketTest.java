@@ -0,0 +1,85 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+    // One token an hour, so refill is negligible within a test
+    private static TokenBucket slowBucket(int burst) {
+        return new TokenBucket(1.0 / 3600, burst);
+    }
+
+    @Test
+    void burstIsServedWithoutWaiting() {
+        TokenBucket bucket = slowBucket(3);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve(0));
+        }
+        assertEquals(-1, bucket.reserve(0));
+    }
+
+    @Test
+    void rejectionDoesNotTakeAToken() {
+        TokenBucket bucket = slowBucket(1);
+        bucket.reserve(0);
+
+        assertEquals(-1, bucket.reserve(HOUR / 2));
+        assertEquals(-1, bucket.reserve(HOUR / 2));
+        assertTrue(bucket.available() > -0.01);
+    }
+
+    @Test
+    void waitersQueueBehindEachOther() {
+        TokenBucket bucket = slowBucket(1);
+        bucket.reserve(0);
+
+        long first = bucket.reserve(3 * HOUR);
+        long second = bucket.reserve(3 * HOUR);
+
+        assertTrue(first > HOUR - TimeUnit.SECONDS.toNanos(5) && first <= HOUR, "first wait " + first);
+        assertTrue(second > first + HOUR - TimeUnit.SECONDS.toNanos(5), "second wait " + second);
+        assertTrue(bucket.available() < -1.9);
+        assertEquals(-1, bucket.reserve(2 * HOUR));
+    }
+
+    @Test
+    void refundReturnsATokenUpToCapacity() {
+        TokenBucket bucket = slowBucket(2);
+        bucket.reserve(0);
+        bucket.reserve(0);
+
+        bucket.refund();
+        assertEquals(0, bucket.reserve(0));
+
+        bucket.refund();
+        bucket.refund();
+        bucket.refund();
+        assertEquals(2.0, bucket.available(), 0.01);
+    }
+
+    @Test
+    void refillIsCappedAtBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 1);
+        bucket.reserve(0);
+
+        Thread.sleep(20);
+
+        assertEquals(1.0, bucket.available(), 0.0);
+    }
+
+    @Test
+    void burstIsAtLeastOne() {
+        TokenBucket bucket = slowBucket(0);
+
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(-1, bucket.reserve(0));
+    }
+}
@@ -0,0 +1,110 @@
+package com.project.NutriTracker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.project.NutriTracker.document.User;
+import com.project.NutriTracker.dto.UserProfileResponse;
+import com.project.NutriTracker.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserProfileCacheTest {
+
+    private static final String USER = "user-1";
+    private static final LocalDateTime FIRST_UPDATE = LocalDateTime.of(2026, 3, 1, 9, 0, 0, 123_456_789);
+    private static final LocalDateTime SECOND_UPDATE = FIRST_UPDATE.plusMinutes(1);
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserProfileCache cache;
+
+    // Profiles the loader returns, in order
+    private final Deque<UserProfileResponse> stored = new ArrayDeque<>();
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserProfileCache(userRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(cache, "revalidateAfter", Duration.ofMinutes(5));
+        cache.init();
+    }
+
+    private static UserProfileResponse profile(LocalDateTime updatedAt, int age) {
+        return UserProfileResponse.builder().id(USER).age(age).updatedAt(updatedAt).build();
+    }
+
+    private UserProfileResponse load(String userId) {
+        return stored.removeFirst();
+    }
+
+    private void storedStamp(LocalDateTime updatedAt) {
+        User user = new User();
+        user.setId(USER);
+        user.setUpdatedAt(updatedAt.withNano(updatedAt.getNano() / 1_000_000 * 1_000_000));
+        when(userRepository.findUpdatedAtById(USER)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void deriveServesTheCachedProfileWithinTheRevalidationWindow() {
+        stored.add(profile(FIRST_UPDATE, 30));
+
+        String first = cache.derive(USER, "goalsVersion", this::load, UserService::goalsVersion);
+        String second = cache.derive(USER, "goalsVersion", this::load, UserService::goalsVersion);
+
+        assertEquals(first, second);
+        verify(userRepository, never()).findUpdatedAtById(USER);
+    }
+
+    @Test
+    void deriveCurrentSeesAnUpdateMadeOnAnotherNodeAtOnce() {
+        stored.add(profile(FIRST_UPDATE, 30));
+        stored.add(profile(SECOND_UPDATE, 30));
+        String before = cache.derive(USER, "goalsVersion", this::load, UserService::goalsVersion);
+        storedStamp(SECOND_UPDATE);
+
+        String after = cache.deriveCurrent(USER, "goalsVersion", this::load, UserService::goalsVersion);
+
+        assertNotEquals(before, after);
+        // The refreshed entry is what every other reader gets from now on
+        assertEquals(after, cache.derive(USER, "goalsVersion", this::load, UserService::goalsVersion));
+    }
+
+    @Test
+    void deriveCurrentKeepsAnEntryThatMatchesTheStoredStamp() {
+        stored.add(profile(FIRST_UPDATE, 30));
+        String before = cache.derive(USER, "goalsVersion", this::load, UserService::goalsVersion);
+        storedStamp(FIRST_UPDATE);
+
+        assertEquals(before, cache.deriveCurrent(USER, "goalsVersion", this::load, UserService::goalsVersion));
+    }
+
+    @Test
+    void goalsVersionIgnoresSubMillisecondPrecisionAndFollowsAge() {
+        LocalDateTime asStored = FIRST_UPDATE.withNano(123_000_000);
+
+        assertEquals(UserService.goalsVersion(profile(FIRST_UPDATE, 30)),
+                UserService.goalsVersion(profile(asStored, 30)));
+        assertNotEquals(UserService.goalsVersion(profile(FIRST_UPDATE, 30)),
+                UserService.goalsVersion(profile(FIRST_UPDATE, 31)));
+    }
+}
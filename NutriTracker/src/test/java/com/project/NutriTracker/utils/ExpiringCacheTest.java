@@ -0,0 +1,105 @@
+package com.project.NutriTracker.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ExpiringCacheTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final AtomicInteger evictions = new AtomicInteger();
+
+    private static long inAMinute() {
+        return System.currentTimeMillis() + MINUTE;
+    }
+
+    private static long aMinuteAgo() {
+        return System.currentTimeMillis() - MINUTE;
+    }
+
+    // Read times are nanoTime stamps, so keep successive steps strictly ordered
+    private static void tick() throws InterruptedException {
+        Thread.sleep(2);
+    }
+
+    @Test
+    void liveEntriesAreReturned() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, evictions::incrementAndGet);
+
+        cache.put("a", 1, inAMinute());
+
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(0, evictions.get());
+    }
+
+    @Test
+    void expiredEntriesAreDroppedOnReadAndCounted() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, evictions::incrementAndGet);
+
+        cache.put("a", 1, aMinuteAgo());
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, evictions.get());
+    }
+
+    @Test
+    void trimDropsExpiredEntriesBeforeLiveOnes() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(4, evictions::incrementAndGet);
+        cache.put("old1", 1, aMinuteAgo());
+        cache.put("old2", 2, aMinuteAgo());
+        cache.put("a", 3, inAMinute());
+        cache.put("b", 4, inAMinute());
+
+        cache.put("c", 5, inAMinute());
+
+        assertEquals(3, cache.size());
+        assertEquals(2, evictions.get());
+        assertEquals(3, cache.get("a"));
+        assertEquals(4, cache.get("b"));
+        assertEquals(5, cache.get("c"));
+    }
+
+    @Test
+    void trimDropsTheLeastRecentlyReadDownToNinetyPercent() throws InterruptedException {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(10, evictions::incrementAndGet);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i, inAMinute());
+            tick();
+        }
+        cache.get(0);
+        tick();
+
+        cache.put(10, 10, inAMinute());
+
+        assertEquals(9, cache.size());
+        assertEquals(2, evictions.get());
+        assertEquals(0, cache.get(0));
+        assertNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(3, cache.get(3));
+        assertEquals(10, cache.get(10));
+    }
+
+    @Test
+    void explicitRemovalsAreNotCountedAsEvictions() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, evictions::incrementAndGet);
+        cache.put("a", 1, inAMinute());
+        cache.put("b", 2, inAMinute());
+        cache.put("c", 3, inAMinute());
+
+        cache.remove("a");
+        cache.removeIf((key, value) -> value == 2);
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(0, evictions.get());
+    }
+}
@@ -1,5 +1,5 @@
 import { useState } from 'react';
-import { uploadMealImage } from '../services/meal.service';
+import { uploadMealImage, watchMealStatus } from '../services/meal.service';
 
 interface FoodItem {
     name: string;
@@ -64,62 +64,30 @@ export const MealUploadModal = ({ isOpen, onClose, onSuccess }: MealUploadModalP
         }
     };
 
-    const pollMealStatus = async (mealId: string): Promise<void> => {
-        const maxAttempts = 60; // Poll for up to 2 minutes (60 * 2 seconds)
-        let attempts = 0;
+    const waitForAnalysis = async (mealId: string): Promise<void> => {
+        // The server pushes each status change and closes the stream once analysis finishes
+        const last = await watchMealStatus(mealId, (event) => setAnalysisStatus(event.status));
 
-        return new Promise((resolve, reject) => {
-            const pollInterval = setInterval(async () => {
-                attempts++;
-
-                try {
-                    // Fetch meal status
-                    const statusResponse = await fetch(`http://localhost:8080/api/meals/${mealId}`, {
-                        headers: {
-                            'Authorization': `Bearer ${localStorage.getItem('token')}`
-                        }
-                    });
-
-                    if (!statusResponse.ok) {
-                        clearInterval(pollInterval);
-                        reject(new Error('Failed to fetch meal status'));
-                        return;
-                    }
-
-                    const mealData = await statusResponse.json();
-                    setAnalysisStatus(mealData.status);
-
-                    if (mealData.status === 'ANALYZED') {
-                        clearInterval(pollInterval);
-
-                        // Fetch the full analysis
-                        const analysisResponse = await fetch(`http://localhost:8080/api/meals/${mealId}/analysis`, {
-                            headers: {
-                                'Authorization': `Bearer ${localStorage.getItem('token')}`
-                            }
-                        });
+        if (last?.status === 'FAILED') {
+            throw new Error(last.errorMessage || 'Analysis failed');
+        }
+        if (last?.status !== 'ANALYZED') {
+            throw new Error('Analysis timeout - taking longer than expected');
+        }
 
-                        if (analysisResponse.ok) {
-                            const analysis = await analysisResponse.json();
-                            setAnalysisResult(analysis);
-                            setShowAnalysis(true);
-                            resolve();
-                        } else {
-                            reject(new Error('Failed to fetch analysis'));
-                        }
-                    } else if (mealData.status === 'FAILED') {
-                        clearInterval(pollInterval);
-                        reject(new Error(mealData.errorMessage || 'Analysis failed'));
-                    } else if (attempts >= maxAttempts) {
-                        clearInterval(pollInterval);
-                        reject(new Error('Analysis timeout - taking longer than expected'));
-                    }
-                } catch (err) {
-                    clearInterval(pollInterval);
-                    reject(err);
-                }
-            }, 2000); // Poll every 2 seconds
+        // Fetch the full analysis
+        const analysisResponse = await fetch(`http://localhost:8080/api/meals/${mealId}/analysis`, {
+            headers: {
+                'Authorization': `Bearer ${localStorage.getItem('token')}`
+            }
         });
+
+        if (!analysisResponse.ok) {
+            throw new Error('Failed to fetch analysis');
+        }
+        const analysis = await analysisResponse.json();
+        setAnalysisResult(analysis);
+        setShowAnalysis(true);
     };
 
     const handleUpload = async () => {
@@ -137,8 +105,8 @@ export const MealUploadModal = ({ isOpen, onClose, onSuccess }: MealUploadModalP
             const response = await uploadMealImage(selectedFile);
             setAnalysisStatus('PROCESSING');
 
-            // Poll for analysis completion
-            await pollMealStatus(response.id);
+            // Wait for analysis completion
+            await waitForAnalysis(response.id);
 
         } catch (err: any) {
             setError(err.message || err.response?.data?.error || 'Failed to upload and analyze meal image');
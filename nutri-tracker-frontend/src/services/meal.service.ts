@@ -52,6 +52,7 @@ export interface FoodItem {
 }
 
 export interface FoodSearchResponse {
+    query: string; // the trimmed query these results are for
     results: FoodItem[];
     totalResults: number;
 }
@@ -78,6 +79,61 @@ export const uploadMealImage = async (file: File) => {
     return response.data;
 };
 
+export interface MealStatusEvent {
+    mealImageId: string;
+    status: string;
+    errorMessage?: string;
+    timestamp: string;
+}
+
+// Stream status changes for a meal (Server-Sent Events). Resolves with the last
+// event received once the server closes the stream. Uses fetch rather than
+// EventSource so the Authorization header can be sent.
+export const watchMealStatus = async (
+    mealId: string,
+    onStatus: (event: MealStatusEvent) => void,
+    signal?: AbortSignal,
+): Promise<MealStatusEvent | null> => {
+    const response = await fetch(`${api.defaults.baseURL}/meals/${mealId}/status/stream`, {
+        headers: {
+            'Authorization': `Bearer ${localStorage.getItem('token')}`,
+            'Accept': 'text/event-stream',
+        },
+        signal,
+    });
+    if (!response.ok || !response.body) {
+        throw new Error('Failed to open meal status stream');
+    }
+
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    let last: MealStatusEvent | null = null;
+
+    while (true) {
+        const { done, value } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
+
+        // Events are separated by a blank line; only data lines carry the payload
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary + 2);
+            const data = block
+                .split('\n')
+                .filter((line) => line.startsWith('data:'))
+                .map((line) => line.slice(5))
+                .join('\n');
+            if (data) {
+                last = JSON.parse(data) as MealStatusEvent;
+                onStatus(last);
+            }
+        }
+    }
+    return last;
+};
+
 // Get today's stats
 export const getTodayStats = async () => {
     const response = await api.get<DailyStatsResponse>('/stats/today');
@@ -90,9 +146,12 @@ export const getDailyStats = async (date: string) => {
     return response.data;
 };
 
-// Search for foods
-export const searchFoods = async (query: string, limit: number = 10) => {
-    const response = await api.get<FoodSearchResponse>(`/meals/search?q=${query}&limit=${limit}`);
+// Typeahead food search; debounce keystrokes and abort the previous call via signal
+export const searchFoods = async (query: string, limit: number = 10, signal?: AbortSignal) => {
+    const response = await api.get<FoodSearchResponse>('/meals/search', {
+        params: { q: query, limit },
+        signal,
+    });
     return response.data;
 };
 
@@ -103,8 +162,35 @@ export const createManualEntry = async (foods: ManualFoodEntry[]) => {
 };
 
 // Get all user meals
-export const getUserMeals = async () => {
-    const response = await api.get<MealSummary[]>('/meals');
+export interface MealHistoryItem {
+    id: string;
+    imageUrl: string;
+    fileName: string;
+    status: string;
+    foodItems: string[];
+    nutritionSummary?: {
+        totalCalories: number;
+        totalProtein: number;
+        totalCarbohydrates: number;
+        totalFat: number;
+        totalFiber: number;
+        totalSugar: number;
+    };
+    uploadedAt: string;
+    analyzedAt?: string;
+}
+
+export interface MealHistoryPage {
+    items: MealHistoryItem[];
+    nextCursor?: string;
+    hasMore: boolean;
+}
+
+// Get one page of meal history; pass nextCursor from the previous page to continue
+export const getUserMeals = async (cursor?: string, limit: number = 20) => {
+    const response = await api.get<MealHistoryPage>('/meals', {
+        params: { cursor, limit },
+    });
     return response.data;
 };
 